@@ -0,0 +1,59 @@
+package org.tiltus.authbackend.rest.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.tiltus.authbackend.model.CaroUser;
+import org.tiltus.authbackend.model.CaroUserProfile;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// The /api/user/me body: entity to record, then record to JSON as the message converter writes it.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserSettingsResponseBenchmark {
+
+    private CaroUser user;
+    private UserSettingsResponse response;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        user = new CaroUser("benchmark", "benchmark@example.com", "hash", "Bench", "Mark");
+        user.setId(UUID.randomUUID());
+        user.setTagId("#123456");
+        CaroUserProfile profile = new CaroUserProfile();
+        profile.setDisplayName("Bench Mark");
+        profile.setAvatarUrl("https://cdn.example.com/avatars/benchmark.png");
+        profile.setBannerUrl("https://cdn.example.com/banners/benchmark.png");
+        profile.setAccentColor("#3366ff");
+        user.setProfile(profile);
+
+        response = UserSettingsResponse.from(user);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public UserSettingsResponse from() {
+        return UserSettingsResponse.from(user);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] fromAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(UserSettingsResponse.from(user));
+    }
+}
@@ -0,0 +1,74 @@
+package org.tiltus.authbackend.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.tiltus.authbackend.enums.FriendshipStatus;
+import org.tiltus.authbackend.model.CaroFriendship;
+import org.tiltus.authbackend.model.CaroUser;
+import org.tiltus.authbackend.repositories.CaroFriendshipRepository;
+import org.tiltus.authbackend.rest.response.FriendResponse;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Only the mapping stream of getFriends; the repository hands back a prepared list.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FriendsMappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int friends;
+
+    private CaroFriendshipService service;
+    private UUID userId;
+
+    @Setup
+    public void setUp() {
+        CaroUser me = user("me");
+        userId = me.getId();
+
+        List<CaroFriendship> friendships = new ArrayList<>(friends);
+        for (int i = 0; i < friends; i++) {
+            CaroFriendship friendship = new CaroFriendship();
+            friendship.setId(UUID.randomUUID());
+            friendship.setStatus(FriendshipStatus.ACCEPTED);
+            // Half the rows have the current user on each side, as in a real friend list.
+            CaroUser friend = user("friend" + i);
+            friendship.setRequester(i % 2 == 0 ? me : friend);
+            friendship.setAddressee(i % 2 == 0 ? friend : me);
+            friendships.add(friendship);
+        }
+
+        CaroFriendshipRepository repository = (CaroFriendshipRepository) Proxy.newProxyInstance(
+                CaroFriendshipRepository.class.getClassLoader(),
+                new Class<?>[]{CaroFriendshipRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAcceptedForUser")) {
+                        return friendships;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        service = new CaroFriendshipService(repository, null, null, null, null);
+    }
+
+    @Benchmark
+    public List<FriendResponse> getFriends() {
+        return service.getFriends(userId);
+    }
+
+    private static CaroUser user(String username) {
+        CaroUser user = new CaroUser(username, username + "@example.com", "hash", "First", "Last");
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+}
@@ -0,0 +1,47 @@
+package org.tiltus.authbackend.services;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Runs on every authenticated request (parse) and on every login and refresh (issueAccess).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private UUID userId;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", "CHANGE_ME_MIN_32_BYTES_LONG_SECRET");
+        ReflectionTestUtils.setField(jwtService, "issuer", "realtime-platform");
+        ReflectionTestUtils.setField(jwtService, "accessTtl", 15L);
+        ReflectionTestUtils.setField(jwtService, "refreshTtl", 30L);
+        userId = UUID.randomUUID();
+        accessToken = jwtService.issueAccess(userId, "benchmark");
+    }
+
+    @Benchmark
+    public String issueAccess() {
+        return jwtService.issueAccess(userId, "benchmark");
+    }
+
+    @Benchmark
+    public Jws<Claims> parse() {
+        return jwtService.parse(accessToken);
+    }
+}
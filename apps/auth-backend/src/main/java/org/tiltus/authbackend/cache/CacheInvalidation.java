@@ -0,0 +1,25 @@
+package org.tiltus.authbackend.cache;
+
+import org.tiltus.authbackend.enums.CacheRegion;
+
+import java.util.UUID;
+
+// originId is the node that made the change; it has already dropped its own entries.
+public record CacheInvalidation(
+        CacheRegion region,
+        UUID key,
+        UUID originId
+) {
+
+    public String encode() {
+        return region.name() + ':' + key + ':' + originId;
+    }
+
+    public static CacheInvalidation decode(String message) {
+        String[] parts = message.split(":", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed cache invalidation: " + message);
+        }
+        return new CacheInvalidation(CacheRegion.valueOf(parts[0]), UUID.fromString(parts[1]), UUID.fromString(parts[2]));
+    }
+}
@@ -0,0 +1,11 @@
+package org.tiltus.authbackend.cache;
+
+import java.util.function.Consumer;
+
+// Fan-out of invalidations to every node. Delivery is best effort; expire-after-write bounds what a lost message costs.
+public interface CacheInvalidationBus {
+
+    void publish(CacheInvalidation invalidation);
+
+    void subscribe(Consumer<CacheInvalidation> listener);
+}
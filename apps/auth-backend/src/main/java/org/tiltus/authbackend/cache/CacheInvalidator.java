@@ -0,0 +1,87 @@
+package org.tiltus.authbackend.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.tiltus.authbackend.enums.CacheRegion;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Local caches register an evictor per region; changes are applied here and on every other node.
+@Service
+public class CacheInvalidator {
+
+    private final CacheInvalidationBus bus;
+    private final UUID nodeId = UUID.randomUUID();
+    private final Map<CacheRegion, List<Consumer<UUID>>> evictors = new EnumMap<>(CacheRegion.class);
+    private final Counter received;
+    private final Counter publishFailures;
+
+    public CacheInvalidator(CacheInvalidationBus bus, MeterRegistry meterRegistry) {
+        this.bus = bus;
+        for (CacheRegion region : CacheRegion.values()) {
+            evictors.put(region, new CopyOnWriteArrayList<>());
+        }
+        this.received = Counter.builder("cache.invalidation.received")
+                .description("Invalidations received from other nodes")
+                .register(meterRegistry);
+        this.publishFailures = Counter.builder("cache.invalidation.publish.failures")
+                .description("Invalidations that could not be sent to other nodes")
+                .register(meterRegistry);
+        bus.subscribe(this::onRemote);
+    }
+
+    public UUID nodeId() {
+        return nodeId;
+    }
+
+    public void onInvalidate(CacheRegion region, Consumer<UUID> evictor) {
+        evictors.get(region).add(evictor);
+    }
+
+    // Inside a transaction other nodes are told after commit, so they cannot reload the old row.
+    public void invalidate(CacheRegion region, UUID key) {
+        evictLocally(region, key);
+        CacheInvalidation invalidation = new CacheInvalidation(region, key, nodeId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(invalidation);
+                }
+            });
+        } else {
+            broadcast(invalidation);
+        }
+    }
+
+    void onRemote(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.originId())) {
+            return;
+        }
+        received.increment();
+        evictLocally(invalidation.region(), invalidation.key());
+    }
+
+    private void evictLocally(CacheRegion region, UUID key) {
+        for (Consumer<UUID> evictor : evictors.get(region)) {
+            evictor.accept(key);
+        }
+    }
+
+    // The change is already committed; a lost message only leaves other nodes stale until expiry.
+    private void broadcast(CacheInvalidation invalidation) {
+        try {
+            bus.publish(invalidation);
+        } catch (RuntimeException e) {
+            publishFailures.increment();
+        }
+    }
+}
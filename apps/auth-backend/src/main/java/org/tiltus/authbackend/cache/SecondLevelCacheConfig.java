@@ -0,0 +1,91 @@
+package org.tiltus.authbackend.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Regions are created up front so sizing and statistics come from application.yml, not from Hibernate defaults.
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String USERS_REGION = "users";
+    public static final String PROFILES_REGION = "user_profiles";
+
+    // A manager of its own rather than the provider default: closing it with this context must not close
+    // the caches of anything else in the JVM, e.g. another application context in the same test run.
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${users.cache.users-max-size}") long usersMaxSize,
+            @Value("${users.cache.profiles-max-size}") long profilesMaxSize,
+            @Value("${users.cache.expire-after-write-ms}") long expireAfterWriteMs
+    ) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("tiltus:second-level-cache:" + UUID.randomUUID()),
+                provider.getDefaultClassLoader()
+        );
+        createRegion(cacheManager, USERS_REGION, usersMaxSize, expireAfterWriteMs);
+        createRegion(cacheManager, PROFILES_REGION, profilesMaxSize, expireAfterWriteMs);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+        return registry -> {
+            for (String region : List.of(USERS_REGION, PROFILES_REGION)) {
+                Cache<Object, Object> cache = secondLevelCacheManager.getCache(region);
+                JCacheMetrics.monitor(registry, cache);
+                Gauge.builder("cache.hit.ratio", registry, r -> hitRatio(r, region))
+                        .description("Share of second-level cache lookups served from the cache")
+                        .tag("cache", region)
+                        .register(registry);
+            }
+        };
+    }
+
+    static double hitRatio(MeterRegistry registry, String region) {
+        double hits = gets(registry, region, "hit");
+        double misses = gets(registry, region, "miss");
+        double total = hits + misses;
+        return total == 0 ? 0 : hits / total;
+    }
+
+    private static double gets(MeterRegistry registry, String region, String result) {
+        FunctionCounter counter = registry.find("cache.gets")
+                .tags("cache", region, "result", result)
+                .functionCounter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, long maxSize, long expireAfterWriteMs) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(expireAfterWriteMs)));
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
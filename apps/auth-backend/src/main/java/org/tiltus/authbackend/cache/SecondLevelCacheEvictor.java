@@ -0,0 +1,18 @@
+package org.tiltus.authbackend.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.stereotype.Component;
+import org.tiltus.authbackend.enums.CacheRegion;
+import org.tiltus.authbackend.model.CaroUser;
+import org.tiltus.authbackend.model.CaroUserProfile;
+
+// Hibernate keeps its own node consistent; this drops entries that another node changed.
+@Component
+public class SecondLevelCacheEvictor {
+
+    public SecondLevelCacheEvictor(CacheInvalidator invalidator, EntityManagerFactory entityManagerFactory) {
+        jakarta.persistence.Cache cache = entityManagerFactory.getCache();
+        invalidator.onInvalidate(CacheRegion.USERS, userId -> cache.evict(CaroUser.class, userId));
+        invalidator.onInvalidate(CacheRegion.PROFILES, userId -> cache.evict(CaroUserProfile.class, userId));
+    }
+}
@@ -0,0 +1,60 @@
+package org.tiltus.authbackend.datasource;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tiltus.authbackend.timing.RequestTimings;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// One execution is one round trip: a JDBC batch counts once, however many rows it carries.
+// The time covers execute only; rows fetched afterwards through the ResultSet are not included.
+public class QueryTimingListener implements QueryExecutionListener {
+
+    private static final Logger slowQueryLog = LoggerFactory.getLogger("org.tiltus.authbackend.slow-query");
+    private static final String STARTED = "startedNanos";
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private final long slowQueryNanos;
+
+    public QueryTimingListener(long slowQueryMillis) {
+        this.slowQueryNanos = slowQueryMillis * 1_000_000;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long started = execInfo.getCustomValue(STARTED, Long.class);
+        if (started == null) {
+            return;
+        }
+        long elapsed = System.nanoTime() - started;
+        RequestTimings.recordStatement(elapsed);
+        if (elapsed >= slowQueryNanos) {
+            logSlowQuery(execInfo, queryInfoList, elapsed);
+        }
+    }
+
+    // Only the SQL text with its placeholders is logged; bound values can hold emails and token hashes.
+    private void logSlowQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList, long elapsed) {
+        String sql = queryInfoList.stream()
+                .map(QueryInfo::getQuery)
+                .collect(Collectors.joining("; "));
+        if (sql.length() > MAX_SQL_LENGTH) {
+            sql = sql.substring(0, MAX_SQL_LENGTH) + "...";
+        }
+        int parameterSets = queryInfoList.stream()
+                .mapToInt(query -> query.getParametersList().size())
+                .sum();
+        slowQueryLog.warn("Slow query took {} ms (batch size {}, {} parameter set(s) redacted, success {}): {}",
+                elapsed / 1_000_000, execInfo.isBatch() ? execInfo.getBatchSize() : 1, parameterSets,
+                execInfo.isSuccess(), sql);
+    }
+}
@@ -0,0 +1,31 @@
+package org.tiltus.authbackend.datasource;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Wraps only the data source the application uses, which is the replica routing proxy once that is
+// enabled. The pools underneath stay unwrapped so no statement is counted twice.
+@Component
+public class QueryTimingPostProcessor implements BeanPostProcessor {
+
+    private final long slowQueryMillis;
+
+    public QueryTimingPostProcessor(@Value("${datasource.slow-query-ms}") long slowQueryMillis) {
+        this.slowQueryMillis = slowQueryMillis;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(new QueryTimingListener(slowQueryMillis))
+                    .build();
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,58 @@
+package org.tiltus.authbackend.datasource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps a user's reads on the primary for a short while after they wrote, so replica lag cannot hide their own change.
+// The writes are remembered by this node only; JwtAuthFilter covers the other nodes through the token's iat.
+@Component
+public class ReadYourWritesWindow {
+
+    private final long windowMs;
+    private final ConcurrentHashMap<String, Long> lastWriteAt = new ConcurrentHashMap<>();
+
+    // Without a replica every read already sees every write, so nothing is remembered.
+    @Autowired
+    public ReadYourWritesWindow(
+            @Value("${datasource.replica.enabled}") boolean replicaEnabled,
+            @Value("${datasource.replica.read-your-writes-ms}") long windowMs
+    ) {
+        this(replicaEnabled ? windowMs : 0);
+    }
+
+    public ReadYourWritesWindow(long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    public void recordWrite(String userId, long nowMs) {
+        if (windowMs > 0) {
+            lastWriteAt.merge(userId, nowMs, Math::max);
+        }
+    }
+
+    public boolean isPinned(String userId, long nowMs) {
+        Long writtenAt = lastWriteAt.get(userId);
+        return writtenAt != null && covers(writtenAt, nowMs);
+    }
+
+    public boolean covers(long writtenAtMs, long nowMs) {
+        return nowMs - writtenAtMs < windowMs;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.eviction-interval-ms}")
+    public void evictExpired() {
+        evictExpired(System.currentTimeMillis());
+    }
+
+    public void evictExpired(long nowMs) {
+        lastWriteAt.values().removeIf(writtenAt -> nowMs - writtenAt >= windowMs);
+    }
+
+    public int size() {
+        return lastWriteAt.size();
+    }
+}
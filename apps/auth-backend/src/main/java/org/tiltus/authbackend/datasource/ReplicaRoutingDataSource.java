@@ -0,0 +1,65 @@
+package org.tiltus.authbackend.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Must sit behind a LazyConnectionDataSourceProxy: the read-only flag is only set after the transaction has begun.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUESTED = new ThreadLocal<>();
+
+    private final ReadYourWritesWindow readYourWrites;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesWindow readYourWrites) {
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    // Sends the read-only work of this thread to the primary too, until clearPrimaryRequest.
+    public static void requestPrimary() {
+        PRIMARY_REQUESTED.set(Boolean.TRUE);
+    }
+
+    public static void clearPrimaryRequest() {
+        PRIMARY_REQUESTED.remove();
+    }
+
+    public static boolean isPrimaryRequested() {
+        return PRIMARY_REQUESTED.get() != null;
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        String userId = currentUserId();
+        long now = System.currentTimeMillis();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null) {
+                readYourWrites.recordWrite(userId, now);
+            }
+            return Route.PRIMARY;
+        }
+        if (isPrimaryRequested() || (userId != null && readYourWrites.isPinned(userId, now))) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+
+    private static String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
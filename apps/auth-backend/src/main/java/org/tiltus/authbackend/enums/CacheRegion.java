@@ -0,0 +1,5 @@
+package org.tiltus.authbackend.enums;
+
+public enum CacheRegion {
+    USERS, PROFILES
+}
@@ -0,0 +1,5 @@
+package org.tiltus.authbackend.enums;
+
+public enum FriendRequestOutcome {
+    SENT, REQUESTER_NOT_FOUND, TARGET_NOT_FOUND, TOO_MANY_PENDING, ALREADY_FRIENDS, ALREADY_PENDING, BLOCKED
+}
@@ -0,0 +1,5 @@
+package org.tiltus.authbackend.enums;
+
+public enum FriendshipEventType {
+    REQUEST_RECEIVED, REQUEST_ACCEPTED, REQUEST_DECLINED, REQUEST_CANCELLED, UNFRIENDED
+}
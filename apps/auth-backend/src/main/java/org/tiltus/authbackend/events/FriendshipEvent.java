@@ -0,0 +1,19 @@
+package org.tiltus.authbackend.events;
+
+import org.tiltus.authbackend.enums.FriendshipEventType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// actorId is the user who triggered the change, targetId the other side of the friendship.
+public record FriendshipEvent(
+        FriendshipEventType type,
+        UUID actorId,
+        UUID targetId,
+        Instant occurredAt
+) {
+
+    public static FriendshipEvent of(FriendshipEventType type, UUID actorId, UUID targetId) {
+        return new FriendshipEvent(type, actorId, targetId, Instant.now());
+    }
+}
@@ -0,0 +1,19 @@
+package org.tiltus.authbackend.events;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record PresenceChangedEvent(
+        UUID userId,
+        boolean online,
+        Instant occurredAt
+) {
+
+    public static PresenceChangedEvent online(UUID userId) {
+        return new PresenceChangedEvent(userId, true, Instant.now());
+    }
+
+    public static PresenceChangedEvent offline(UUID userId) {
+        return new PresenceChangedEvent(userId, false, Instant.now());
+    }
+}
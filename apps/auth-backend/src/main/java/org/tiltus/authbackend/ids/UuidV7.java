@@ -0,0 +1,45 @@
+package org.tiltus.authbackend.ids;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// RFC 9562 version 7: 48-bit unix millis, then a 12-bit counter in rand_a so ids from one node stay strictly increasing.
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // millis << 12 | counter; a counter overflow borrows the next millisecond instead of going backwards.
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    public static UUID next() {
+        return of(nextTimestamp(System.currentTimeMillis()), RANDOM.nextLong());
+    }
+
+    static long nextTimestamp(long nowMs) {
+        long candidate = nowMs << 12;
+        while (true) {
+            long previous = LAST.get();
+            long next = Math.max(candidate, previous + 1);
+            if (LAST.compareAndSet(previous, next)) {
+                return next;
+            }
+        }
+    }
+
+    // timestamp is millis << 12 | counter; callers that need reproducible ids pass their own.
+    public static UUID of(long timestamp, long random) {
+        long millis = timestamp >>> 12;
+        long counter = timestamp & 0xFFFL;
+        long msb = (millis << 16) | 0x7000L | counter;
+        long lsb = (random & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    public static long timestampMillis(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
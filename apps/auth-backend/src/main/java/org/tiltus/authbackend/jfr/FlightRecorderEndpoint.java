@@ -0,0 +1,44 @@
+package org.tiltus.authbackend.jfr;
+
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+// POST /actuator/jfr starts, DELETE stops, GET downloads the recording (a snapshot while it is running).
+// Recordings hold stack samples and timings, so like all of actuator it is served on the internal management port only.
+@Component
+@Endpoint(id = "jfr")
+@RequiredArgsConstructor
+public class FlightRecorderEndpoint {
+
+    private final FlightRecorderService flightRecorderService;
+
+    @WriteOperation
+    public Map<String, RecordingState> start() {
+        return Map.of("state", flightRecorderService.start());
+    }
+
+    @DeleteOperation
+    public Map<String, RecordingState> stop() {
+        return Map.of("state", flightRecorderService.stop());
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download() {
+        Path file = flightRecorderService.dump();
+        if (file == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(file), WebEndpointResponse.STATUS_OK);
+    }
+}
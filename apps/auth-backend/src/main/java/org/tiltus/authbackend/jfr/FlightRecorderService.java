@@ -0,0 +1,102 @@
+package org.tiltus.authbackend.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+// Holds at most one recording. It uses the JDK "default" settings, which are meant to stay under 1% overhead,
+// and keeps a rolling window on disk so it can run for the lifetime of the node.
+@Service
+public class FlightRecorderService {
+
+    // Their values can contain credentials from the environment or -D flags.
+    private static final String[] SENSITIVE_EVENTS = {
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation"
+    };
+
+    @Value("${jfr.max-age-minutes}") private long maxAgeMinutes;
+    @Value("${jfr.max-size-mb}") private long maxSizeMb;
+    @Value("${jfr.start-on-boot}") private boolean startOnBoot;
+
+    private Recording recording;
+    private Path lastDump;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnBoot() {
+        if (startOnBoot) {
+            start();
+        }
+    }
+
+    public synchronized RecordingState start() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return recording.getState();
+        }
+        close();
+        try {
+            recording = new Recording(Configuration.getConfiguration("default"));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("The JDK default JFR configuration cannot be loaded.", e);
+        }
+        for (String event : SENSITIVE_EVENTS) {
+            recording.disable(event);
+        }
+        recording.setName("auth-backend");
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        recording.setMaxSize(maxSizeMb * 1024 * 1024);
+        recording.start();
+        return recording.getState();
+    }
+
+    public synchronized RecordingState stop() {
+        if (recording == null) {
+            return RecordingState.NEW;
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        return recording.getState();
+    }
+
+    public synchronized RecordingState state() {
+        return recording == null ? RecordingState.NEW : recording.getState();
+    }
+
+    // Works on a running recording as well; it snapshots what is on disk so far.
+    // Only the latest dump is kept, the previous one is removed once it is replaced.
+    public synchronized Path dump() {
+        if (recording == null || recording.getState() == RecordingState.CLOSED) {
+            return null;
+        }
+        try {
+            Path file = Files.createTempFile("auth-backend-", ".jfr");
+            recording.dump(file);
+            if (lastDump != null) {
+                Files.deleteIfExists(lastDump);
+            }
+            lastDump = file;
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.tiltus.authbackend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.tiltus.authbackend.Jwt")
+@Label("JWT")
+@Category({"Auth Backend", "Auth"})
+@Description("Signing or verifying a JWT")
+@StackTrace(false)
+public class JwtEvent extends Event {
+
+    @Label("Operation")
+    @Description("sign-access, sign-refresh or parse")
+    private String operation;
+
+    @Label("Failed")
+    private boolean failed;
+
+    public JwtEvent(String operation) {
+        this.operation = operation;
+    }
+
+    public void fail() {
+        this.failed = true;
+    }
+}
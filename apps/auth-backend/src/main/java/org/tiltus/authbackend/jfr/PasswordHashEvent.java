@@ -0,0 +1,24 @@
+package org.tiltus.authbackend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("org.tiltus.authbackend.PasswordHash")
+@Label("Password Hash")
+@Category({"Auth Backend", "Auth"})
+@Description("Hashing a new password or verifying one against its hash")
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+
+    @Label("Operation")
+    @Description("encode or matches")
+    private String operation;
+
+    public PasswordHashEvent(String operation) {
+        this.operation = operation;
+    }
+}
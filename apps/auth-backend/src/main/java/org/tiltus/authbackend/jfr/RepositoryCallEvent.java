@@ -0,0 +1,35 @@
+package org.tiltus.authbackend.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// No stack trace: the repository and method already say where the call came from, and it keeps the event cheap.
+@Name("org.tiltus.authbackend.RepositoryCall")
+@Label("Repository Call")
+@Category({"Auth Backend", "Persistence"})
+@Description("One call through a Spring Data repository, including the query and entity mapping")
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    private String repository;
+
+    @Label("Method")
+    private String method;
+
+    @Label("Failed")
+    private boolean failed;
+
+    public RepositoryCallEvent(String repository, String method) {
+        this.repository = repository;
+        this.method = method;
+    }
+
+    public void fail() {
+        this.failed = true;
+    }
+}
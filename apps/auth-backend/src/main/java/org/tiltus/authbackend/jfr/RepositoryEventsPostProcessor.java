@@ -0,0 +1,47 @@
+package org.tiltus.authbackend.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+import org.tiltus.authbackend.repositories.CaroFriendshipRepository;
+import org.tiltus.authbackend.repositories.CaroUserRepository;
+
+import java.util.Set;
+
+// Hooks into the Spring Data proxy of the hot repositories instead of weaving, so every call,
+// derived, @Query and inherited CRUD alike, is wrapped in a RepositoryCallEvent.
+@Component
+public class RepositoryEventsPostProcessor implements BeanPostProcessor {
+
+    private static final Set<Class<?>> RECORDED = Set.of(CaroUserRepository.class, CaroFriendshipRepository.class);
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> {
+                        Class<?> repositoryInterface = repositoryInformation.getRepositoryInterface();
+                        if (RECORDED.contains(repositoryInterface)) {
+                            proxyFactory.addAdvice(interceptor(repositoryInterface.getSimpleName()));
+                        }
+                    }));
+        }
+        return bean;
+    }
+
+    private static MethodInterceptor interceptor(String repository) {
+        return invocation -> {
+            RepositoryCallEvent event = new RepositoryCallEvent(repository, invocation.getMethod().getName());
+            event.begin();
+            try {
+                return invocation.proceed();
+            } catch (RuntimeException e) {
+                event.fail();
+                throw e;
+            } finally {
+                event.commit();
+            }
+        };
+    }
+}
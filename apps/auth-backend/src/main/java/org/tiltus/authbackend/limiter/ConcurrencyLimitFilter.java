@@ -0,0 +1,164 @@
+package org.tiltus.authbackend.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.tiltus.authbackend.rest.response.ErrorResponse;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Sheds load with a 503 before a request reaches the security chain, the Tomcat queue or the Hikari pool.
+// Login and register spend most of their time in bcrypt, so they have their own, smaller pool and cannot
+// starve the rest of the API. Everything else, refresh included, shares the api pool by priority.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final ConcurrencyLimiter authLimiter;
+    private final ConcurrencyLimiter apiLimiter;
+    private final Map<RequestPriority, Counter> admitted = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> rejected = new EnumMap<>(RequestPriority.class);
+
+    public ConcurrencyLimitFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${concurrency-limit.enabled}") boolean enabled,
+            @Value("${concurrency-limit.probe-multiplier}") int probeMultiplier,
+            @Value("${concurrency-limit.auth.initial-limit}") int authInitial,
+            @Value("${concurrency-limit.auth.min-limit}") int authMin,
+            @Value("${concurrency-limit.auth.max-limit}") int authMax,
+            @Value("${concurrency-limit.api.initial-limit}") int apiInitial,
+            @Value("${concurrency-limit.api.min-limit}") int apiMin,
+            @Value("${concurrency-limit.api.max-limit}") int apiMax
+    ) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.authLimiter = new ConcurrencyLimiter("auth", new VegasLimit(authInitial, authMin, authMax, probeMultiplier));
+        this.apiLimiter = new ConcurrencyLimiter("api", new VegasLimit(apiInitial, apiMin, apiMax, probeMultiplier));
+        register(meterRegistry, authLimiter);
+        register(meterRegistry, apiLimiter);
+        for (RequestPriority priority : RequestPriority.values()) {
+            String pool = limiterFor(priority).name();
+            admitted.put(priority, Counter.builder("http.concurrency.admitted")
+                    .description("Requests let through by the concurrency limiter")
+                    .tag("pool", pool)
+                    .tag("priority", priority.tag())
+                    .register(meterRegistry));
+            rejected.put(priority, Counter.builder("http.concurrency.rejected")
+                    .description("Requests shed with 503 because their tier's share of the limit was used up")
+                    .tag("pool", pool)
+                    .tag("priority", priority.tag())
+                    .register(meterRegistry));
+        }
+    }
+
+    private static void register(MeterRegistry meterRegistry, ConcurrencyLimiter limiter) {
+        Gauge.builder("http.concurrency.limit", limiter, ConcurrencyLimiter::limit)
+                .description("Current adaptive concurrency limit")
+                .tag("pool", limiter.name())
+                .register(meterRegistry);
+        Gauge.builder("http.concurrency.in.flight", limiter, ConcurrencyLimiter::inFlight)
+                .description("Requests currently admitted")
+                .tag("pool", limiter.name())
+                .register(meterRegistry);
+    }
+
+    // Probes, scrapes, preflights and long-lived streams are left alone; the gateway and SSE hold a
+    // request open for minutes, which would pin the limit without saying anything about load.
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = path(request);
+        return !enabled
+                || "OPTIONS".equals(request.getMethod())
+                || path.startsWith("/actuator/")
+                || path.equals("/ws")
+                || path.equals("/api/friends/events");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RequestPriority priority = RequestPriority.classify(request.getMethod(), path(request));
+        ConcurrencyLimiter limiter = limiterFor(priority);
+        if (!tryAcquire(priority, limiter)) {
+            rejected.get(priority).increment();
+            reject(request, response);
+            return;
+        }
+        admitted.get(priority).increment();
+
+        long started = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            long rtt = System.nanoTime() - started;
+            int status = response.getStatus();
+            if (!completed || request.isAsyncStarted()) {
+                limiter.onIgnore();
+            } else if (status == HttpStatus.SERVICE_UNAVAILABLE.value() || status == HttpStatus.GATEWAY_TIMEOUT.value()) {
+                limiter.onDropped(endpoint(request), rtt);
+            } else {
+                limiter.onSuccess(endpoint(request), rtt);
+            }
+        }
+    }
+
+    // A login is also turned away while the api pool is past the login share: the session it opens
+    // would only add reads to a node that is already behind.
+    private boolean tryAcquire(RequestPriority priority, ConcurrencyLimiter limiter) {
+        if (priority == RequestPriority.LOGIN) {
+            return !apiLimiter.isFilledTo(priority.share()) && limiter.tryAcquire();
+        }
+        return limiter.tryAcquire(priority.share());
+    }
+
+    ConcurrencyLimiter limiterFor(RequestPriority priority) {
+        return priority == RequestPriority.LOGIN ? authLimiter : apiLimiter;
+    }
+
+    // The mapped pattern rather than the path, so ids in the URL do not make every request its own endpoint.
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern == null ? "unmapped" : pattern);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        ErrorResponse body = new ErrorResponse(
+                Instant.now(),
+                status.value(),
+                status.name(),
+                "overloaded",
+                "Server is busy, retry shortly",
+                request.getRequestURI()
+        );
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,63 @@
+package org.tiltus.authbackend.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Admits a request while fewer than the current limit are in flight; the caller reports how it ended.
+public class ConcurrencyLimiter {
+
+    private final String name;
+    private final VegasLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ConcurrencyLimiter(String name, VegasLimit limit) {
+        this.name = name;
+        this.limit = limit;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int limit() {
+        return limit.limit();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public boolean isFilledTo(double share) {
+        return inFlight.get() >= limit.limit() * share;
+    }
+
+    public boolean tryAcquire() {
+        return tryAcquire(1.0);
+    }
+
+    // Admits only while the pool is filled below share of its limit; at least one slot stays usable.
+    public boolean tryAcquire(double share) {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= Math.max(1, limit.limit() * share)) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess(String endpoint, long rttNanos) {
+        limit.onSample(endpoint, rttNanos, inFlight.getAndDecrement(), false);
+    }
+
+    // The request ran into a timeout or an exhausted pool further down.
+    public void onDropped(String endpoint, long rttNanos) {
+        limit.onSample(endpoint, rttNanos, inFlight.getAndDecrement(), true);
+    }
+
+    // Released without a sample, e.g. a failed or long-lived request whose latency says nothing about load.
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+}
@@ -0,0 +1,40 @@
+package org.tiltus.authbackend.limiter;
+
+// Ordered from most to least important. share is the part of the pool limit a tier may fill, so as the
+// pool fills up the lower tiers are turned away first and refresh keeps the last slots to itself.
+// A failed refresh logs the user out and comes back as a bcrypt-heavy login; a failed search costs nothing.
+public enum RequestPriority {
+    REFRESH(1.0),
+    READ(0.9),
+    WRITE(0.8),
+    SEARCH(0.6),
+    LOGIN(0.5);
+
+    private final double share;
+
+    RequestPriority(double share) {
+        this.share = share;
+    }
+
+    public double share() {
+        return share;
+    }
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+
+    // path is relative to the context path. Login and register share the LOGIN tier.
+    public static RequestPriority classify(String method, String path) {
+        if (path.equals("/api/auth/refresh")) {
+            return REFRESH;
+        }
+        if (path.startsWith("/api/auth/")) {
+            return LOGIN;
+        }
+        if (path.equals("/api/user/search")) {
+            return SEARCH;
+        }
+        return "GET".equals(method) || "HEAD".equals(method) ? READ : WRITE;
+    }
+}
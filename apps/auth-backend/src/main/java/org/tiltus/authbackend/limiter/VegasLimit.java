@@ -0,0 +1,73 @@
+package org.tiltus.authbackend.limiter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Delay-based limit in the style of TCP Vegas. The lowest latency seen stands in for the latency
+// without queueing; limit * (1 - noLoad / rtt) then estimates how many requests are queued. The
+// limit grows while that queue is short and shrinks once it grows, well before the pools time out.
+// A pool mixes 1 ms reads with 20 ms writes, so each endpoint is measured against its own floor.
+public class VegasLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int probeMultiplier;
+
+    private volatile int limit;
+    private double estimate;
+    private final Map<String, Long> noLoadRttNanos = new HashMap<>();
+    private long samplesSinceProbe;
+
+    public VegasLimit(int initialLimit, int minLimit, int maxLimit, int probeMultiplier) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeMultiplier = probeMultiplier;
+        this.estimate = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimate;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    synchronized long noLoadRttNanos(String endpoint) {
+        return noLoadRttNanos.getOrDefault(endpoint, 0L);
+    }
+
+    // endpoint is a bounded key such as the method and mapped path pattern.
+    public synchronized void onSample(String endpoint, long rttNanos, int inFlight, boolean dropped) {
+        // The floor is forgotten now and then, so a slower steady state (bigger tables, a colder
+        // cache) does not read as permanent queueing.
+        if (++samplesSinceProbe >= (long) probeMultiplier * limit) {
+            samplesSinceProbe = 0;
+            noLoadRttNanos.clear();
+        }
+        Long floor = noLoadRttNanos.get(endpoint);
+        if (floor == null || rttNanos < floor) {
+            noLoadRttNanos.put(endpoint, rttNanos);
+            return;
+        }
+
+        double log = Math.max(1, Math.log10(estimate));
+        double next;
+        if (dropped) {
+            next = estimate - log;
+        } else if (inFlight * 2 < estimate) {
+            // Too little traffic to say anything about the limit.
+            return;
+        } else {
+            double queued = Math.ceil(estimate * (1 - (double) floor / rttNanos));
+            if (queued <= log) {
+                next = estimate + 6 * log;
+            } else if (queued < 3 * log) {
+                next = estimate + log;
+            } else if (queued > 6 * log) {
+                next = estimate - log;
+            } else {
+                return;
+            }
+        }
+        estimate = Math.max(minLimit, Math.min(maxLimit, next));
+        limit = (int) estimate;
+    }
+}
@@ -0,0 +1,44 @@
+package org.tiltus.authbackend.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+// Timers carry histogram buckets so the tail can be aggregated across nodes in Prometheus.
+@Component
+public class AuthMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public AuthMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // operation is login, refresh or register; outcome is success, unauthorized, rejected or error.
+    public void recordRequest(Timer.Sample sample, String operation, String outcome) {
+        sample.stop(Timer.builder("auth.requests")
+                .description("Login, refresh and register calls by outcome")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    // operation is encode or matches.
+    public void recordPasswordHash(Timer.Sample sample, String operation) {
+        sample.stop(Timer.builder("auth.password.hash")
+                .description("Time spent in the password encoder")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    // outcome is valid, expired or invalid; the failing outcomes are the rejected tokens.
+    public void recordTokenParse(Timer.Sample sample, String outcome) {
+        sample.stop(Timer.builder("auth.jwt.parse")
+                .description("Access token verification in the request filter")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,32 @@
+package org.tiltus.authbackend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.tiltus.authbackend.enums.FriendshipEventType;
+import org.tiltus.authbackend.events.FriendshipEvent;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Counts friend request transitions as the outbox delivers them, so only committed changes show up.
+@Component
+public class FriendshipMetrics {
+
+    private final Map<FriendshipEventType, Counter> transitions = new EnumMap<>(FriendshipEventType.class);
+
+    public FriendshipMetrics(MeterRegistry meterRegistry) {
+        for (FriendshipEventType type : FriendshipEventType.values()) {
+            transitions.put(type, Counter.builder("friends.request.transitions")
+                    .description("Friend request state changes")
+                    .tag("type", type.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @EventListener
+    public void onFriendshipEvent(FriendshipEvent event) {
+        transitions.get(event.type()).increment();
+    }
+}
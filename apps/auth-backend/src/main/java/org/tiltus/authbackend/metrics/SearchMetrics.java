@@ -0,0 +1,28 @@
+package org.tiltus.authbackend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SearchMetrics {
+
+    private final Timer latency;
+    private final DistributionSummary results;
+
+    public SearchMetrics(MeterRegistry meterRegistry) {
+        this.latency = Timer.builder("users.search")
+                .description("Username search lookups")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.results = DistributionSummary.builder("users.search.results")
+                .description("Users returned per search")
+                .register(meterRegistry);
+    }
+
+    public void record(Timer.Sample sample, int resultCount) {
+        sample.stop(latency);
+        results.record(resultCount);
+    }
+}
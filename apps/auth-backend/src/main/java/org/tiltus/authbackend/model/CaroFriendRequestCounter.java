@@ -0,0 +1,30 @@
+package org.tiltus.authbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Immutable
+@Table(name = "friend_request_counters")
+@Getter
+@NoArgsConstructor
+public class CaroFriendRequestCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "incoming_pending", nullable = false)
+    private int incomingPending;
+
+    @Column(name = "outgoing_pending", nullable = false)
+    private int outgoingPending;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
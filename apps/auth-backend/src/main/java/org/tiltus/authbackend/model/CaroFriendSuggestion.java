@@ -0,0 +1,42 @@
+package org.tiltus.authbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.tiltus.authbackend.ids.UuidV7Id;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "friend_suggestions")
+@Getter
+@Setter
+@NoArgsConstructor
+public class CaroFriendSuggestion {
+
+    @Id
+    @UuidV7Id
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "candidate_id", nullable = false)
+    private CaroUser candidate;
+
+    @Column(name = "mutual_count", nullable = false)
+    private int mutualCount;
+
+    @Column(name = "computed_at", nullable = false)
+    private Instant computedAt;
+
+    public CaroFriendSuggestion(UUID userId, CaroUser candidate, int mutualCount, Instant computedAt) {
+        this.userId = userId;
+        this.candidate = candidate;
+        this.mutualCount = mutualCount;
+        this.computedAt = computedAt;
+    }
+}
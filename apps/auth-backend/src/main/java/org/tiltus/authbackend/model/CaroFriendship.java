@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.tiltus.authbackend.enums.FriendshipStatus;
+import org.tiltus.authbackend.ids.UuidV7Id;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -17,7 +18,7 @@ import java.util.UUID;
 public class CaroFriendship {
 
     @Id
-    @GeneratedValue
+    @UuidV7Id
     private UUID id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -2,18 +2,24 @@ package org.tiltus.authbackend.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.tiltus.authbackend.cache.SecondLevelCacheConfig;
+import org.tiltus.authbackend.ids.UuidV7Id;
 
 import java.time.Instant;
 import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USERS_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
 public class CaroUser {
 
-    @Id @GeneratedValue private UUID id;
+    @Id @UuidV7Id private UUID id;
     @Column(nullable = false, name = "tag_id") private String tagId;
     @Column(nullable = false) private String username;
     @Column(nullable = false, unique = true) private String email;
@@ -22,6 +28,7 @@ public class CaroUser {
     @Column(nullable = false, name = "last_name") private String lastName;
     @Column(nullable = false, name = "created_at") private Instant createdAt = Instant.now();
     @Column(nullable = false, name = "updated_at") private Instant updatedAt = Instant.now();
+    @Version @Column(nullable = false) private long version;
 
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private CaroUserProfile profile;
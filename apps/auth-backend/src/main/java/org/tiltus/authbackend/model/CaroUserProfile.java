@@ -4,11 +4,16 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.tiltus.authbackend.cache.SecondLevelCacheConfig;
 
 import java.util.UUID;
 
 @Entity
 @Table(name = "user_profile")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.PROFILES_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -34,4 +39,8 @@ public class CaroUserProfile {
 
     @Column(name = "accent_color", length = 16)
     private String accentColor;
+
+    @Version
+    @Column(nullable = false)
+    private long version;
 }
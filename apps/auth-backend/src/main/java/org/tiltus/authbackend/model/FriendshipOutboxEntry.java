@@ -0,0 +1,45 @@
+package org.tiltus.authbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.tiltus.authbackend.enums.FriendshipEventType;
+import org.tiltus.authbackend.events.FriendshipEvent;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "friendship_outbox")
+@Getter
+@NoArgsConstructor
+public class FriendshipOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private FriendshipEventType eventType;
+
+    @Column(name = "actor_id", nullable = false)
+    private UUID actorId;
+
+    @Column(name = "target_id", nullable = false)
+    private UUID targetId;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    public FriendshipOutboxEntry(FriendshipEvent event) {
+        this.eventType = event.type();
+        this.actorId = event.actorId();
+        this.targetId = event.targetId();
+        this.occurredAt = event.occurredAt();
+    }
+
+    public FriendshipEvent toEvent() {
+        return new FriendshipEvent(eventType, actorId, targetId, occurredAt);
+    }
+}
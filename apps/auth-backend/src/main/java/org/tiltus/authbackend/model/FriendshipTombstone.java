@@ -0,0 +1,28 @@
+package org.tiltus.authbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "friendship_tombstone")
+@Getter
+@NoArgsConstructor
+public class FriendshipTombstone {
+
+    @Id
+    @Column(name = "friendship_id")
+    private UUID friendshipId;
+
+    @Column(name = "requester_id", nullable = false)
+    private UUID requesterId;
+
+    @Column(name = "addressee_id", nullable = false)
+    private UUID addresseeId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.tiltus.authbackend.ids.UuidV7Id;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -15,7 +16,7 @@ import java.util.UUID;
 @NoArgsConstructor
 public class RefreshToken {
 
-    @Id @GeneratedValue private UUID id;
+    @Id @UuidV7Id private UUID id;
     @ManyToOne(optional = false) @JoinColumn(name = "user_id")
     private CaroUser user;
     @Column(nullable = false, unique = true) private String token;
@@ -0,0 +1,93 @@
+package org.tiltus.authbackend.presence;
+
+import java.util.Arrays;
+
+// Hashed timing wheel of user ids. Buckets are primitive arrays, one per tick, reused across rounds.
+// A user is scheduled once when coming online; when the bucket fires the caller re-checks the real
+// deadline and reschedules users who heartbeated since, so heartbeats never touch the wheel.
+class ExpiryWheel {
+
+    interface Visitor {
+        void visit(long msb, long lsb);
+    }
+
+    private final long tickMs;
+    private final int mask;
+    private final long[][] bucketMsbs;
+    private final long[][] bucketLsbs;
+    private final int[] bucketSizes;
+    private long nextTick;
+
+    // Only touched by the thread calling advance().
+    private long[] scratchMsbs = new long[64];
+    private long[] scratchLsbs = new long[64];
+
+    ExpiryWheel(int wheelSize, long tickMs, long startMillis) {
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1) << 1);
+        this.tickMs = tickMs;
+        this.mask = size - 1;
+        this.bucketMsbs = new long[size][16];
+        this.bucketLsbs = new long[size][16];
+        this.bucketSizes = new int[size];
+        this.nextTick = startMillis / tickMs;
+    }
+
+    synchronized void schedule(long msb, long lsb, long deadlineMillis) {
+        // Deadlines past the wheel span wrap around and fire early; the visitor reschedules them.
+        int bucket = (int) (Math.max(deadlineMillis / tickMs, nextTick) & mask);
+        int size = bucketSizes[bucket];
+        if (size == bucketMsbs[bucket].length) {
+            bucketMsbs[bucket] = Arrays.copyOf(bucketMsbs[bucket], size * 2);
+            bucketLsbs[bucket] = Arrays.copyOf(bucketLsbs[bucket], size * 2);
+        }
+        bucketMsbs[bucket][size] = msb;
+        bucketLsbs[bucket][size] = lsb;
+        bucketSizes[bucket] = size + 1;
+    }
+
+    // Fires every bucket whose tick has passed, each at most once per call. Single caller only.
+    void advance(long nowMillis, Visitor visitor) {
+        long currentTick = nowMillis / tickMs;
+        for (int fired = 0; fired <= mask; fired++) {
+            int count = drainNext(currentTick);
+            if (count < 0) {
+                return;
+            }
+            for (int i = 0; i < count; i++) {
+                visitor.visit(scratchMsbs[i], scratchLsbs[i]);
+            }
+        }
+        skipTo(currentTick + 1);
+    }
+
+    synchronized int scheduledCount() {
+        int count = 0;
+        for (int size : bucketSizes) {
+            count += size;
+        }
+        return count;
+    }
+
+    // Moves the next due bucket into the scratch arrays and returns its size, or -1 if nothing is due.
+    private synchronized int drainNext(long currentTick) {
+        if (nextTick > currentTick) {
+            return -1;
+        }
+
+        int bucket = (int) (nextTick & mask);
+        int size = bucketSizes[bucket];
+        if (scratchMsbs.length < size) {
+            scratchMsbs = new long[bucketMsbs[bucket].length];
+            scratchLsbs = new long[bucketLsbs[bucket].length];
+        }
+        System.arraycopy(bucketMsbs[bucket], 0, scratchMsbs, 0, size);
+        System.arraycopy(bucketLsbs[bucket], 0, scratchLsbs, 0, size);
+        bucketSizes[bucket] = 0;
+        nextTick++;
+        return size;
+    }
+
+    private synchronized void skipTo(long tick) {
+        nextTick = Math.max(nextTick, tick);
+    }
+}
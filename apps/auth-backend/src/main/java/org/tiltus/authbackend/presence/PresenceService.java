@@ -0,0 +1,131 @@
+package org.tiltus.authbackend.presence;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.tiltus.authbackend.events.PresenceChangedEvent;
+import org.tiltus.authbackend.repositories.CaroFriendshipRepository;
+import org.tiltus.authbackend.rest.response.FriendPresenceResponse;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+// In-memory presence of this node. A user is online until ttl after the last heartbeat or until the
+// last gateway connection closes. Nothing is persisted; after a restart users come back on their next heartbeat.
+@Service
+public class PresenceService {
+
+    private final CaroFriendshipRepository friendshipRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LongSupplier clock;
+    private final long ttlMs;
+    private final PresenceTable table;
+    private final ExpiryWheel wheel;
+
+    @Autowired
+    public PresenceService(
+            CaroFriendshipRepository friendshipRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${presence.ttl-ms}") long ttlMs,
+            @Value("${presence.tick-ms}") long tickMs,
+            @Value("${presence.wheel-size}") int wheelSize,
+            @Value("${presence.stripes}") int stripes,
+            @Value("${presence.initial-capacity-per-stripe}") int initialCapacityPerStripe
+    ) {
+        this(friendshipRepository, eventPublisher, ttlMs, tickMs, wheelSize, stripes, initialCapacityPerStripe,
+                System::currentTimeMillis);
+    }
+
+    PresenceService(
+            CaroFriendshipRepository friendshipRepository,
+            ApplicationEventPublisher eventPublisher,
+            long ttlMs,
+            long tickMs,
+            int wheelSize,
+            int stripes,
+            int initialCapacityPerStripe,
+            LongSupplier clock
+    ) {
+        this.friendshipRepository = friendshipRepository;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.ttlMs = ttlMs;
+        this.table = new PresenceTable(stripes, initialCapacityPerStripe);
+        this.wheel = new ExpiryWheel(wheelSize, tickMs, clock.getAsLong());
+    }
+
+    public void heartbeat(UUID userId) {
+        long now = clock.getAsLong();
+        long deadline = now + ttlMs;
+        long msb = userId.getMostSignificantBits();
+        long lsb = userId.getLeastSignificantBits();
+
+        switch (table.touch(msb, lsb, now, deadline)) {
+            case INSERTED -> {
+                wheel.schedule(msb, lsb, deadline);
+                eventPublisher.publishEvent(PresenceChangedEvent.online(userId));
+            }
+            case CAME_ONLINE -> eventPublisher.publishEvent(PresenceChangedEvent.online(userId));
+            case REFRESHED -> { }
+        }
+    }
+
+    public void disconnect(UUID userId) {
+        if (table.markOffline(userId.getMostSignificantBits(), userId.getLeastSignificantBits(), clock.getAsLong())) {
+            eventPublisher.publishEvent(PresenceChangedEvent.offline(userId));
+        }
+    }
+
+    public boolean isOnline(UUID userId) {
+        long[] entry = new long[2];
+        table.read(userId.getMostSignificantBits(), userId.getLeastSignificantBits(), entry, 0);
+        return entry[1] > clock.getAsLong();
+    }
+
+    public int trackedUsers() {
+        return table.size();
+    }
+
+    @Transactional(readOnly = true)
+    public List<FriendPresenceResponse> getFriendsPresence(UUID userId) {
+        List<UUID> friendIds = friendshipRepository.findFriendIds(userId);
+        long now = clock.getAsLong();
+
+        long[] entries = new long[friendIds.size() * 2];
+        for (int i = 0; i < friendIds.size(); i++) {
+            UUID friendId = friendIds.get(i);
+            table.read(friendId.getMostSignificantBits(), friendId.getLeastSignificantBits(), entries, i * 2);
+        }
+
+        List<FriendPresenceResponse> result = new ArrayList<>(friendIds.size());
+        for (int i = 0; i < friendIds.size(); i++) {
+            long lastSeen = entries[i * 2];
+            long deadline = entries[i * 2 + 1];
+            result.add(new FriendPresenceResponse(
+                    friendIds.get(i),
+                    deadline > now,
+                    lastSeen == 0 ? null : Instant.ofEpochMilli(lastSeen)
+            ));
+        }
+        return result;
+    }
+
+    @Scheduled(fixedRateString = "${presence.tick-ms}")
+    public void expireStale() {
+        long now = clock.getAsLong();
+        wheel.advance(now, (msb, lsb) -> {
+            long result = table.expire(msb, lsb, now);
+            if (result == PresenceTable.EXPIRED) {
+                eventPublisher.publishEvent(PresenceChangedEvent.offline(new UUID(msb, lsb)));
+            } else if (result != PresenceTable.GONE) {
+                wheel.schedule(msb, lsb, result);
+            }
+        });
+    }
+}
@@ -0,0 +1,199 @@
+package org.tiltus.authbackend.presence;
+
+// Open-addressing hash table keyed by the two halves of a user id, split into independently locked
+// stripes. Keys and timestamps live in parallel long arrays, so refreshing a tracked user allocates
+// nothing. A slot with lastSeen == 0 is empty; deletion shifts entries back instead of leaving tombstones.
+class PresenceTable {
+
+    enum Touch { INSERTED, CAME_ONLINE, REFRESHED }
+
+    // Results of expire(): the entry is gone, or it timed out and was removed. Any other value is its deadline.
+    static final long GONE = 0;
+    static final long EXPIRED = -1;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    PresenceTable(int stripeCount, int initialCapacityPerStripe) {
+        int size = powerOfTwo(stripeCount);
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(powerOfTwo(initialCapacityPerStripe));
+        }
+        this.stripeMask = size - 1;
+    }
+
+    Touch touch(long msb, long lsb, long now, long deadline) {
+        long hash = hash(msb, lsb);
+        return stripeFor(hash).touch(msb, lsb, (int) hash, now, deadline);
+    }
+
+    // Returns true when the user was online and is now marked offline.
+    boolean markOffline(long msb, long lsb, long now) {
+        long hash = hash(msb, lsb);
+        return stripeFor(hash).markOffline(msb, lsb, (int) hash, now);
+    }
+
+    long expire(long msb, long lsb, long now) {
+        long hash = hash(msb, lsb);
+        return stripeFor(hash).expire(msb, lsb, (int) hash, now);
+    }
+
+    // Writes lastSeen and deadline of the user into out[offset] and out[offset + 1], zeros if untracked.
+    // The deadline is negative for a user who disconnected explicitly.
+    void read(long msb, long lsb, long[] out, int offset) {
+        long hash = hash(msb, lsb);
+        stripeFor(hash).read(msb, lsb, (int) hash, out, offset);
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(long hash) {
+        return stripes[(int) (hash >>> 40) & stripeMask];
+    }
+
+    private static long hash(long msb, long lsb) {
+        long h = msb * 0x9E3779B97F4A7C15L ^ lsb;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static int powerOfTwo(int value) {
+        return Integer.highestOneBit(Math.max(1, value - 1) << 1);
+    }
+
+    private static final class Stripe {
+
+        private long[] msbs;
+        private long[] lsbs;
+        private long[] lastSeen;
+        private long[] deadlines;
+        private int size;
+
+        Stripe(int capacity) {
+            allocate(capacity);
+        }
+
+        synchronized Touch touch(long msb, long lsb, int hash, long now, long deadline) {
+            int index = indexOf(msb, lsb, hash);
+            if (index >= 0) {
+                boolean wasOnline = deadlines[index] > now;
+                lastSeen[index] = now;
+                deadlines[index] = deadline;
+                return wasOnline ? Touch.REFRESHED : Touch.CAME_ONLINE;
+            }
+
+            if ((size + 1) * 2 > msbs.length) {
+                resize();
+                index = indexOf(msb, lsb, hash);
+            }
+            insertAt(-index - 1, msb, lsb, now, deadline);
+            return Touch.INSERTED;
+        }
+
+        synchronized boolean markOffline(long msb, long lsb, int hash, long now) {
+            int index = indexOf(msb, lsb, hash);
+            if (index < 0 || deadlines[index] <= now) {
+                return false;
+            }
+            // A negative deadline is how expire() tells a disconnect from a timeout.
+            deadlines[index] = -now;
+            return true;
+        }
+
+        synchronized long expire(long msb, long lsb, int hash, long now) {
+            int index = indexOf(msb, lsb, hash);
+            if (index < 0) {
+                return GONE;
+            }
+
+            long deadline = deadlines[index];
+            if (deadline > now) {
+                return deadline;
+            }
+
+            removeAt(index);
+            return deadline > 0 ? EXPIRED : GONE;
+        }
+
+        synchronized void read(long msb, long lsb, int hash, long[] out, int offset) {
+            int index = indexOf(msb, lsb, hash);
+            out[offset] = index < 0 ? 0 : lastSeen[index];
+            out[offset + 1] = index < 0 ? 0 : deadlines[index];
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        // Index of the key, or -(insertion point + 1) if absent.
+        private int indexOf(long msb, long lsb, int hash) {
+            int mask = msbs.length - 1;
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                if (lastSeen[i] == 0) {
+                    return -i - 1;
+                }
+                if (msbs[i] == msb && lsbs[i] == lsb) {
+                    return i;
+                }
+            }
+        }
+
+        private void insertAt(int index, long msb, long lsb, long now, long deadline) {
+            msbs[index] = msb;
+            lsbs[index] = lsb;
+            lastSeen[index] = now;
+            deadlines[index] = deadline;
+            size++;
+        }
+
+        private void removeAt(int index) {
+            int mask = msbs.length - 1;
+            int hole = index;
+            for (int i = (index + 1) & mask; lastSeen[i] != 0; i = (i + 1) & mask) {
+                int home = (int) hash(msbs[i], lsbs[i]) & mask;
+                boolean reachable = hole <= i ? (home <= hole || home > i) : (home <= hole && home > i);
+                if (reachable) {
+                    msbs[hole] = msbs[i];
+                    lsbs[hole] = lsbs[i];
+                    lastSeen[hole] = lastSeen[i];
+                    deadlines[hole] = deadlines[i];
+                    hole = i;
+                }
+            }
+            lastSeen[hole] = 0;
+            size--;
+        }
+
+        private void resize() {
+            long[] oldMsbs = msbs;
+            long[] oldLsbs = lsbs;
+            long[] oldLastSeen = lastSeen;
+            long[] oldDeadlines = deadlines;
+
+            allocate(oldMsbs.length * 2);
+            size = 0;
+            for (int i = 0; i < oldMsbs.length; i++) {
+                if (oldLastSeen[i] != 0) {
+                    int index = indexOf(oldMsbs[i], oldLsbs[i], (int) hash(oldMsbs[i], oldLsbs[i]));
+                    insertAt(-index - 1, oldMsbs[i], oldLsbs[i], oldLastSeen[i], oldDeadlines[i]);
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            msbs = new long[capacity];
+            lsbs = new long[capacity];
+            lastSeen = new long[capacity];
+            deadlines = new long[capacity];
+        }
+    }
+}
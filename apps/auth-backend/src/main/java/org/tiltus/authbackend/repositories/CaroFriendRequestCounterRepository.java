@@ -0,0 +1,56 @@
+package org.tiltus.authbackend.repositories;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.tiltus.authbackend.model.CaroFriendRequestCounter;
+
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+public interface CaroFriendRequestCounterRepository extends JpaRepository<CaroFriendRequestCounter, UUID> {
+
+    // Creates and row-locks the counters in user_id order. Every request transition takes this first,
+    // before any friendship row, so two transitions touching the same users queue behind each other
+    // instead of locking counters and friendships in opposite order and deadlocking.
+    // Users that do not exist are skipped; upsertPendingRequest reports them.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "friend_request_counters"))
+    @Query(value = """
+        INSERT INTO friend_request_counters AS c (user_id, incoming_pending, outgoing_pending, updated_at)
+        SELECT u.id, 0, 0, NOW()
+        FROM users u
+        WHERE u.id IN (:userIds)
+        ORDER BY u.id
+        ON CONFLICT (user_id) DO UPDATE
+            SET updated_at = c.updated_at
+        """, nativeQuery = true)
+    int lockCounters(Collection<UUID> userIds);
+
+    // Must run while the friendship rows still exist, i.e. before they are deleted.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "friend_request_counters"))
+    @Query(value = """
+        UPDATE friend_request_counters c
+        SET incoming_pending = GREATEST(c.incoming_pending - (
+                SELECT COUNT(*) FROM friendship f
+                WHERE f.id IN (:friendshipIds) AND f.addressee_id = c.user_id
+            ), 0),
+            outgoing_pending = GREATEST(c.outgoing_pending - (
+                SELECT COUNT(*) FROM friendship f
+                WHERE f.id IN (:friendshipIds) AND f.requester_id = c.user_id
+            ), 0),
+            updated_at = NOW()
+        WHERE c.user_id IN (
+            SELECT f.requester_id FROM friendship f WHERE f.id IN (:friendshipIds)
+            UNION
+            SELECT f.addressee_id FROM friendship f WHERE f.id IN (:friendshipIds)
+        )
+        """, nativeQuery = true)
+    int releasePendingSlots(Collection<UUID> friendshipIds);
+}
@@ -0,0 +1,61 @@
+package org.tiltus.authbackend.repositories;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.tiltus.authbackend.model.CaroFriendSuggestion;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CaroFriendSuggestionRepository extends JpaRepository<CaroFriendSuggestion, UUID> {
+
+    @Query("""
+    SELECT s FROM CaroFriendSuggestion s
+        JOIN FETCH s.candidate
+    WHERE s.userId = :userId
+    ORDER BY s.mutualCount DESC
+    """)
+    List<CaroFriendSuggestion> findForUser(UUID userId);
+
+    @Modifying
+    @Query("DELETE FROM CaroFriendSuggestion s WHERE s.userId IN :userIds")
+    void deleteForUsers(Collection<UUID> userIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "friend_suggestion_dirty"))
+    @Query(value = """
+        INSERT INTO friend_suggestion_dirty (user_id, marked_at)
+        VALUES (:userId1, NOW()), (:userId2, NOW())
+        ON CONFLICT (user_id) DO UPDATE SET marked_at = EXCLUDED.marked_at
+        """, nativeQuery = true)
+    void markDirty(UUID userId1, UUID userId2);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "friend_suggestion_dirty"))
+    @Query(value = """
+        INSERT INTO friend_suggestion_dirty (user_id, marked_at)
+        SELECT id, NOW() FROM users WHERE id IN (:userIds)
+        ON CONFLICT (user_id) DO UPDATE SET marked_at = EXCLUDED.marked_at
+        """, nativeQuery = true)
+    void markDirty(Collection<UUID> userIds);
+
+    // Rows locked by a concurrent markDirty are skipped, so their marker survives for the next run.
+    @Query(value = """
+        DELETE FROM friend_suggestion_dirty
+        WHERE user_id IN (
+            SELECT user_id FROM friend_suggestion_dirty
+            ORDER BY marked_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        )
+        RETURNING user_id
+        """, nativeQuery = true)
+    List<UUID> claimDirtyUserIds(int limit);
+}
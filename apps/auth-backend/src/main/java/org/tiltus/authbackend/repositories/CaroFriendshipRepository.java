@@ -1,11 +1,17 @@
 package org.tiltus.authbackend.repositories;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.tiltus.authbackend.enums.FriendshipStatus;
 import org.tiltus.authbackend.model.CaroFriendship;
+import org.tiltus.authbackend.repositories.projections.FriendshipEdge;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -32,6 +38,155 @@ public interface CaroFriendshipRepository extends JpaRepository<CaroFriendship,
         JOIN FETCH f.addressee a
     WHERE f.status = 'ACCEPTED'
       AND (r.id = :userId OR a.id = :userId)
+    ORDER BY f.id
     """)
     List<CaroFriendship> findAcceptedForUser(UUID userId);
+
+    // Profiles sit on the inverse side of a one-to-one and would otherwise load one by one.
+    @Query("""
+    SELECT f FROM CaroFriendship f
+        JOIN FETCH f.requester r
+        LEFT JOIN FETCH r.profile
+        JOIN FETCH f.addressee a
+        LEFT JOIN FETCH a.profile
+    WHERE f.status IN ('ACCEPTED', 'PENDING')
+      AND (r.id = :userId OR a.id = :userId)
+    ORDER BY f.id
+    """)
+    List<CaroFriendship> findActiveWithProfilesForUser(UUID userId);
+
+    // Covers every row findAcceptedForUser renders: the friendship ids and the friends' versions.
+    @Query(value = """
+    SELECT md5(coalesce(string_agg(CAST(f.id AS text) || ':' || u.version, ',' ORDER BY f.id), ''))
+    FROM friendship f
+    JOIN users u ON u.id = CASE WHEN f.requester_id = :userId THEN f.addressee_id ELSE f.requester_id END
+    WHERE f.status = 'ACCEPTED'
+      AND (f.requester_id = :userId OR f.addressee_id = :userId)
+    """, nativeQuery = true)
+    String friendsFingerprint(UUID userId);
+
+    @Query("""
+    SELECT f FROM CaroFriendship f
+        JOIN FETCH f.requester r
+        JOIN FETCH f.addressee a
+    WHERE (r.id = :userId OR a.id = :userId)
+      AND f.updatedAt > :since
+    ORDER BY f.updatedAt, f.id
+    """)
+    List<CaroFriendship> findChangedForUser(UUID userId, Instant since);
+
+    @Query("""
+    SELECT CASE WHEN f.requester.id = :userId THEN f.addressee.id ELSE f.requester.id END
+    FROM CaroFriendship f
+    WHERE f.status = 'ACCEPTED'
+      AND (f.requester.id = :userId OR f.addressee.id = :userId)
+    """)
+    List<UUID> findFriendIds(UUID userId);
+
+    @Query("""
+    SELECT new org.tiltus.authbackend.repositories.projections.FriendshipEdge(
+        f.requester.id, f.addressee.id, f.status
+    )
+    FROM CaroFriendship f
+    WHERE f.requester.id IN :userIds OR f.addressee.id IN :userIds
+    """)
+    List<FriendshipEdge> findEdgesTouching(Collection<UUID> userIds);
+
+    @Query("""
+    SELECT new org.tiltus.authbackend.repositories.projections.FriendshipEdge(
+        f.requester.id, f.addressee.id, f.status
+    )
+    FROM CaroFriendship f
+    WHERE f.status = 'ACCEPTED'
+      AND (f.requester.id IN :userIds OR f.addressee.id IN :userIds)
+    """)
+    List<FriendshipEdge> findAcceptedTouching(Collection<UUID> userIds);
+
+    // Reserves a slot on the target's pending counter, inserts the request (or revives a DECLINED
+    // row) and bumps the requester's outgoing counter in one statement. ON CONFLICT on the
+    // unordered-pair index closes the insert race. Every outcome except SENT is surfaced as an
+    // exception by the caller, which rolls the counter reservation back with the transaction.
+    // Callers must take CaroFriendRequestCounterRepository.lockCounters first: the counters are
+    // touched target-first here, which deadlocks against a simultaneous request the other way.
+    @Query(value = """
+        WITH requester AS (
+            SELECT id FROM users WHERE id = CAST(:requesterId AS uuid)
+        ),
+        target AS (
+            SELECT id FROM users WHERE id = CAST(:targetUserId AS uuid)
+        ),
+        existing AS (
+            SELECT status FROM friendship
+            WHERE LEAST(requester_id, addressee_id) = LEAST(CAST(:requesterId AS uuid), CAST(:targetUserId AS uuid))
+              AND GREATEST(requester_id, addressee_id) = GREATEST(CAST(:requesterId AS uuid), CAST(:targetUserId AS uuid))
+        ),
+        reserved AS (
+            INSERT INTO friend_request_counters AS c (user_id, incoming_pending, outgoing_pending, updated_at)
+            SELECT t.id, 1, 0, NOW()
+            FROM requester r, target t
+            WHERE :maxPending > 0
+            ON CONFLICT (user_id) DO UPDATE
+                SET incoming_pending = c.incoming_pending + 1,
+                    updated_at = NOW()
+                WHERE c.incoming_pending < :maxPending
+            RETURNING user_id
+        ),
+        upserted AS (
+            INSERT INTO friendship (requester_id, addressee_id, status, created_at, updated_at)
+            SELECT r.id, t.id, 'PENDING', NOW(), NOW()
+            FROM requester r, target t, reserved
+            ON CONFLICT ((LEAST(requester_id, addressee_id)), (GREATEST(requester_id, addressee_id)))
+            DO UPDATE SET status = 'PENDING',
+                          requester_id = EXCLUDED.requester_id,
+                          addressee_id = EXCLUDED.addressee_id,
+                          updated_at = EXCLUDED.updated_at
+            WHERE friendship.status = 'DECLINED'
+            RETURNING requester_id
+        ),
+        outgoing AS (
+            INSERT INTO friend_request_counters AS c (user_id, incoming_pending, outgoing_pending, updated_at)
+            SELECT requester_id, 0, 1, NOW()
+            FROM upserted
+            ON CONFLICT (user_id) DO UPDATE
+                SET outgoing_pending = c.outgoing_pending + 1,
+                    updated_at = NOW()
+            RETURNING user_id
+        )
+        SELECT CASE
+            WHEN NOT EXISTS (SELECT 1 FROM requester) THEN 'REQUESTER_NOT_FOUND'
+            WHEN NOT EXISTS (SELECT 1 FROM target) THEN 'TARGET_NOT_FOUND'
+            WHEN NOT EXISTS (SELECT 1 FROM reserved) THEN 'TOO_MANY_PENDING'
+            WHEN EXISTS (SELECT 1 FROM outgoing) THEN 'SENT'
+            WHEN (SELECT status FROM existing) = 'ACCEPTED' THEN 'ALREADY_FRIENDS'
+            WHEN (SELECT status FROM existing) = 'BLOCKED' THEN 'BLOCKED'
+            ELSE 'ALREADY_PENDING'
+        END
+        """, nativeQuery = true)
+    String upsertPendingRequest(UUID requesterId, UUID targetUserId, int maxPending);
+
+    // Both participants without loading or locking the row, so their counters can be locked first.
+    @Query("""
+    SELECT new org.tiltus.authbackend.repositories.projections.FriendshipEdge(
+        f.requester.id, f.addressee.id, f.status
+    )
+    FROM CaroFriendship f
+    WHERE f.id IN :ids
+    """)
+    List<FriendshipEdge> findEdgesByIds(Collection<UUID> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM CaroFriendship f WHERE f.id = :id")
+    Optional<CaroFriendship> findByIdForUpdate(UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM CaroFriendship f WHERE f.id IN :ids ORDER BY f.id")
+    List<CaroFriendship> findAllByIdForUpdate(Collection<UUID> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CaroFriendship f SET f.status = :status, f.updatedAt = :updatedAt WHERE f.id IN :ids")
+    int updateStatus(Collection<UUID> ids, FriendshipStatus status, Instant updatedAt);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM CaroFriendship f WHERE f.id IN :ids")
+    int deleteByIds(Collection<UUID> ids);
 }
@@ -1,11 +1,18 @@
 package org.tiltus.authbackend.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import org.tiltus.authbackend.model.CaroUser;
+import org.tiltus.authbackend.repositories.projections.UserVersion;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -27,4 +34,23 @@ public interface CaroUserRepository extends JpaRepository<CaroUser, UUID> {
     boolean existsByUsernameIgnoreCaseAndTagId(String username, String tagId);
 
     List<CaroUser> findTop10ByUsernameIgnoreCaseContaining(String query);
+
+    @Query("""
+        SELECT new org.tiltus.authbackend.repositories.projections.UserVersion(u.version, p.version)
+        FROM CaroUser u LEFT JOIN u.profile p
+        WHERE u.id = :userId
+        """)
+    Optional<UserVersion> findVersionById(UUID userId);
+
+    // ids and seenAt are parallel arrays; a timestamp never moves backwards.
+    // last_active_at is not mapped on CaroUser, so the declared space keeps the users region warm.
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users_last_active"))
+    @Query(value = """
+        UPDATE users u SET last_active_at = v.seen_at
+        FROM unnest(CAST(:ids AS uuid[]), CAST(:seenAt AS timestamptz[])) AS v(id, seen_at)
+        WHERE u.id = v.id AND (u.last_active_at IS NULL OR u.last_active_at < v.seen_at)
+        """, nativeQuery = true)
+    int updateLastActive(UUID[] ids, Instant[] seenAt);
 }
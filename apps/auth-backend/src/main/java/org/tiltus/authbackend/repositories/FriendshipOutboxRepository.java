@@ -0,0 +1,34 @@
+package org.tiltus.authbackend.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.tiltus.authbackend.model.FriendshipOutboxEntry;
+import org.tiltus.authbackend.repositories.projections.OutboxBacklog;
+
+import java.util.List;
+
+@Repository
+public interface FriendshipOutboxRepository extends JpaRepository<FriendshipOutboxEntry, Long> {
+
+    // Concurrent dispatchers skip each other's rows instead of waiting on them.
+    @Query(value = """
+        DELETE FROM friendship_outbox
+        WHERE id IN (
+            SELECT id FROM friendship_outbox
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        )
+        RETURNING *
+        """, nativeQuery = true)
+    List<FriendshipOutboxEntry> claimBatch(int limit);
+
+    @Query("""
+    SELECT new org.tiltus.authbackend.repositories.projections.OutboxBacklog(
+        COUNT(e), MIN(e.occurredAt)
+    )
+    FROM FriendshipOutboxEntry e
+    """)
+    OutboxBacklog findBacklog();
+}
@@ -0,0 +1,40 @@
+package org.tiltus.authbackend.repositories;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.tiltus.authbackend.model.FriendshipTombstone;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface FriendshipTombstoneRepository extends JpaRepository<FriendshipTombstone, UUID> {
+
+    // Must run before the friendship rows are deleted.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "friendship_tombstone"))
+    @Query(value = """
+        INSERT INTO friendship_tombstone (friendship_id, requester_id, addressee_id, deleted_at)
+        SELECT id, requester_id, addressee_id, NOW() FROM friendship WHERE id IN (:friendshipIds)
+        ON CONFLICT (friendship_id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at
+        """, nativeQuery = true)
+    void recordDeletion(Collection<UUID> friendshipIds);
+
+    @Query("""
+    SELECT t.friendshipId FROM FriendshipTombstone t
+    WHERE (t.requesterId = :userId OR t.addresseeId = :userId)
+      AND t.deletedAt > :since
+    """)
+    List<UUID> findDeletedSince(UUID userId, Instant since);
+
+    @Modifying
+    @Query("DELETE FROM FriendshipTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(Instant cutoff);
+}
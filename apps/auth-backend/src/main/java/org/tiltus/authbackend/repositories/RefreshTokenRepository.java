@@ -3,6 +3,7 @@ package org.tiltus.authbackend.repositories;
 import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.tiltus.authbackend.model.CaroUser;
 import org.tiltus.authbackend.model.RefreshToken;
@@ -15,8 +16,10 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, UUID
 
     Optional<RefreshToken> findByToken(String token);
 
+    // A derived delete would load every token and remove them one statement at a time.
     @Modifying
     @Transactional
+    @Query("DELETE FROM RefreshToken t WHERE t.user = :user")
     void deleteByUser(CaroUser user);
 
 }
@@ -0,0 +1,11 @@
+package org.tiltus.authbackend.repositories.projections;
+
+import org.tiltus.authbackend.enums.FriendshipStatus;
+
+import java.util.UUID;
+
+public record FriendshipEdge(
+        UUID requesterId,
+        UUID addresseeId,
+        FriendshipStatus status
+) { }
@@ -0,0 +1,8 @@
+package org.tiltus.authbackend.repositories.projections;
+
+import java.time.Instant;
+
+public record OutboxBacklog(
+        long pending,
+        Instant oldestOccurredAt
+) { }
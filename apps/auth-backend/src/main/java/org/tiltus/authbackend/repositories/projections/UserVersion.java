@@ -0,0 +1,23 @@
+package org.tiltus.authbackend.repositories.projections;
+
+import org.tiltus.authbackend.model.CaroUser;
+
+public record UserVersion(
+        long userVersion,
+        Long profileVersion
+) {
+
+    public static UserVersion of(CaroUser user) {
+        return new UserVersion(
+                user.getVersion(),
+                user.getProfile() != null ? user.getProfile().getVersion() : null
+        );
+    }
+
+    // A missing profile renders differently from a fresh one, so it gets its own tag.
+    public String eTag() {
+        return profileVersion != null
+                ? "\"" + userVersion + "." + profileVersion + "\""
+                : "\"" + userVersion + "\"";
+    }
+}
@@ -0,0 +1,28 @@
+package org.tiltus.authbackend.rest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.tiltus.authbackend.rest.response.BootstrapResponse;
+import org.tiltus.authbackend.services.BootstrapService;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/bootstrap")
+@RequiredArgsConstructor
+public class BootstrapRestController {
+
+    private final BootstrapService bootstrapService;
+
+    @GetMapping
+    public ResponseEntity<BootstrapResponse> bootstrap(
+            @AuthenticationPrincipal String userId
+    ) {
+        UUID currentUserId = UUID.fromString(userId);
+        return ResponseEntity.ok(bootstrapService.bootstrap(currentUserId));
+    }
+}
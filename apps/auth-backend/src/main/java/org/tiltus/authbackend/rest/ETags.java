@@ -0,0 +1,26 @@
+package org.tiltus.authbackend.rest;
+
+final class ETags {
+
+    private ETags() { }
+
+    // If-None-Match uses the weak comparison, so W/ prefixes are ignored.
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,13 +1,25 @@
 package org.tiltus.authbackend.rest;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.tiltus.authbackend.rest.requests.BulkFriendRequest;
 import org.tiltus.authbackend.rest.requests.SendFriendRequest;
+import org.tiltus.authbackend.rest.response.BulkFriendRequestResult;
+import org.tiltus.authbackend.rest.response.FriendRequestCountsResponse;
 import org.tiltus.authbackend.rest.response.FriendRequestResponse;
 import org.tiltus.authbackend.rest.response.FriendResponse;
+import org.tiltus.authbackend.rest.response.FriendSuggestionResponse;
+import org.tiltus.authbackend.rest.response.FriendshipChangesResponse;
 import org.tiltus.authbackend.services.CaroFriendshipService;
+import org.tiltus.authbackend.services.FriendSuggestionService;
+import org.tiltus.authbackend.services.FriendshipEventStream;
+import org.tiltus.authbackend.services.FriendshipSyncService;
 
 import java.util.List;
 import java.util.UUID;
@@ -18,6 +30,9 @@ import java.util.UUID;
 public class FriendRestController {
 
     private final CaroFriendshipService friendshipService;
+    private final FriendSuggestionService suggestionService;
+    private final FriendshipEventStream eventStream;
+    private final FriendshipSyncService syncService;
 
     @PostMapping("/requests")
     public ResponseEntity<Void> sendFriendRequest(
@@ -59,6 +74,36 @@ public class FriendRestController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/requests/bulk/cancel")
+    public ResponseEntity<List<BulkFriendRequestResult>> cancelFriendRequests(
+            @AuthenticationPrincipal String userId,
+            @RequestBody BulkFriendRequest request
+    ) {
+        UUID currentUserId = UUID.fromString(userId);
+        var results = friendshipService.cancelRequests(currentUserId, request.friendshipIds());
+        return ResponseEntity.ok(results);
+    }
+
+    @PostMapping("/requests/bulk/accept")
+    public ResponseEntity<List<BulkFriendRequestResult>> acceptFriendRequests(
+            @AuthenticationPrincipal String userId,
+            @RequestBody BulkFriendRequest request
+    ) {
+        UUID currentUserId = UUID.fromString(userId);
+        var results = friendshipService.acceptRequests(currentUserId, request.friendshipIds());
+        return ResponseEntity.ok(results);
+    }
+
+    @PostMapping("/requests/bulk/decline")
+    public ResponseEntity<List<BulkFriendRequestResult>> declineFriendRequests(
+            @AuthenticationPrincipal String userId,
+            @RequestBody BulkFriendRequest request
+    ) {
+        UUID currentUserId = UUID.fromString(userId);
+        var results = friendshipService.declineRequests(currentUserId, request.friendshipIds());
+        return ResponseEntity.ok(results);
+    }
+
     @DeleteMapping("/{friendId}")
     public ResponseEntity<Void> unfriend(
             @AuthenticationPrincipal String userId,
@@ -71,11 +116,26 @@ public class FriendRestController {
 
     @GetMapping
     public ResponseEntity<List<FriendResponse>> getFriends(
-            @AuthenticationPrincipal String userId
+            @AuthenticationPrincipal String userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
         UUID currentUserId = UUID.fromString(userId);
+        // Tagged before the list is read, so a concurrent change can only leave the tag older than the body.
+        String eTag = friendshipService.getFriendsETag(currentUserId);
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         var friends = friendshipService.getFriends(currentUserId);
-        return ResponseEntity.ok(friends);
+        return ResponseEntity.ok().eTag(eTag).body(friends);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<FriendshipChangesResponse> getChanges(
+            @AuthenticationPrincipal String userId,
+            @RequestParam(value = "since", required = false) Long since
+    ) {
+        UUID currentUserId = UUID.fromString(userId);
+        return ResponseEntity.ok(syncService.getChanges(currentUserId, since));
     }
 
     @GetMapping("/requests/outgoing")
@@ -95,4 +155,33 @@ public class FriendRestController {
         var requests = friendshipService.getIncomingRequests(currentUserId);
         return ResponseEntity.ok(requests);
     }
+
+    @GetMapping("/suggestions")
+    public ResponseEntity<List<FriendSuggestionResponse>> getSuggestions(
+            @AuthenticationPrincipal String userId
+    ) {
+        UUID currentUserId = UUID.fromString(userId);
+        var suggestions = suggestionService.getSuggestions(currentUserId);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    @GetMapping("/counts")
+    public ResponseEntity<FriendRequestCountsResponse> getRequestCounts(
+            @AuthenticationPrincipal String userId
+    ) {
+        UUID currentUserId = UUID.fromString(userId);
+        var counts = friendshipService.getRequestCounts(currentUserId);
+        return ResponseEntity.ok(counts);
+    }
+
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(
+            @AuthenticationPrincipal String userId
+    ) {
+        UUID currentUserId = UUID.fromString(userId);
+        SseEmitter emitter = eventStream.subscribe(currentUserId);
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
 }
@@ -0,0 +1,37 @@
+package org.tiltus.authbackend.rest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.tiltus.authbackend.presence.PresenceService;
+import org.tiltus.authbackend.rest.response.FriendPresenceResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/presence")
+@RequiredArgsConstructor
+public class PresenceRestController {
+
+    private final PresenceService presenceService;
+
+    @PostMapping("/heartbeat")
+    public ResponseEntity<Void> heartbeat(
+            @AuthenticationPrincipal String userId
+    ) {
+        UUID currentUserId = UUID.fromString(userId);
+        presenceService.heartbeat(currentUserId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/friends")
+    public ResponseEntity<List<FriendPresenceResponse>> getFriendsPresence(
+            @AuthenticationPrincipal String userId
+    ) {
+        UUID currentUserId = UUID.fromString(userId);
+        var presence = presenceService.getFriendsPresence(currentUserId);
+        return ResponseEntity.ok(presence);
+    }
+}
@@ -1,13 +1,17 @@
 package org.tiltus.authbackend.rest;
 
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.tiltus.authbackend.metrics.SearchMetrics;
 import org.tiltus.authbackend.model.CaroUser;
 import org.tiltus.authbackend.repositories.CaroUserRepository;
+import org.tiltus.authbackend.repositories.projections.UserVersion;
 import org.tiltus.authbackend.rest.requests.UserSettingsRequest;
 import org.tiltus.authbackend.rest.response.UserSettingsResponse;
 import org.tiltus.authbackend.services.CaroUserService;
@@ -22,9 +26,13 @@ public class UserRestController {
 
     private final CaroUserRepository userRepository;
     private final CaroUserService userService;
+    private final SearchMetrics searchMetrics;
 
     @GetMapping("/me")
-    public ResponseEntity<UserSettingsResponse> me(@AuthenticationPrincipal String userId) {
+    public ResponseEntity<UserSettingsResponse> me(
+            @AuthenticationPrincipal String userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         if (userId == null || userId.isEmpty() || "anonymousUser".equals(userId)) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized");
         }
@@ -36,10 +44,7 @@ public class UserRestController {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid user id");
         }
 
-        CaroUser user = userRepository.findById(uuid)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-
-        return ResponseEntity.ok(UserSettingsResponse.from(user));
+        return conditionalGet(uuid, ifNoneMatch);
     }
 
     @PutMapping("/me")
@@ -62,7 +67,10 @@ public class UserRestController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserSettingsResponse> getById(@PathVariable("id") String userId) {
+    public ResponseEntity<UserSettingsResponse> getById(
+            @PathVariable("id") String userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         if (userId == null || userId.isEmpty() || "anonymousUser".equals(userId)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nothing Happens");
         }
@@ -73,10 +81,7 @@ public class UserRestController {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid user id");
         }
 
-        CaroUser user = userRepository.findById(UUID.fromString(userId))
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
-
-        return ResponseEntity.ok(UserSettingsResponse.from(user));
+        return conditionalGet(UUID.fromString(userId), ifNoneMatch);
     }
 
     @GetMapping("/username/{username}")
@@ -99,7 +104,9 @@ public class UserRestController {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query cannot be empty");
         }
 
+        Timer.Sample sample = Timer.start();
         List<CaroUser> users = userRepository.findTop10ByUsernameIgnoreCaseContaining(query);
+        searchMetrics.record(sample, users.size());
 
         var responses = users.stream()
                 .map(UserSettingsResponse::from)
@@ -107,4 +114,23 @@ public class UserRestController {
 
         return ResponseEntity.ok(responses);
     }
+
+    // A revalidation only reads the version columns; the entity is loaded for a changed or uncached copy.
+    private ResponseEntity<UserSettingsResponse> conditionalGet(UUID userId, String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String eTag = userRepository.findVersionById(userId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"))
+                    .eTag();
+            if (ETags.matches(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+
+        CaroUser user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        return ResponseEntity.ok()
+                .eTag(UserVersion.of(user).eTag())
+                .body(UserSettingsResponse.from(user));
+    }
 }
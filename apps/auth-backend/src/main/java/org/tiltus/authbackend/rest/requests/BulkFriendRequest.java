@@ -0,0 +1,8 @@
+package org.tiltus.authbackend.rest.requests;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BulkFriendRequest(
+        List<UUID> friendshipIds
+) { }
@@ -0,0 +1,11 @@
+package org.tiltus.authbackend.rest.response;
+
+import java.util.List;
+
+public record BootstrapResponse(
+        UserSettingsResponse user,
+        List<FriendCardResponse> friends,
+        List<FriendCardResponse> incomingRequests,
+        List<FriendCardResponse> outgoingRequests,
+        FriendRequestCountsResponse counts
+) { }
@@ -0,0 +1,16 @@
+package org.tiltus.authbackend.rest.response;
+
+import java.util.UUID;
+
+public record BulkFriendRequestResult(
+        UUID friendshipId,
+        Outcome outcome
+) {
+
+    public enum Outcome {
+        APPLIED,
+        NOT_FOUND,
+        FORBIDDEN,
+        NOT_PENDING
+    }
+}
@@ -0,0 +1,35 @@
+package org.tiltus.authbackend.rest.response;
+
+import org.tiltus.authbackend.enums.FriendshipStatus;
+import org.tiltus.authbackend.model.CaroFriendship;
+import org.tiltus.authbackend.model.CaroUser;
+import org.tiltus.authbackend.rest.response.FriendRequestResponse.Direction;
+
+import java.util.UUID;
+
+public record FriendCardResponse(
+        UUID friendshipId,
+        UUID userId,
+        String username,
+        String tagId,
+        String email,
+        FriendshipStatus status,
+        Direction direction,
+        UserProfileResponse profile
+) {
+
+    public static FriendCardResponse from(CaroFriendship friendship, UUID currentUserId) {
+        boolean outgoing = friendship.getRequester().getId().equals(currentUserId);
+        CaroUser other = outgoing ? friendship.getAddressee() : friendship.getRequester();
+        return new FriendCardResponse(
+                friendship.getId(),
+                other.getId(),
+                other.getUsername(),
+                other.getTagId(),
+                other.getEmail(),
+                friendship.getStatus(),
+                outgoing ? Direction.OUTGOING : Direction.INCOMING,
+                other.getProfile() != null ? UserProfileResponse.from(other.getProfile()) : null
+        );
+    }
+}
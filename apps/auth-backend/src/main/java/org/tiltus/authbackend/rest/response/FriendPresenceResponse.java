@@ -0,0 +1,10 @@
+package org.tiltus.authbackend.rest.response;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record FriendPresenceResponse(
+        UUID userId,
+        boolean online,
+        Instant lastSeenAt
+) { }
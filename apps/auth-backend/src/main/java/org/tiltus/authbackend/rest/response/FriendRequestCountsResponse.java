@@ -0,0 +1,16 @@
+package org.tiltus.authbackend.rest.response;
+
+import org.tiltus.authbackend.model.CaroFriendRequestCounter;
+
+public record FriendRequestCountsResponse(
+        int incoming,
+        int outgoing
+) {
+    public static FriendRequestCountsResponse from(CaroFriendRequestCounter counter) {
+        return new FriendRequestCountsResponse(counter.getIncomingPending(), counter.getOutgoingPending());
+    }
+
+    public static FriendRequestCountsResponse empty() {
+        return new FriendRequestCountsResponse(0, 0);
+    }
+}
@@ -0,0 +1,23 @@
+package org.tiltus.authbackend.rest.response;
+
+import org.tiltus.authbackend.model.CaroFriendSuggestion;
+import org.tiltus.authbackend.model.CaroUser;
+
+import java.util.UUID;
+
+public record FriendSuggestionResponse(
+        UUID id,
+        String username,
+        String tagId,
+        int mutualFriends
+) {
+    public static FriendSuggestionResponse from(CaroFriendSuggestion suggestion) {
+        CaroUser candidate = suggestion.getCandidate();
+        return new FriendSuggestionResponse(
+                candidate.getId(),
+                candidate.getUsername(),
+                candidate.getTagId(),
+                suggestion.getMutualCount()
+        );
+    }
+}
@@ -0,0 +1,34 @@
+package org.tiltus.authbackend.rest.response;
+
+import org.tiltus.authbackend.enums.FriendshipStatus;
+import org.tiltus.authbackend.model.CaroFriendship;
+import org.tiltus.authbackend.model.CaroUser;
+import org.tiltus.authbackend.rest.response.FriendRequestResponse.Direction;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record FriendshipChangeResponse(
+        UUID friendshipId,
+        UUID userId,
+        String username,
+        String email,
+        FriendshipStatus status,
+        Direction direction,
+        Instant updatedAt
+) {
+
+    public static FriendshipChangeResponse from(CaroFriendship friendship, UUID currentUserId) {
+        boolean outgoing = friendship.getRequester().getId().equals(currentUserId);
+        CaroUser other = outgoing ? friendship.getAddressee() : friendship.getRequester();
+        return new FriendshipChangeResponse(
+                friendship.getId(),
+                other.getId(),
+                other.getUsername(),
+                other.getEmail(),
+                friendship.getStatus(),
+                outgoing ? Direction.OUTGOING : Direction.INCOMING,
+                friendship.getUpdatedAt()
+        );
+    }
+}
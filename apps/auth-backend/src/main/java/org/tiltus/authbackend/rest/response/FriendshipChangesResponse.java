@@ -0,0 +1,12 @@
+package org.tiltus.authbackend.rest.response;
+
+import java.util.List;
+import java.util.UUID;
+
+// fullResync means changed holds every friendship of the user and local state must be replaced.
+public record FriendshipChangesResponse(
+        long cursor,
+        boolean fullResync,
+        List<FriendshipChangeResponse> changed,
+        List<UUID> removed
+) { }
@@ -1,8 +1,10 @@
 package org.tiltus.authbackend.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,11 +14,17 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.tiltus.authbackend.datasource.ReadYourWritesWindow;
+import org.tiltus.authbackend.datasource.ReplicaRoutingDataSource;
+import org.tiltus.authbackend.metrics.AuthMetrics;
 import org.tiltus.authbackend.model.CaroUser;
 import org.tiltus.authbackend.repositories.CaroUserRepository;
 import org.tiltus.authbackend.services.JwtService;
+import org.tiltus.authbackend.services.LastActiveTracker;
+import org.tiltus.authbackend.timing.RequestTimings;
 
 import java.io.IOException;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -27,15 +35,23 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final CaroUserRepository userRepository;
+    private final LastActiveTracker lastActiveTracker;
+    private final AuthMetrics authMetrics;
+    private final ReadYourWritesWindow readYourWrites;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        long started = System.nanoTime();
         String headRequest = Optional.ofNullable(request.getHeader("Authorization")).orElse("");
         if (headRequest.startsWith("Bearer ")) {
             String token = headRequest.substring(7);
             try {
-                Jws<Claims> claims = jwtService.parse(token);
+                Jws<Claims> claims = parse(token);
                 UUID userId = UUID.fromString(claims.getBody().getSubject());
+                if (justIssued(claims.getBody()) || readYourWrites.isPinned(userId.toString(), System.currentTimeMillis())) {
+                    // The user was just registered or logged in, maybe on another node; the replica may not have it yet.
+                    ReplicaRoutingDataSource.requestPrimary();
+                }
                 CaroUser user = userRepository.findById(userId).orElse(null);
                 if (user != null) {
                     UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
@@ -43,10 +59,37 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                     );
                     auth.setDetails(user);
                     SecurityContextHolder.getContext().setAuthentication(auth);
+                    lastActiveTracker.touch(userId);
                 }
             } catch (JwtException ignored) { }
         }
+        RequestTimings.recordAuth(System.nanoTime() - started);
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.clearPrimaryRequest();
+        }
+    }
 
-        filterChain.doFilter(request, response);
+    // iat has whole seconds; rounding it up keeps the full window.
+    private boolean justIssued(Claims claims) {
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt != null && readYourWrites.covers(issuedAt.getTime() + 999, System.currentTimeMillis());
+    }
+
+    private Jws<Claims> parse(String token) {
+        Timer.Sample sample = Timer.start();
+        try {
+            Jws<Claims> claims = jwtService.parse(token);
+            authMetrics.recordTokenParse(sample, "valid");
+            return claims;
+        } catch (ExpiredJwtException e) {
+            authMetrics.recordTokenParse(sample, "expired");
+            throw e;
+        } catch (JwtException e) {
+            authMetrics.recordTokenParse(sample, "invalid");
+            throw e;
+        }
     }
 }
@@ -0,0 +1,56 @@
+package org.tiltus.authbackend.seed;
+
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+// Buffers CSV rows and hands them to COPY FROM STDIN in 64 KiB chunks.
+class CopyStream implements AutoCloseable {
+
+    private static final int FLUSH_AT = 1 << 16;
+
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_AT + 1024);
+    private boolean finished;
+
+    CopyStream(CopyManager copyManager, String copySql) throws SQLException {
+        this.copyIn = copyManager.copyIn(copySql);
+    }
+
+    // Values are generated, so none of them contains a comma, quote or line break; null is an empty field.
+    void row(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            if (values[i] != null) {
+                buffer.append(values[i]);
+            }
+        }
+        buffer.append('\n');
+        if (buffer.length() >= FLUSH_AT) {
+            flush();
+        }
+    }
+
+    long finish() throws SQLException {
+        flush();
+        finished = true;
+        return copyIn.endCopy();
+    }
+
+    private void flush() throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (!finished && copyIn.isActive()) {
+            copyIn.cancelCopy();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package org.tiltus.authbackend.seed;
+
+import org.tiltus.authbackend.enums.FriendshipStatus;
+import org.tiltus.authbackend.ids.UuidV7;
+
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Every value is derived from the seed and the row index, so two runs with the same settings produce
+// the same rows. Friend counts follow a power law and targets are picked in proportion to their own
+// count (Chung-Lu), which gives the few very connected users and the long tail of a real graph.
+public class SyntheticDataset {
+
+    private static final String[] FIRST_NAMES = {
+            "Anna", "Ben", "Clara", "David", "Emma", "Felix", "Greta", "Hannes", "Ida", "Jonas",
+            "Klara", "Luca", "Mia", "Noah", "Olivia", "Paul", "Quinn", "Rosa", "Samuel", "Tilda"
+    };
+    private static final String[] LAST_NAMES = {
+            "Albrecht", "Becker", "Conrad", "Dietrich", "Engel", "Fischer", "Graf", "Hartmann", "Jung", "Keller",
+            "Lang", "Meyer", "Neumann", "Otto", "Peters", "Richter", "Schmidt", "Vogel", "Weber", "Zimmer"
+    };
+
+    public record User(
+            UUID id,
+            String tagId,
+            String username,
+            String firstName,
+            String lastName,
+            String email,
+            Instant createdAt,
+            String displayName,
+            String accentColor
+    ) { }
+
+    public record Friendship(
+            UUID id,
+            UUID requesterId,
+            UUID addresseeId,
+            FriendshipStatus status,
+            Instant createdAt
+    ) { }
+
+    private final long seed;
+    private final int userCount;
+    private final long baseMillis;
+    private final double pendingShare;
+    private final int[] degrees;
+    private final long[] cumulativeDegrees;
+
+    public SyntheticDataset(
+            long seed,
+            int userCount,
+            double exponent,
+            int minFriends,
+            int maxFriends,
+            double pendingShare,
+            Instant baseTime
+    ) {
+        if (exponent <= 1) {
+            throw new IllegalArgumentException("Power-law exponent must be greater than 1.");
+        }
+        this.seed = seed;
+        this.userCount = userCount;
+        this.baseMillis = baseTime.toEpochMilli();
+        this.pendingShare = pendingShare;
+        this.degrees = new int[userCount];
+        this.cumulativeDegrees = new long[userCount];
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long total = 0;
+        for (int i = 0; i < userCount; i++) {
+            // Inverse transform of a Pareto tail starting at minFriends.
+            double degree = minFriends * Math.pow(1 - random.nextDouble(), -1.0 / (exponent - 1));
+            degrees[i] = (int) Math.min(maxFriends, Math.floor(degree));
+            total += degrees[i];
+            cumulativeDegrees[i] = total;
+        }
+    }
+
+    public int userCount() {
+        return userCount;
+    }
+
+    public int degree(int index) {
+        return degrees[index];
+    }
+
+    // One user per millisecond after the base time, so ids and created_at agree.
+    public UUID userId(int index) {
+        return UuidV7.of((baseMillis + index) << 12, mix(seed ^ (index * 0x9E3779B97F4A7C15L)));
+    }
+
+    public User user(int index) {
+        SplittableRandom random = new SplittableRandom(mix(seed + index));
+        String username = username(seed, index);
+        return new User(
+                userId(index),
+                "#" + String.format("%06d", random.nextInt(1_000_000)),
+                username,
+                FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                username + "@seed.caro.test",
+                Instant.ofEpochMilli(baseMillis + index),
+                "User " + index,
+                String.format("#%06x", random.nextInt(0x1000000))
+        );
+    }
+
+    // Lets a load client log in as seeded users without rebuilding the dataset.
+    public static String username(long seed, int index) {
+        return "seed" + Long.toUnsignedString(seed, 36) + "_" + index;
+    }
+
+    // Emits about degree / 2 requests per user; the pair that already exists from the other side is
+    // dropped on insert, so realised friend counts land slightly under the sampled ones.
+    public void forEachFriendship(Consumer<Friendship> consumer) {
+        SplittableRandom random = new SplittableRandom(mix(~seed));
+        long total = cumulativeDegrees.length == 0 ? 0 : cumulativeDegrees[cumulativeDegrees.length - 1];
+        if (total == 0) {
+            return;
+        }
+        long firstFriendshipMillis = baseMillis + userCount;
+        long edge = 0;
+        for (int requester = 0; requester < userCount; requester++) {
+            int requests = (degrees[requester] + 1) / 2;
+            for (int r = 0; r < requests; r++) {
+                int addressee = pickByDegree(random.nextLong(total));
+                if (addressee == requester) {
+                    continue;
+                }
+                long timestamp = (firstFriendshipMillis << 12) + edge;
+                FriendshipStatus status = random.nextDouble() < pendingShare
+                        ? FriendshipStatus.PENDING
+                        : FriendshipStatus.ACCEPTED;
+                consumer.accept(new Friendship(
+                        UuidV7.of(timestamp, mix(seed ^ ~(edge * 0x9E3779B97F4A7C15L))),
+                        userId(requester),
+                        userId(addressee),
+                        status,
+                        Instant.ofEpochMilli(timestamp >>> 12)
+                ));
+                edge++;
+            }
+        }
+    }
+
+    // First user whose cumulative count passes the point; users with no friends are never picked.
+    private int pickByDegree(long point) {
+        int low = 0;
+        int high = cumulativeDegrees.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulativeDegrees[mid] > point) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    // SplitMix64 finalizer; spreads neighbouring inputs across the whole 64-bit range.
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,66 @@
+package org.tiltus.authbackend.seed;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.time.Instant;
+
+// Seeds the configured database and exits, e.g.
+//   ./gradlew bootRun --args='--spring.profiles.active=seed --seed.users=2000000 --seed.random-seed=7'
+// Every seeded user logs in with seed.password; the email is <username>@seed.caro.test.
+@Component
+@Profile("seed")
+@RequiredArgsConstructor
+public class SyntheticDatasetRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDatasetRunner.class);
+
+    private final DataSource dataSource;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${seed.users}") private int users;
+    @Value("${seed.random-seed}") private long randomSeed;
+    @Value("${seed.power-law-exponent}") private double exponent;
+    @Value("${seed.min-friends}") private int minFriends;
+    @Value("${seed.max-friends}") private int maxFriends;
+    @Value("${seed.pending-share}") private double pendingShare;
+    @Value("${seed.base-time}") private String baseTime;
+    @Value("${seed.password}") private String password;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        SyntheticDataset dataset = new SyntheticDataset(
+                randomSeed, users, exponent, minFriends, maxFriends, pendingShare, Instant.parse(baseTime));
+
+        long started = System.nanoTime();
+        SyntheticDatasetWriter.Result result;
+        try (Connection connection = dataSource.getConnection()) {
+            result = new SyntheticDatasetWriter().write(connection, dataset, passwordHash());
+        }
+        long seconds = (System.nanoTime() - started) / 1_000_000_000L;
+
+        log.info("Seeded {} users and {} friendships (seed {}) in {} s",
+                result.users(), result.friendships(), randomSeed, seconds);
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    // A seeded salt keeps the hash column reproducible as well.
+    private String passwordHash() throws NoSuchAlgorithmException {
+        SecureRandom saltSource = SecureRandom.getInstance("SHA1PRNG");
+        saltSource.setSeed(randomSeed);
+        return BCrypt.hashpw(password, BCrypt.gensalt(10, saltSource));
+    }
+}
@@ -0,0 +1,127 @@
+package org.tiltus.authbackend.seed;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Streams a dataset into Postgres in one transaction. Friendships go through an unconstrained staging
+// table first, so pairs drawn twice are dropped by the unordered-pair index instead of failing the COPY.
+public class SyntheticDatasetWriter {
+
+    public record Result(long users, long friendships) { }
+
+    public Result write(Connection connection, SyntheticDataset dataset, String passwordHash) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        Result result;
+        try {
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            long users = copyUsers(copyManager, dataset, passwordHash);
+            copyProfiles(copyManager, dataset);
+            long friendships = copyFriendships(connection, copyManager, dataset);
+            connection.commit();
+            result = new Result(users, friendships);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        // Fresh statistics, so EXPLAIN against the seeded graph shows the plans production would get.
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE users, user_profile, friendship, friend_request_counters");
+        }
+        return result;
+    }
+
+    private long copyUsers(CopyManager copyManager, SyntheticDataset dataset, String passwordHash) throws SQLException {
+        try (CopyStream copy = new CopyStream(copyManager, """
+                COPY users (id, tag_id, username, first_name, last_name, email, password_hash, created_at, updated_at, version)
+                FROM STDIN (FORMAT csv)
+                """)) {
+            for (int i = 0; i < dataset.userCount(); i++) {
+                SyntheticDataset.User user = dataset.user(i);
+                copy.row(user.id(), user.tagId(), user.username(), user.firstName(), user.lastName(), user.email(),
+                        passwordHash, user.createdAt(), user.createdAt(), 0);
+            }
+            return copy.finish();
+        }
+    }
+
+    private void copyProfiles(CopyManager copyManager, SyntheticDataset dataset) throws SQLException {
+        try (CopyStream copy = new CopyStream(copyManager, """
+                COPY user_profile (user_id, display_name, avatar_url, banner_url, accent_color, version)
+                FROM STDIN (FORMAT csv)
+                """)) {
+            for (int i = 0; i < dataset.userCount(); i++) {
+                SyntheticDataset.User user = dataset.user(i);
+                copy.row(user.id(), user.displayName(), null, null, user.accentColor(), 0);
+            }
+            copy.finish();
+        }
+    }
+
+    private long copyFriendships(Connection connection, CopyManager copyManager, SyntheticDataset dataset)
+            throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TEMP TABLE seed_friendship (
+                        id UUID, requester_id UUID, addressee_id UUID, status VARCHAR(32), created_at TIMESTAMPTZ
+                    ) ON COMMIT DROP
+                    """);
+        }
+        try (CopyStream copy = new CopyStream(copyManager, """
+                COPY seed_friendship (id, requester_id, addressee_id, status, created_at)
+                FROM STDIN (FORMAT csv)
+                """)) {
+            SQLException[] failure = new SQLException[1];
+            dataset.forEachFriendship(friendship -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    copy.row(friendship.id(), friendship.requesterId(), friendship.addresseeId(),
+                            friendship.status(), friendship.createdAt());
+                } catch (SQLException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            copy.finish();
+        }
+        try (Statement statement = connection.createStatement()) {
+            int inserted = statement.executeUpdate("""
+                    INSERT INTO friendship (id, requester_id, addressee_id, status, created_at, updated_at)
+                    SELECT id, requester_id, addressee_id, status, created_at, created_at
+                    FROM seed_friendship
+                    ORDER BY id
+                    ON CONFLICT DO NOTHING
+                    """);
+            // Seeded users are new, so their counters can be built from scratch.
+            statement.executeUpdate("""
+                    INSERT INTO friend_request_counters AS c (user_id, incoming_pending, outgoing_pending, updated_at)
+                    SELECT user_id, SUM(incoming), SUM(outgoing), NOW()
+                    FROM (
+                        SELECT f.addressee_id AS user_id, 1 AS incoming, 0 AS outgoing
+                        FROM friendship f JOIN seed_friendship s ON s.id = f.id
+                        WHERE f.status = 'PENDING'
+                        UNION ALL
+                        SELECT f.requester_id, 0, 1
+                        FROM friendship f JOIN seed_friendship s ON s.id = f.id
+                        WHERE f.status = 'PENDING'
+                    ) pending
+                    GROUP BY user_id
+                    ON CONFLICT (user_id) DO UPDATE
+                        SET incoming_pending = c.incoming_pending + EXCLUDED.incoming_pending,
+                            outgoing_pending = c.outgoing_pending + EXCLUDED.outgoing_pending,
+                            updated_at = EXCLUDED.updated_at
+                    """);
+            return inserted;
+        }
+    }
+}
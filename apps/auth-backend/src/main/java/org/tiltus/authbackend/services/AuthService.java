@@ -3,11 +3,16 @@ package org.tiltus.authbackend.services;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import org.tiltus.authbackend.datasource.ReadYourWritesWindow;
+import org.tiltus.authbackend.jfr.PasswordHashEvent;
+import org.tiltus.authbackend.metrics.AuthMetrics;
 import org.tiltus.authbackend.model.CaroUser;
 import org.tiltus.authbackend.model.CaroUserProfile;
 import org.tiltus.authbackend.model.RefreshToken;
@@ -22,6 +27,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Random;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -31,12 +37,33 @@ public class AuthService {
     private final RefreshTokenRepository refreshTokenRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final AuthMetrics authMetrics;
+    private final ReadYourWritesWindow readYourWrites;
 
     public TokenResponse register(RegisterRequest request) {
+        return timed("register", () -> doRegister(request));
+    }
+
+    public TokenResponse login(LoginRequest request) {
+        return timed("login", () -> doLogin(request));
+    }
+
+    public TokenResponse refresh(RefreshRequest request) {
+        return timed("refresh", () -> doRefresh(request));
+    }
+
+    private TokenResponse doRegister(RegisterRequest request) {
+        Timer.Sample hashing = Timer.start();
+        PasswordHashEvent event = new PasswordHashEvent("encode");
+        event.begin();
+        String passwordHash = passwordEncoder.encode(request.password());
+        event.commit();
+        authMetrics.recordPasswordHash(hashing, "encode");
+
         CaroUser user = new CaroUser(
                 request.username(),
                 request.email(),
-                passwordEncoder.encode(request.password()),
+                passwordHash,
                 "",
                 ""
         );
@@ -47,19 +74,24 @@ public class AuthService {
         return issueTokensFor(savedUser);
     }
 
-    public TokenResponse login(LoginRequest request) {
+    private TokenResponse doLogin(LoginRequest request) {
         CaroUser user = userRepository.findByEmailOrUsername(request.emailOrUsername())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials"));
 
-        if (!passwordEncoder.matches(request.password(), user.getPasswordHash())) {
+        Timer.Sample hashing = Timer.start();
+        PasswordHashEvent event = new PasswordHashEvent("matches");
+        event.begin();
+        boolean matches = passwordEncoder.matches(request.password(), user.getPasswordHash());
+        event.commit();
+        authMetrics.recordPasswordHash(hashing, "matches");
+        if (!matches) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
         }
 
         return issueTokensFor(user);
     }
 
-
-    public TokenResponse refresh(RefreshRequest request) {
+    private TokenResponse doRefresh(RefreshRequest request) {
         Jws<Claims> parsed = jwtService.parse(request.refreshToken());
         Object typ = parsed.getBody().get("typ");
         if (!"refresh".equals(typ)) {
@@ -84,10 +116,31 @@ public class AuthService {
         String refresh = jwtService.issueRefresh(user.getId());
         refreshToken = new RefreshToken(user, refresh, Instant.now().plus(Duration.ofDays(30)));
         refreshTokenRepository.save(refreshToken);
+        // These requests are unauthenticated, so the routing data source could not pin the user by itself.
+        readYourWrites.recordWrite(user.getId().toString(), System.currentTimeMillis());
 
         return new TokenResponse(access, refresh);
     }
 
+    // Outcomes stay coarse so the tag set is bounded; the status text is not used as a tag.
+    private TokenResponse timed(String operation, Supplier<TokenResponse> action) {
+        Timer.Sample sample = Timer.start();
+        String outcome = "error";
+        try {
+            TokenResponse response = action.get();
+            outcome = "success";
+            return response;
+        } catch (ResponseStatusException e) {
+            outcome = e.getStatusCode().isSameCodeAs(HttpStatus.UNAUTHORIZED) ? "unauthorized" : "rejected";
+            throw e;
+        } catch (JwtException e) {
+            outcome = "unauthorized";
+            throw e;
+        } finally {
+            authMetrics.recordRequest(sample, operation, outcome);
+        }
+    }
+
     private TokenResponse issueTokensFor(CaroUser user) {
         refreshTokenRepository.deleteByUser(user);
 
@@ -0,0 +1,58 @@
+package org.tiltus.authbackend.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import org.tiltus.authbackend.enums.FriendshipStatus;
+import org.tiltus.authbackend.model.CaroFriendship;
+import org.tiltus.authbackend.model.CaroUser;
+import org.tiltus.authbackend.repositories.CaroFriendRequestCounterRepository;
+import org.tiltus.authbackend.repositories.CaroFriendshipRepository;
+import org.tiltus.authbackend.repositories.CaroUserRepository;
+import org.tiltus.authbackend.rest.response.BootstrapResponse;
+import org.tiltus.authbackend.rest.response.FriendCardResponse;
+import org.tiltus.authbackend.rest.response.FriendRequestCountsResponse;
+import org.tiltus.authbackend.rest.response.UserSettingsResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class BootstrapService {
+
+    private final CaroUserRepository userRepository;
+    private final CaroFriendshipRepository friendshipRepository;
+    private final CaroFriendRequestCounterRepository counterRepository;
+
+    // One snapshot for all reads, so the counts always agree with the request lists.
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public BootstrapResponse bootstrap(UUID userId) {
+        CaroUser user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        List<FriendCardResponse> friends = new ArrayList<>();
+        List<FriendCardResponse> incoming = new ArrayList<>();
+        List<FriendCardResponse> outgoing = new ArrayList<>();
+        for (CaroFriendship friendship : friendshipRepository.findActiveWithProfilesForUser(userId)) {
+            FriendCardResponse card = FriendCardResponse.from(friendship, userId);
+            if (friendship.getStatus() == FriendshipStatus.ACCEPTED) {
+                friends.add(card);
+            } else if (friendship.getAddressee().getId().equals(userId)) {
+                incoming.add(card);
+            } else {
+                outgoing.add(card);
+            }
+        }
+
+        FriendRequestCountsResponse counts = counterRepository.findById(userId)
+                .map(FriendRequestCountsResponse::from)
+                .orElseGet(FriendRequestCountsResponse::empty);
+
+        return new BootstrapResponse(UserSettingsResponse.from(user), friends, incoming, outgoing, counts);
+    }
+}
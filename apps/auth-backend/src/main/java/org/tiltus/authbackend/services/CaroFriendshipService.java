@@ -3,16 +3,28 @@ package org.tiltus.authbackend.services;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.tiltus.authbackend.enums.FriendRequestOutcome;
+import org.tiltus.authbackend.enums.FriendshipEventType;
 import org.tiltus.authbackend.enums.FriendshipStatus;
+import org.tiltus.authbackend.events.FriendshipEvent;
 import org.tiltus.authbackend.model.CaroFriendship;
 import org.tiltus.authbackend.model.CaroUser;
+import org.tiltus.authbackend.model.FriendshipOutboxEntry;
+import org.tiltus.authbackend.repositories.CaroFriendRequestCounterRepository;
 import org.tiltus.authbackend.repositories.CaroFriendshipRepository;
-import org.tiltus.authbackend.repositories.CaroUserRepository;
+import org.tiltus.authbackend.repositories.FriendshipOutboxRepository;
+import org.tiltus.authbackend.repositories.FriendshipTombstoneRepository;
+import org.tiltus.authbackend.repositories.projections.FriendshipEdge;
+import org.tiltus.authbackend.rest.response.BulkFriendRequestResult;
+import org.tiltus.authbackend.rest.response.BulkFriendRequestResult.Outcome;
+import org.tiltus.authbackend.rest.response.FriendRequestCountsResponse;
 import org.tiltus.authbackend.rest.response.FriendRequestResponse;
 import org.tiltus.authbackend.rest.response.FriendResponse;
 
-import java.util.List;
-import java.util.UUID;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 @Transactional
@@ -20,56 +32,43 @@ import java.util.UUID;
 public class CaroFriendshipService {
 
     private static final int DEFAULT_MAX_PENDING_REQUESTS = 100;
+    private static final int MAX_BULK_SIZE = 500;
 
     private final CaroFriendshipRepository friendshipRepository;
-    private final CaroUserRepository userRepository;
+    private final CaroFriendRequestCounterRepository counterRepository;
+    private final FriendSuggestionService suggestionService;
+    private final FriendshipOutboxRepository outboxRepository;
+    private final FriendshipTombstoneRepository tombstoneRepository;
 
     public void sendRequest(UUID currentUserId, UUID targetUserId) {
         if (currentUserId.equals(targetUserId)) {
             throw new IllegalArgumentException("You cannot send a friend request to yourself.");
         }
 
-        CaroUser requester = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new IllegalArgumentException("User does not exist!"));
-        CaroUser addressee = userRepository.findById(targetUserId)
-                .orElseThrow(() -> new IllegalArgumentException("Target user does not exist!"));
-
-        long pendingCount = friendshipRepository.countByAddressee_IdAndStatus(
+        counterRepository.lockCounters(List.of(currentUserId, targetUserId));
+        String outcome = friendshipRepository.upsertPendingRequest(
+                currentUserId,
                 targetUserId,
-                FriendshipStatus.PENDING
+                DEFAULT_MAX_PENDING_REQUESTS
         );
 
-        if (pendingCount >= DEFAULT_MAX_PENDING_REQUESTS) {
-            throw new IllegalStateException("The target user has too many pending friend requests.");
-        }
-
-        var existingOpt = friendshipRepository.findBetween(currentUserId, targetUserId);
-
-        if (existingOpt.isPresent()) {
-            CaroFriendship existing = existingOpt.get();
-            switch (existing.getStatus()) {
-                case ACCEPTED -> throw new IllegalStateException("You are already friends with this user.");
-                case PENDING -> throw new IllegalStateException("A friend request is already pending between you and this user.");
-                case BLOCKED -> throw new IllegalStateException("You cannot send a friend request to a user you have blocked or who has blocked you.");
-                case DECLINED -> {
-                    existing.setStatus(FriendshipStatus.PENDING);
-                    existing.setRequester(requester);
-                    existing.setAddressee(addressee);
-                    return;
-                }
+        switch (FriendRequestOutcome.valueOf(outcome)) {
+            case SENT -> {
+                suggestionService.markDirty(currentUserId, targetUserId);
+                publish(FriendshipEventType.REQUEST_RECEIVED, currentUserId, targetUserId);
             }
+            case REQUESTER_NOT_FOUND -> throw new IllegalArgumentException("User does not exist!");
+            case TARGET_NOT_FOUND -> throw new IllegalArgumentException("Target user does not exist!");
+            case TOO_MANY_PENDING -> throw new IllegalStateException("The target user has too many pending friend requests.");
+            case ALREADY_FRIENDS -> throw new IllegalStateException("You are already friends with this user.");
+            case ALREADY_PENDING -> throw new IllegalStateException("A friend request is already pending between you and this user.");
+            case BLOCKED -> throw new IllegalStateException("You cannot send a friend request to a user you have blocked or who has blocked you.");
         }
-
-        CaroFriendship friendship = new CaroFriendship();
-        friendship.setRequester(requester);
-        friendship.setAddressee(addressee);
-        friendship.setStatus(FriendshipStatus.PENDING);
-
-        friendshipRepository.save(friendship);
     }
 
     public void cancelRequest(UUID currentUserId, UUID friendshipId) {
-        CaroFriendship friendship = friendshipRepository.findById(friendshipId)
+        lockCountersOf(List.of(friendshipId));
+        CaroFriendship friendship = friendshipRepository.findByIdForUpdate(friendshipId)
                 .orElseThrow(() -> new IllegalArgumentException("Friendship does not exist!"));
 
         if (!friendship.getRequester().getId().equals(currentUserId)) {
@@ -80,11 +79,16 @@ public class CaroFriendshipService {
             throw new IllegalStateException("Only pending friend requests can be cancelled.");
         }
 
+        counterRepository.releasePendingSlots(List.of(friendshipId));
+        tombstoneRepository.recordDeletion(List.of(friendshipId));
         friendshipRepository.delete(friendship);
+        suggestionService.markDirty(friendship.getRequester().getId(), friendship.getAddressee().getId());
+        publish(FriendshipEventType.REQUEST_CANCELLED, currentUserId, friendship.getAddressee().getId());
     }
 
     public void acceptRequest(UUID currentUserId, UUID friendshipId) {
-        CaroFriendship friendship = friendshipRepository.findById(friendshipId)
+        lockCountersOf(List.of(friendshipId));
+        CaroFriendship friendship = friendshipRepository.findByIdForUpdate(friendshipId)
                 .orElseThrow(() -> new IllegalArgumentException("Friendship does not exist!"));
 
         if (!friendship.getAddressee().getId().equals(currentUserId)) {
@@ -95,11 +99,15 @@ public class CaroFriendshipService {
             throw new IllegalStateException("Only pending friend requests can be accepted.");
         }
 
+        counterRepository.releasePendingSlots(List.of(friendshipId));
         friendship.setStatus(FriendshipStatus.ACCEPTED);
+        suggestionService.markDirty(friendship.getRequester().getId(), currentUserId);
+        publish(FriendshipEventType.REQUEST_ACCEPTED, currentUserId, friendship.getRequester().getId());
     }
 
     public void declineRequest(UUID currentUserId, UUID friendshipId) {
-        CaroFriendship friendship = friendshipRepository.findById(friendshipId)
+        lockCountersOf(List.of(friendshipId));
+        CaroFriendship friendship = friendshipRepository.findByIdForUpdate(friendshipId)
                 .orElseThrow(() -> new IllegalArgumentException("Friendship does not exist!"));
 
         if (!friendship.getAddressee().getId().equals(currentUserId)) {
@@ -110,7 +118,10 @@ public class CaroFriendshipService {
             throw new IllegalStateException("Only pending friend requests can be declined.");
         }
 
+        counterRepository.releasePendingSlots(List.of(friendshipId));
         friendship.setStatus(FriendshipStatus.DECLINED);
+        suggestionService.markDirty(friendship.getRequester().getId(), currentUserId);
+        publish(FriendshipEventType.REQUEST_DECLINED, currentUserId, friendship.getRequester().getId());
     }
 
     public void unfriend(UUID currentUserId, UUID friendId) {
@@ -126,7 +137,44 @@ public class CaroFriendshipService {
             throw new IllegalStateException("You can only unfriend users you are currently friends with.");
         }
 
+        tombstoneRepository.recordDeletion(List.of(friendship.getId()));
         friendshipRepository.delete(friendship);
+        suggestionService.markDirty(currentUserId, friendId);
+        publish(FriendshipEventType.UNFRIENDED, currentUserId, friendId);
+    }
+
+    public List<BulkFriendRequestResult> cancelRequests(UUID currentUserId, List<UUID> friendshipIds) {
+        return applyBulk(currentUserId, friendshipIds, CaroFriendship::getRequester, FriendshipEventType.REQUEST_CANCELLED, applied -> {
+            counterRepository.releasePendingSlots(applied);
+            tombstoneRepository.recordDeletion(applied);
+            friendshipRepository.deleteByIds(applied);
+        });
+    }
+
+    public List<BulkFriendRequestResult> acceptRequests(UUID currentUserId, List<UUID> friendshipIds) {
+        return applyBulk(currentUserId, friendshipIds, CaroFriendship::getAddressee, FriendshipEventType.REQUEST_ACCEPTED, applied -> {
+            counterRepository.releasePendingSlots(applied);
+            friendshipRepository.updateStatus(applied, FriendshipStatus.ACCEPTED, Instant.now());
+        });
+    }
+
+    public List<BulkFriendRequestResult> declineRequests(UUID currentUserId, List<UUID> friendshipIds) {
+        return applyBulk(currentUserId, friendshipIds, CaroFriendship::getAddressee, FriendshipEventType.REQUEST_DECLINED, applied -> {
+            counterRepository.releasePendingSlots(applied);
+            friendshipRepository.updateStatus(applied, FriendshipStatus.DECLINED, Instant.now());
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public FriendRequestCountsResponse getRequestCounts(UUID userId) {
+        return counterRepository.findById(userId)
+                .map(FriendRequestCountsResponse::from)
+                .orElseGet(FriendRequestCountsResponse::empty);
+    }
+
+    @Transactional(readOnly = true)
+    public String getFriendsETag(UUID userId) {
+        return "\"" + friendshipRepository.friendsFingerprint(userId) + "\"";
     }
 
     @Transactional(readOnly = true)
@@ -170,4 +218,78 @@ public class CaroFriendshipService {
                 })
                 .toList();
     }
+
+    private List<BulkFriendRequestResult> applyBulk(
+            UUID currentUserId,
+            List<UUID> friendshipIds,
+            Function<CaroFriendship, CaroUser> owner,
+            FriendshipEventType eventType,
+            Consumer<List<UUID>> apply
+    ) {
+        if (friendshipIds == null || friendshipIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<UUID> requestedIds = friendshipIds.stream().distinct().toList();
+        if (requestedIds.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("A bulk request can contain at most " + MAX_BULK_SIZE + " friendships.");
+        }
+
+        lockCountersOf(requestedIds);
+        Map<UUID, CaroFriendship> friendships = new HashMap<>();
+        for (CaroFriendship friendship : friendshipRepository.findAllByIdForUpdate(requestedIds)) {
+            friendships.put(friendship.getId(), friendship);
+        }
+
+        List<BulkFriendRequestResult> results = new ArrayList<>(requestedIds.size());
+        List<UUID> applied = new ArrayList<>();
+        Set<UUID> touchedUserIds = new HashSet<>();
+        List<FriendshipOutboxEntry> events = new ArrayList<>();
+        for (UUID friendshipId : requestedIds) {
+            CaroFriendship friendship = friendships.get(friendshipId);
+            Outcome outcome;
+            if (friendship == null) {
+                outcome = Outcome.NOT_FOUND;
+            } else if (!owner.apply(friendship).getId().equals(currentUserId)) {
+                outcome = Outcome.FORBIDDEN;
+            } else if (friendship.getStatus() != FriendshipStatus.PENDING) {
+                outcome = Outcome.NOT_PENDING;
+            } else {
+                outcome = Outcome.APPLIED;
+                applied.add(friendshipId);
+                touchedUserIds.add(friendship.getRequester().getId());
+                touchedUserIds.add(friendship.getAddressee().getId());
+                UUID otherUserId = friendship.getRequester().getId().equals(currentUserId)
+                        ? friendship.getAddressee().getId()
+                        : friendship.getRequester().getId();
+                events.add(new FriendshipOutboxEntry(FriendshipEvent.of(eventType, currentUserId, otherUserId)));
+            }
+            results.add(new BulkFriendRequestResult(friendshipId, outcome));
+        }
+
+        if (!applied.isEmpty()) {
+            apply.accept(applied);
+            suggestionService.markDirty(touchedUserIds);
+            outboxRepository.saveAll(events);
+        }
+
+        return results;
+    }
+
+    // Counters before friendships, the same order sendRequest takes them in.
+    private void lockCountersOf(List<UUID> friendshipIds) {
+        Set<UUID> userIds = new HashSet<>();
+        for (FriendshipEdge edge : friendshipRepository.findEdgesByIds(friendshipIds)) {
+            userIds.add(edge.requesterId());
+            userIds.add(edge.addresseeId());
+        }
+        if (!userIds.isEmpty()) {
+            counterRepository.lockCounters(userIds);
+        }
+    }
+
+    // Written in the same transaction as the change; FriendshipOutboxDispatcher delivers it after commit.
+    private void publish(FriendshipEventType type, UUID actorId, UUID targetId) {
+        outboxRepository.save(new FriendshipOutboxEntry(FriendshipEvent.of(type, actorId, targetId)));
+    }
 }
@@ -3,6 +3,8 @@ package org.tiltus.authbackend.services;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.tiltus.authbackend.cache.CacheInvalidator;
+import org.tiltus.authbackend.enums.CacheRegion;
 import org.tiltus.authbackend.model.CaroUser;
 import org.tiltus.authbackend.model.CaroUserProfile;
 import org.tiltus.authbackend.repositories.CaroProfileRepository;
@@ -16,6 +18,7 @@ public class CaroProfileService {
 
     private final CaroProfileRepository profileRepository;
     private final CaroUserService userService;
+    private final CacheInvalidator cacheInvalidator;
 
     @Transactional(readOnly = true)
     public CaroUserProfile getCurrentCaroUserProfile(UUID userId) {
@@ -39,7 +42,9 @@ public class CaroProfileService {
         profile.setBannerUrl(request.bannerUrl());
         profile.setAccentColor(request.accentColor());
 
-        return profileRepository.save(profile);
+        CaroUserProfile saved = profileRepository.save(profile);
+        cacheInvalidator.invalidate(CacheRegion.PROFILES, userId);
+        return saved;
     }
 
     private CaroUserProfile createDefaultProfile(UUID userId) {
@@ -4,6 +4,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import org.tiltus.authbackend.cache.CacheInvalidator;
+import org.tiltus.authbackend.enums.CacheRegion;
 import org.tiltus.authbackend.model.CaroUser;
 import org.tiltus.authbackend.model.CaroUserProfile;
 import org.tiltus.authbackend.repositories.CaroUserRepository;
@@ -17,6 +19,7 @@ import java.util.UUID;
 public class CaroUserService {
 
     private final CaroUserRepository userRepository;
+    private final CacheInvalidator cacheInvalidator;
 
     public CaroUser save(String userId, UserSettingsRequest request) {
         UUID uuid = UUID.fromString(userId);
@@ -35,7 +38,10 @@ public class CaroUserService {
         profile.setAccentColor(request.profile().accentColor());
         user.setProfile(profile);
 
-        return userRepository.save(user);
+        CaroUser saved = userRepository.save(user);
+        cacheInvalidator.invalidate(CacheRegion.USERS, uuid);
+        cacheInvalidator.invalidate(CacheRegion.PROFILES, uuid);
+        return saved;
     }
 
     public CaroUser getById(UUID userId) {
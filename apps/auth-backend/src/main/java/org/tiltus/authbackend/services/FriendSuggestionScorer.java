@@ -0,0 +1,90 @@
+package org.tiltus.authbackend.services;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+final class FriendSuggestionScorer {
+
+    private static final int SEQUENTIAL_THRESHOLD = 64;
+
+    private static final Comparator<ScoredCandidate> BY_SCORE = Comparator
+            .comparingInt(ScoredCandidate::mutualCount)
+            .thenComparing(ScoredCandidate::candidateId, Comparator.reverseOrder());
+
+    private final Map<UUID, Set<UUID>> friends;
+    private final Map<UUID, Set<UUID>> excluded;
+    private final int limit;
+
+    FriendSuggestionScorer(Map<UUID, Set<UUID>> friends, Map<UUID, Set<UUID>> excluded, int limit) {
+        this.friends = friends;
+        this.excluded = excluded;
+        this.limit = limit;
+    }
+
+    Map<UUID, List<ScoredCandidate>> scoreAll(ForkJoinPool pool, List<UUID> userIds) {
+        return pool.invoke(new ScoreTask(userIds, 0, userIds.size()));
+    }
+
+    List<ScoredCandidate> score(UUID userId) {
+        Set<UUID> own = friends.getOrDefault(userId, Set.of());
+        Set<UUID> blocked = excluded.getOrDefault(userId, Set.of());
+        Map<UUID, Integer> mutualCounts = new HashMap<>();
+
+        for (UUID friendId : own) {
+            for (UUID candidateId : friends.getOrDefault(friendId, Set.of())) {
+                if (candidateId.equals(userId) || own.contains(candidateId) || blocked.contains(candidateId)) {
+                    continue;
+                }
+                mutualCounts.merge(candidateId, 1, Integer::sum);
+            }
+        }
+
+        PriorityQueue<ScoredCandidate> top = new PriorityQueue<>(limit + 1, BY_SCORE);
+        mutualCounts.forEach((candidateId, count) -> {
+            top.offer(new ScoredCandidate(candidateId, count));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        });
+
+        List<ScoredCandidate> result = new ArrayList<>(top);
+        result.sort(BY_SCORE.reversed());
+        return result;
+    }
+
+    record ScoredCandidate(UUID candidateId, int mutualCount) { }
+
+    private final class ScoreTask extends RecursiveTask<Map<UUID, List<ScoredCandidate>>> {
+
+        private final List<UUID> userIds;
+        private final int from;
+        private final int to;
+
+        private ScoreTask(List<UUID> userIds, int from, int to) {
+            this.userIds = userIds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<UUID, List<ScoredCandidate>> compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                Map<UUID, List<ScoredCandidate>> result = new HashMap<>();
+                for (int i = from; i < to; i++) {
+                    UUID userId = userIds.get(i);
+                    result.put(userId, score(userId));
+                }
+                return result;
+            }
+
+            int middle = (from + to) >>> 1;
+            ScoreTask left = new ScoreTask(userIds, from, middle);
+            ScoreTask right = new ScoreTask(userIds, middle, to);
+            left.fork();
+            Map<UUID, List<ScoredCandidate>> result = right.compute();
+            result.putAll(left.join());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.tiltus.authbackend.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.tiltus.authbackend.model.CaroFriendSuggestion;
+import org.tiltus.authbackend.repositories.CaroFriendSuggestionRepository;
+import org.tiltus.authbackend.repositories.CaroFriendshipRepository;
+import org.tiltus.authbackend.repositories.CaroUserRepository;
+import org.tiltus.authbackend.repositories.projections.FriendshipEdge;
+import org.tiltus.authbackend.rest.response.FriendSuggestionResponse;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+@Service
+@RequiredArgsConstructor
+public class FriendSuggestionService {
+
+    private static final int EDGE_QUERY_CHUNK_SIZE = 1000;
+
+    private final CaroFriendSuggestionRepository suggestionRepository;
+    private final CaroFriendshipRepository friendshipRepository;
+    private final CaroUserRepository userRepository;
+
+    @Value("${friends.suggestions.limit}") private int limit;
+    @Value("${friends.suggestions.batch-size}") private int batchSize;
+
+    @Transactional
+    public void markDirty(UUID userId1, UUID userId2) {
+        suggestionRepository.markDirty(userId1, userId2);
+    }
+
+    @Transactional
+    public void markDirty(Collection<UUID> userIds) {
+        if (!userIds.isEmpty()) {
+            suggestionRepository.markDirty(userIds);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<FriendSuggestionResponse> getSuggestions(UUID userId) {
+        return suggestionRepository.findForUser(userId).stream()
+                .map(FriendSuggestionResponse::from)
+                .toList();
+    }
+
+    @Scheduled(
+            initialDelayString = "${friends.suggestions.refresh-interval-ms}",
+            fixedDelayString = "${friends.suggestions.refresh-interval-ms}"
+    )
+    @Transactional
+    public void refreshSuggestions() {
+        List<UUID> dirtyUserIds = suggestionRepository.claimDirtyUserIds(batchSize);
+        if (dirtyUserIds.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Set<UUID>> friends = new HashMap<>();
+        Map<UUID, Set<UUID>> excluded = new HashMap<>();
+        Set<UUID> loaded = new HashSet<>();
+
+        // A changed edge moves the candidates of both endpoints and of all their friends.
+        loadEdges(dirtyUserIds, loaded, friends, excluded);
+        Set<UUID> affected = new LinkedHashSet<>(dirtyUserIds);
+        for (UUID userId : dirtyUserIds) {
+            affected.addAll(friends.getOrDefault(userId, Set.of()));
+        }
+        loadEdges(affected, loaded, friends, excluded);
+
+        // Scoring needs the complete friend set of every friend of an affected user.
+        Set<UUID> neighbours = new HashSet<>();
+        for (UUID userId : affected) {
+            neighbours.addAll(friends.getOrDefault(userId, Set.of()));
+        }
+        loadEdges(neighbours, loaded, friends, excluded);
+
+        List<UUID> affectedUserIds = new ArrayList<>(affected);
+        var scores = new FriendSuggestionScorer(friends, excluded, limit)
+                .scoreAll(ForkJoinPool.commonPool(), affectedUserIds);
+
+        Instant now = Instant.now();
+        List<CaroFriendSuggestion> suggestions = new ArrayList<>();
+        scores.forEach((userId, candidates) -> candidates.forEach(candidate ->
+                suggestions.add(new CaroFriendSuggestion(
+                        userId,
+                        userRepository.getReferenceById(candidate.candidateId()),
+                        candidate.mutualCount(),
+                        now
+                ))
+        ));
+
+        suggestionRepository.deleteForUsers(affectedUserIds);
+        suggestionRepository.saveAll(suggestions);
+    }
+
+    private void loadEdges(
+            Collection<UUID> userIds,
+            Set<UUID> loaded,
+            Map<UUID, Set<UUID>> friends,
+            Map<UUID, Set<UUID>> excluded
+    ) {
+        List<UUID> missing = userIds.stream()
+                .filter(loaded::add)
+                .toList();
+
+        for (int from = 0; from < missing.size(); from += EDGE_QUERY_CHUNK_SIZE) {
+            var chunk = missing.subList(from, Math.min(from + EDGE_QUERY_CHUNK_SIZE, missing.size()));
+            for (FriendshipEdge edge : friendshipRepository.findEdgesTouching(chunk)) {
+                var target = switch (edge.status()) {
+                    case ACCEPTED -> friends;
+                    case PENDING, BLOCKED -> excluded;
+                    case DECLINED -> null;
+                };
+                if (target == null) {
+                    continue;
+                }
+                target.computeIfAbsent(edge.requesterId(), id -> new HashSet<>()).add(edge.addresseeId());
+                target.computeIfAbsent(edge.addresseeId(), id -> new HashSet<>()).add(edge.requesterId());
+            }
+        }
+    }
+}
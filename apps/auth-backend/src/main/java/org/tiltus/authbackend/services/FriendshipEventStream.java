@@ -0,0 +1,132 @@
+package org.tiltus.authbackend.services;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.tiltus.authbackend.events.FriendshipEvent;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class FriendshipEventStream {
+
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${friends.events.timeout-ms}") private long timeoutMs;
+    @Value("${friends.events.buffer-size}") private int bufferSize;
+    @Value("${friends.events.max-connections-per-user}") private int maxConnectionsPerUser;
+
+    public SseEmitter subscribe(UUID userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(bufferSize), new AtomicBoolean());
+
+        subscribers.compute(userId, (id, current) -> {
+            Set<Subscriber> userSubscribers = current != null ? current : ConcurrentHashMap.newKeySet();
+            if (userSubscribers.size() >= maxConnectionsPerUser) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many open event streams.");
+            }
+            userSubscribers.add(subscriber);
+            return userSubscribers;
+        });
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(subscriber));
+
+        // Flushes the response headers so the client knows the stream is open.
+        enqueue(subscriber, SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    public int connectionCount(UUID userId) {
+        return subscribers.getOrDefault(userId, Set.of()).size();
+    }
+
+    @EventListener
+    public void onFriendshipEvent(FriendshipEvent event) {
+        deliver(event.actorId(), event);
+        deliver(event.targetId(), event);
+    }
+
+    @Scheduled(
+            initialDelayString = "${friends.events.heartbeat-interval-ms}",
+            fixedRateString = "${friends.events.heartbeat-interval-ms}"
+    )
+    public void sendHeartbeats() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                enqueue(subscriber, SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.emitter().complete();
+            }
+        }
+        subscribers.clear();
+        senders.shutdown();
+    }
+
+    private void deliver(UUID userId, FriendshipEvent event) {
+        for (Subscriber subscriber : subscribers.getOrDefault(userId, Set.of())) {
+            enqueue(subscriber, SseEmitter.event().name(event.type().name()).data(event));
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder message) {
+        if (!subscriber.queue().offer(message)) {
+            // The client stopped reading. Drop it instead of buffering without bound, it will reconnect and refetch.
+            remove(subscriber);
+            senders.execute(subscriber.emitter()::complete);
+            return;
+        }
+
+        if (subscriber.draining().compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder message;
+            while ((message = subscriber.queue().poll()) != null) {
+                try {
+                    subscriber.emitter().send(message);
+                } catch (IOException | IllegalStateException e) {
+                    remove(subscriber);
+                    return;
+                }
+            }
+            subscriber.draining().set(false);
+        } while (!subscriber.queue().isEmpty() && subscriber.draining().compareAndSet(false, true));
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId(), (id, userSubscribers) -> {
+            userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    private record Subscriber(
+            UUID userId,
+            SseEmitter emitter,
+            BlockingQueue<SseEmitter.SseEventBuilder> queue,
+            AtomicBoolean draining
+    ) { }
+}
@@ -0,0 +1,99 @@
+package org.tiltus.authbackend.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tiltus.authbackend.model.FriendshipOutboxEntry;
+import org.tiltus.authbackend.repositories.FriendshipOutboxRepository;
+import org.tiltus.authbackend.repositories.projections.OutboxBacklog;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drains friendship_outbox and hands the events to in-process listeners (SSE stream, WebSocket gateway).
+// A batch is deleted and delivered in one transaction, so a failed delivery puts it back: at-least-once.
+@Service
+public class FriendshipOutboxDispatcher {
+
+    private final FriendshipOutboxRepository outboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter dispatched;
+    private final Timer batchTimer;
+    private final Timer deliveryLag;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestAgeMillis = new AtomicLong();
+
+    @Value("${friends.outbox.batch-size}") private int batchSize;
+    @Value("${friends.outbox.max-batches-per-run}") private int maxBatchesPerRun;
+
+    public FriendshipOutboxDispatcher(
+            FriendshipOutboxRepository outboxRepository,
+            ApplicationEventPublisher eventPublisher,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+
+        this.dispatched = Counter.builder("friends.outbox.dispatched")
+                .description("Friendship events delivered from the outbox")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("friends.outbox.batch")
+                .description("Time to claim and deliver one outbox batch")
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("friends.outbox.delivery.lag")
+                .description("Time between the state change and the delivery of its event")
+                .register(meterRegistry);
+        meterRegistry.gauge("friends.outbox.pending", pending);
+        meterRegistry.gauge("friends.outbox.oldest.age.ms", oldestAgeMillis);
+    }
+
+    @Scheduled(fixedDelayString = "${friends.outbox.poll-interval-ms}")
+    public void dispatch() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Timer.Sample sample = Timer.start();
+            Integer delivered = transactionTemplate.execute(status -> dispatchBatch());
+            sample.stop(batchTimer);
+            if (delivered == null || delivered < batchSize) {
+                break;
+            }
+        }
+        updateBacklog();
+    }
+
+    private int dispatchBatch() {
+        List<FriendshipOutboxEntry> entries = outboxRepository.claimBatch(batchSize);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        Instant now = Instant.now();
+        entries.stream()
+                .sorted(Comparator.comparing(FriendshipOutboxEntry::getId))
+                .forEach(entry -> {
+                    eventPublisher.publishEvent(entry.toEvent());
+                    deliveryLag.record(Duration.between(entry.getOccurredAt(), now));
+                });
+        dispatched.increment(entries.size());
+        return entries.size();
+    }
+
+    private void updateBacklog() {
+        OutboxBacklog backlog = outboxRepository.findBacklog();
+        pending.set(backlog.pending());
+        oldestAgeMillis.set(backlog.oldestOccurredAt() == null
+                ? 0
+                : Duration.between(backlog.oldestOccurredAt(), Instant.now()).toMillis());
+    }
+}
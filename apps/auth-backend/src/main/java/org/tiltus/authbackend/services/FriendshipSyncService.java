@@ -0,0 +1,75 @@
+package org.tiltus.authbackend.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.tiltus.authbackend.repositories.CaroFriendshipRepository;
+import org.tiltus.authbackend.repositories.FriendshipTombstoneRepository;
+import org.tiltus.authbackend.rest.response.FriendshipChangeResponse;
+import org.tiltus.authbackend.rest.response.FriendshipChangesResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class FriendshipSyncService {
+
+    private final CaroFriendshipRepository friendshipRepository;
+    private final FriendshipTombstoneRepository tombstoneRepository;
+
+    @Value("${friends.sync.tombstone-retention-days}") private int retentionDays;
+    @Value("${friends.sync.cursor-grace-ms}") private long cursorGraceMs;
+
+    // The cursor is an updated_at watermark in epoch microseconds, the resolution Postgres stores.
+    @Transactional(readOnly = true)
+    public FriendshipChangesResponse getChanges(UUID userId, Long sinceCursor) {
+        Instant now = Instant.now();
+        Instant horizon = now.minus(Duration.ofDays(retentionDays));
+
+        // Tombstones before the horizon may already be compacted away, so removals could be missed.
+        // A cursor from the future was not issued by this server and is treated like a missing one.
+        if (sinceCursor == null || sinceCursor < toCursor(horizon) || sinceCursor > toCursor(now)) {
+            List<FriendshipChangeResponse> all = friendshipRepository.findChangedForUser(userId, Instant.EPOCH).stream()
+                    .map(f -> FriendshipChangeResponse.from(f, userId))
+                    .toList();
+            return new FriendshipChangesResponse(nextCursor(now, Instant.EPOCH), true, all, List.of());
+        }
+
+        Instant since = fromCursor(sinceCursor);
+        List<FriendshipChangeResponse> changed = friendshipRepository.findChangedForUser(userId, since).stream()
+                .map(f -> FriendshipChangeResponse.from(f, userId))
+                .toList();
+        List<UUID> removed = tombstoneRepository.findDeletedSince(userId, since);
+        return new FriendshipChangesResponse(nextCursor(now, since), false, changed, removed);
+    }
+
+    @Scheduled(
+            initialDelayString = "${friends.sync.compaction-interval-ms}",
+            fixedDelayString = "${friends.sync.compaction-interval-ms}"
+    )
+    @Transactional
+    public int compactTombstones() {
+        return tombstoneRepository.deleteOlderThan(Instant.now().minus(Duration.ofDays(retentionDays)));
+    }
+
+    // Rows are stamped when their transaction starts, not when it commits, so the watermark trails
+    // the clock by a grace window. Changes inside it are sent again, which clients apply idempotently.
+    private long nextCursor(Instant now, Instant since) {
+        Instant watermark = now.minusMillis(cursorGraceMs);
+        return toCursor(watermark.isAfter(since) ? watermark : since);
+    }
+
+    static long toCursor(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    static Instant fromCursor(long cursor) {
+        return Instant.EPOCH.plus(cursor, ChronoUnit.MICROS);
+    }
+}
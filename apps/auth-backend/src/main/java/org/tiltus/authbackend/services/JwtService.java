@@ -2,11 +2,13 @@ package org.tiltus.authbackend.services;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.tiltus.authbackend.jfr.JwtEvent;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
@@ -28,8 +30,10 @@ public class JwtService {
     }
 
     public String issueAccess(UUID userId, String username) {
+        JwtEvent event = new JwtEvent("sign-access");
+        event.begin();
         Instant now = Instant.now();
-        return Jwts.builder()
+        String token = Jwts.builder()
                 .setIssuer(issuer)
                 .setSubject(userId.toString())
                 .claim("username", username)
@@ -37,11 +41,15 @@ public class JwtService {
                 .setExpiration(Date.from(now.plus(Duration.ofMinutes(accessTtl))))
                 .signWith(key(), SignatureAlgorithm.HS256)
                 .compact();
+        event.commit();
+        return token;
     }
 
     public String issueRefresh(UUID userId) {
+        JwtEvent event = new JwtEvent("sign-refresh");
+        event.begin();
         Instant now = Instant.now();
-        return Jwts.builder()
+        String token = Jwts.builder()
                 .setIssuer(issuer)
                 .setSubject(userId.toString())
                 .claim("typ", "refresh")
@@ -49,12 +57,23 @@ public class JwtService {
                 .setExpiration(Date.from(now.plus(Duration.ofDays(refreshTtl))))
                 .signWith(key(), SignatureAlgorithm.HS256)
                 .compact();
+        event.commit();
+        return token;
     }
 
     public Jws<Claims> parse(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token);
+        JwtEvent event = new JwtEvent("parse");
+        event.begin();
+        try {
+            return Jwts.parserBuilder()
+                    .setSigningKey(key())
+                    .build()
+                    .parseClaimsJws(token);
+        } catch (JwtException e) {
+            event.fail();
+            throw e;
+        } finally {
+            event.commit();
+        }
     }
 }
@@ -0,0 +1,81 @@
+package org.tiltus.authbackend.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.tiltus.authbackend.repositories.CaroUserRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Coalesces activity per user in memory, so last_active_at lags by at most one flush interval.
+@Service
+@RequiredArgsConstructor
+public class LastActiveTracker {
+
+    private final CaroUserRepository userRepository;
+
+    private final ConcurrentHashMap<UUID, Long> pending = new ConcurrentHashMap<>();
+
+    @Value("${users.last-active.batch-size}") private int batchSize;
+
+    public void touch(UUID userId) {
+        pending.merge(userId, System.currentTimeMillis(), Math::max);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(
+            initialDelayString = "${users.last-active.flush-interval-ms}",
+            fixedDelayString = "${users.last-active.flush-interval-ms}"
+    )
+    public void flush() {
+        List<UUID> ids = new ArrayList<>(batchSize);
+        List<Long> seenAt = new ArrayList<>(batchSize);
+        for (UUID userId : pending.keySet()) {
+            // remove() hands over the latest value; a touch after this starts a new entry.
+            Long timestamp = pending.remove(userId);
+            if (timestamp == null) {
+                continue;
+            }
+            ids.add(userId);
+            seenAt.add(timestamp);
+            if (ids.size() == batchSize) {
+                write(ids, seenAt);
+                ids.clear();
+                seenAt.clear();
+            }
+        }
+        if (!ids.isEmpty()) {
+            write(ids, seenAt);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(List<UUID> ids, List<Long> seenAt) {
+        Instant[] timestamps = new Instant[seenAt.size()];
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = Instant.ofEpochMilli(seenAt.get(i));
+        }
+        try {
+            userRepository.updateLastActive(ids.toArray(UUID[]::new), timestamps);
+        } catch (RuntimeException e) {
+            // Put the batch back so the next flush retries it.
+            for (int i = 0; i < ids.size(); i++) {
+                pending.merge(ids.get(i), seenAt.get(i), Math::max);
+            }
+            throw e;
+        }
+    }
+}
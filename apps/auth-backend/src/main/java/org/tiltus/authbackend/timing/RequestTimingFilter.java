@@ -0,0 +1,78 @@
+package org.tiltus.authbackend.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+// Runs ahead of the security chain so JwtAuthFilter falls inside the measured time.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private static final Logger accessLog = LoggerFactory.getLogger("org.tiltus.authbackend.access");
+    private static final List<String> MDC_KEYS = List.of(
+            "endpoint", "status", "db.statements", "db.ms", "auth.ms", "handler.ms", "serialization.ms", "total.ms");
+
+    @Value("${request-timing.server-timing-header}") private boolean serverTimingHeader;
+    @Value("${request-timing.access-log}") private boolean accessLogEnabled;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTimings.clear();
+            // Bodiless responses never reach ServerTimingAdvice and are still uncommitted here.
+            if (serverTimingHeader && !response.isCommitted() && !response.containsHeader(SERVER_TIMING)) {
+                timings.markHandlerDone();
+                response.setHeader(SERVER_TIMING, timings.serverTiming());
+            }
+            if (accessLogEnabled) {
+                log(request, response, timings);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, RequestTimings timings) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        double handler = timings.handlerMillis();
+        double total = timings.totalMillis();
+
+        MDC.put("endpoint", endpoint);
+        MDC.put("status", Integer.toString(response.getStatus()));
+        MDC.put("db.statements", Integer.toString(timings.statements()));
+        MDC.put("db.ms", format(timings.dbMillis()));
+        MDC.put("auth.ms", format(timings.authMillis()));
+        MDC.put("handler.ms", format(handler));
+        MDC.put("serialization.ms", format(total - handler));
+        MDC.put("total.ms", format(total));
+        try {
+            accessLog.info("{} {} {} ms, {} statements in {} ms",
+                    endpoint, response.getStatus(), format(total), timings.statements(), format(timings.dbMillis()));
+        } finally {
+            MDC_KEYS.forEach(MDC::remove);
+        }
+    }
+
+    private static String format(double millis) {
+        return String.format(Locale.ROOT, "%.2f", millis);
+    }
+}
@@ -0,0 +1,85 @@
+package org.tiltus.authbackend.timing;
+
+import java.util.Locale;
+
+// Per-request accounting, bound to the thread that serves the request. Statement time also counts
+// the queries JwtAuthFilter runs, so the auth and db entries can overlap.
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startedNanos;
+    private int statements;
+    private long statementNanos;
+    private long authNanos;
+    private long handlerDoneNanos;
+
+    private RequestTimings(long startedNanos) {
+        this.startedNanos = startedNanos;
+    }
+
+    public static RequestTimings start() {
+        RequestTimings timings = new RequestTimings(System.nanoTime());
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static void recordStatement(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.statements++;
+            timings.statementNanos += nanos;
+        }
+    }
+
+    public static void recordAuth(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.authNanos += nanos;
+        }
+    }
+
+    // The handler is done once the body is about to be written; everything after is serialization.
+    public void markHandlerDone() {
+        if (handlerDoneNanos == 0) {
+            handlerDoneNanos = System.nanoTime();
+        }
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public double dbMillis() {
+        return millis(statementNanos);
+    }
+
+    public double authMillis() {
+        return millis(authNanos);
+    }
+
+    public double handlerMillis() {
+        return millis((handlerDoneNanos == 0 ? System.nanoTime() : handlerDoneNanos) - startedNanos);
+    }
+
+    public double totalMillis() {
+        return millis(System.nanoTime() - startedNanos);
+    }
+
+    public String serverTiming() {
+        return String.format(Locale.ROOT, "db;dur=%.2f;desc=\"%d statements\", auth;dur=%.2f, app;dur=%.2f",
+                dbMillis(), statements, authMillis(), handlerMillis());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,158 @@
+package org.tiltus.authbackend.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+import org.tiltus.authbackend.events.FriendshipEvent;
+import org.tiltus.authbackend.events.PresenceChangedEvent;
+import org.tiltus.authbackend.repositories.CaroFriendshipRepository;
+import org.tiltus.authbackend.repositories.projections.FriendshipEdge;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Presence changes are fanned out on one background thread, so neither the heartbeating request nor the
+// scheduler tick that expires thousands of users at once (after a restart or a network blip) waits on the
+// friend lookup. Changes that queue up meanwhile are resolved together, one query per batch.
+@Component
+public class GatewayBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(GatewayBroadcaster.class);
+
+    private final SessionRegistry registry;
+    private final CaroFriendshipRepository friendshipRepository;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<PresenceChangedEvent> pendingPresence;
+    private final int batchSize;
+    private final Executor presenceExecutor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    @Autowired
+    public GatewayBroadcaster(
+            SessionRegistry registry,
+            CaroFriendshipRepository friendshipRepository,
+            ObjectMapper objectMapper,
+            @Value("${gateway.presence-queue-size}") int queueSize,
+            @Value("${gateway.presence-batch-size}") int batchSize
+    ) {
+        this(registry, friendshipRepository, objectMapper, queueSize, batchSize,
+                Executors.newSingleThreadExecutor(Thread.ofPlatform().name("gateway-presence").daemon().factory()));
+    }
+
+    GatewayBroadcaster(
+            SessionRegistry registry,
+            CaroFriendshipRepository friendshipRepository,
+            ObjectMapper objectMapper,
+            int queueSize,
+            int batchSize,
+            Executor presenceExecutor
+    ) {
+        this.registry = registry;
+        this.friendshipRepository = friendshipRepository;
+        this.objectMapper = objectMapper;
+        this.pendingPresence = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize = batchSize;
+        this.presenceExecutor = presenceExecutor;
+    }
+
+    @EventListener
+    public void onFriendshipEvent(FriendshipEvent event) {
+        TextMessage message = toMessage("friendship", event);
+        sendTo(event.actorId(), message);
+        sendTo(event.targetId(), message);
+    }
+
+    // A friend who misses a dropped change still gets it from GET /api/presence/friends.
+    @EventListener
+    public void onPresenceChanged(PresenceChangedEvent event) {
+        if (!pendingPresence.offer(event)) {
+            log.warn("Presence queue is full, dropping change for {}", event.userId());
+            return;
+        }
+        if (draining.compareAndSet(false, true)) {
+            presenceExecutor.execute(this::drainPresence);
+        }
+    }
+
+    private void drainPresence() {
+        List<PresenceChangedEvent> batch = new ArrayList<>(batchSize);
+        while (true) {
+            pendingPresence.drainTo(batch, batchSize);
+            if (batch.isEmpty()) {
+                draining.set(false);
+                // A change offered between the drain and the reset found draining still set; pick it up here.
+                if (pendingPresence.isEmpty() || !draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                broadcastPresence(batch);
+            } catch (RuntimeException e) {
+                log.warn("Presence fan-out failed for {} changes", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void broadcastPresence(List<PresenceChangedEvent> batch) {
+        // Only the last change of each user in the batch is still true.
+        Map<UUID, PresenceChangedEvent> latest = new LinkedHashMap<>();
+        for (PresenceChangedEvent event : batch) {
+            latest.put(event.userId(), event);
+        }
+
+        Map<UUID, TextMessage> messages = new HashMap<>();
+        for (FriendshipEdge edge : friendshipRepository.findAcceptedTouching(latest.keySet())) {
+            sendPresence(latest, messages, edge.requesterId(), edge.addresseeId());
+            sendPresence(latest, messages, edge.addresseeId(), edge.requesterId());
+        }
+    }
+
+    private void sendPresence(Map<UUID, PresenceChangedEvent> latest, Map<UUID, TextMessage> messages, UUID userId, UUID friendId) {
+        PresenceChangedEvent event = latest.get(userId);
+        // Most friends are offline; skip serializing until someone is there to receive it.
+        if (event == null || !registry.isConnected(friendId)) {
+            return;
+        }
+        sendTo(friendId, messages.computeIfAbsent(userId, id -> toMessage("presence", event)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (presenceExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private void sendTo(UUID userId, TextMessage message) {
+        for (OutboundSession session : registry.sessionsOf(userId)) {
+            session.offer(message);
+        }
+    }
+
+    private TextMessage toMessage(String type, Object payload) {
+        try {
+            return new TextMessage(objectMapper.writeValueAsString(new GatewayMessage(type, payload)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize gateway message.", e);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package org.tiltus.authbackend.websocket;
+
+public record GatewayMessage(
+        String type,
+        Object payload
+) { }
@@ -0,0 +1,78 @@
+package org.tiltus.authbackend.websocket;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.tiltus.authbackend.presence.PresenceService;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Component
+@RequiredArgsConstructor
+public class GatewayWebSocketHandler extends TextWebSocketHandler {
+
+    private static final String OUTBOUND_ATTRIBUTE = "outbound";
+
+    private final SessionRegistry registry;
+    private final PresenceService presenceService;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${gateway.outbound-queue-size}") private int outboundQueueSize;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        UUID userId = userId(session);
+        OutboundSession outbound = new OutboundSession(session, outboundQueueSize, senders);
+
+        switch (registry.register(userId, outbound)) {
+            case REJECTED -> outbound.close(CloseStatus.POLICY_VIOLATION.withReason("Too many sessions"));
+            case FIRST, ADDITIONAL -> {
+                session.getAttributes().put(OUTBOUND_ATTRIBUTE, outbound);
+                presenceService.heartbeat(userId);
+            }
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        // The gateway is push-only for now; client frames only keep the connection alive.
+        presenceService.heartbeat(userId(session));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        if (!(session.getAttributes().get(OUTBOUND_ATTRIBUTE) instanceof OutboundSession outbound)) {
+            return;
+        }
+
+        UUID userId = userId(session);
+        if (registry.unregister(userId, outbound)) {
+            presenceService.disconnect(userId);
+        }
+    }
+
+    // An open connection counts as a heartbeat, so idle clients do not have to send frames to stay online.
+    @Scheduled(fixedRateString = "${gateway.presence-refresh-ms}")
+    public void refreshPresence() {
+        for (UUID userId : registry.connectedUsers()) {
+            presenceService.heartbeat(userId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdown();
+    }
+
+    private static UUID userId(WebSocketSession session) {
+        return (UUID) session.getAttributes().get(JwtHandshakeInterceptor.USER_ID_ATTRIBUTE);
+    }
+}
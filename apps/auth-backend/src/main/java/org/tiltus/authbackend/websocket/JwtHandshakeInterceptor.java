@@ -0,0 +1,76 @@
+package org.tiltus.authbackend.websocket;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.tiltus.authbackend.repositories.CaroUserRepository;
+import org.tiltus.authbackend.services.JwtService;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class JwtHandshakeInterceptor implements HandshakeInterceptor {
+
+    static final String USER_ID_ATTRIBUTE = "userId";
+
+    private final JwtService jwtService;
+    private final CaroUserRepository userRepository;
+
+    @Override
+    public boolean beforeHandshake(
+            ServerHttpRequest request,
+            ServerHttpResponse response,
+            WebSocketHandler wsHandler,
+            Map<String, Object> attributes
+    ) {
+        Optional<UUID> userId = resolveToken(request).flatMap(this::authenticate);
+        if (userId.isEmpty()) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+
+        attributes.put(USER_ID_ATTRIBUTE, userId.get());
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(
+            ServerHttpRequest request,
+            ServerHttpResponse response,
+            WebSocketHandler wsHandler,
+            Exception exception
+    ) { }
+
+    // Browsers cannot set headers on a WebSocket handshake, so the token may also come as a query parameter.
+    private Optional<String> resolveToken(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst("Authorization");
+        if (header != null && header.startsWith("Bearer ")) {
+            return Optional.of(header.substring(7));
+        }
+
+        return Optional.ofNullable(
+                UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("access_token")
+        );
+    }
+
+    private Optional<UUID> authenticate(String token) {
+        try {
+            Jws<Claims> claims = jwtService.parse(token);
+            UUID userId = UUID.fromString(claims.getBody().getSubject());
+            return userRepository.existsById(userId) ? Optional.of(userId) : Optional.empty();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
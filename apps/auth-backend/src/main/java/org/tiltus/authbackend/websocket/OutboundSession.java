@@ -0,0 +1,65 @@
+package org.tiltus.authbackend.websocket;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Serializes writes to one session through a bounded queue so a slow client never blocks the publisher.
+class OutboundSession {
+
+    private final WebSocketSession session;
+    private final BlockingQueue<TextMessage> queue;
+    private final Executor executor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    OutboundSession(WebSocketSession session, int capacity, Executor executor) {
+        this.session = session;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.executor = executor;
+    }
+
+    WebSocketSession session() {
+        return session;
+    }
+
+    boolean offer(TextMessage message) {
+        if (!queue.offer(message)) {
+            // The client stopped reading. It gets closed and is expected to reconnect and resync.
+            executor.execute(() -> close(CloseStatus.SESSION_NOT_RELIABLE));
+            return false;
+        }
+
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+        return true;
+    }
+
+    void close(CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException | RuntimeException ignored) { }
+    }
+
+    private void drain() {
+        do {
+            TextMessage message;
+            while ((message = queue.poll()) != null) {
+                try {
+                    session.sendMessage(message);
+                } catch (IOException | RuntimeException e) {
+                    queue.clear();
+                    close(CloseStatus.SERVER_ERROR);
+                    return;
+                }
+            }
+            draining.set(false);
+        } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+    }
+}
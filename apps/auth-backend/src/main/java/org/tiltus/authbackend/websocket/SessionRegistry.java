@@ -0,0 +1,99 @@
+package org.tiltus.authbackend.websocket;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sessions grouped by user id. Users are spread over independently locked stripes so that
+// connects and disconnects of unrelated users do not contend on one lock.
+@Component
+public class SessionRegistry {
+
+    public enum Registration { FIRST, ADDITIONAL, REJECTED }
+
+    private final Map<UUID, List<OutboundSession>>[] stripes;
+    private final int stripeMask;
+    private final int maxSessionsPerUser;
+    private final AtomicInteger sessionCount = new AtomicInteger();
+
+    @SuppressWarnings("unchecked")
+    public SessionRegistry(
+            @Value("${gateway.registry-stripes}") int stripeCount,
+            @Value("${gateway.max-sessions-per-user}") int maxSessionsPerUser
+    ) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        this.stripes = new Map[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new HashMap<>();
+        }
+        this.stripeMask = size - 1;
+        this.maxSessionsPerUser = maxSessionsPerUser;
+    }
+
+    Registration register(UUID userId, OutboundSession session) {
+        Map<UUID, List<OutboundSession>> stripe = stripeFor(userId);
+        synchronized (stripe) {
+            List<OutboundSession> sessions = stripe.computeIfAbsent(userId, id -> new ArrayList<>(1));
+            if (sessions.size() >= maxSessionsPerUser) {
+                return Registration.REJECTED;
+            }
+            sessions.add(session);
+            sessionCount.incrementAndGet();
+            return sessions.size() == 1 ? Registration.FIRST : Registration.ADDITIONAL;
+        }
+    }
+
+    // Returns true when the last session of the user was removed.
+    boolean unregister(UUID userId, OutboundSession session) {
+        Map<UUID, List<OutboundSession>> stripe = stripeFor(userId);
+        synchronized (stripe) {
+            List<OutboundSession> sessions = stripe.get(userId);
+            if (sessions == null || !sessions.remove(session)) {
+                return false;
+            }
+            sessionCount.decrementAndGet();
+            if (sessions.isEmpty()) {
+                stripe.remove(userId);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    List<OutboundSession> sessionsOf(UUID userId) {
+        Map<UUID, List<OutboundSession>> stripe = stripeFor(userId);
+        synchronized (stripe) {
+            List<OutboundSession> sessions = stripe.get(userId);
+            return sessions == null ? List.of() : List.copyOf(sessions);
+        }
+    }
+
+    public boolean isConnected(UUID userId) {
+        Map<UUID, List<OutboundSession>> stripe = stripeFor(userId);
+        synchronized (stripe) {
+            return stripe.containsKey(userId);
+        }
+    }
+
+    // Snapshot taken one stripe at a time, so callers never run while holding a stripe lock.
+    List<UUID> connectedUsers() {
+        List<UUID> userIds = new ArrayList<>(sessionCount.get());
+        for (Map<UUID, List<OutboundSession>> stripe : stripes) {
+            synchronized (stripe) {
+                userIds.addAll(stripe.keySet());
+            }
+        }
+        return userIds;
+    }
+
+    public int sessionCount() {
+        return sessionCount.get();
+    }
+
+    private Map<UUID, List<OutboundSession>> stripeFor(UUID userId) {
+        int hash = userId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & stripeMask];
+    }
+}
@@ -0,0 +1,27 @@
+package org.tiltus.authbackend.websocket;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final GatewayWebSocketHandler gatewayHandler;
+    private final JwtHandshakeInterceptor handshakeInterceptor;
+
+    @Value("${cors.allowed-origins}")
+    private String allowedOrigins;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(gatewayHandler, "/ws")
+                .addInterceptors(handshakeInterceptor)
+                .setAllowedOrigins(allowedOrigins);
+    }
+}
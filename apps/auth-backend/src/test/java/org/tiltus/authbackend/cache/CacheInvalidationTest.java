@@ -0,0 +1,24 @@
+package org.tiltus.authbackend.cache;
+
+import org.junit.jupiter.api.Test;
+import org.tiltus.authbackend.enums.CacheRegion;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CacheInvalidationTest {
+
+    @Test
+    void decode_shouldRoundTripEncode() {
+        CacheInvalidation invalidation = new CacheInvalidation(CacheRegion.PROFILES, UUID.randomUUID(), UUID.randomUUID());
+
+        assertThat(CacheInvalidation.decode(invalidation.encode())).isEqualTo(invalidation);
+    }
+
+    @Test
+    void decode_shouldRejectMalformedMessage() {
+        assertThrows(IllegalArgumentException.class, () -> CacheInvalidation.decode("USERS:not-enough"));
+    }
+}
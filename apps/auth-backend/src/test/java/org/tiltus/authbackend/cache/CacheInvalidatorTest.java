@@ -0,0 +1,89 @@
+package org.tiltus.authbackend.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.tiltus.authbackend.enums.CacheRegion;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CacheInvalidatorTest {
+
+    private LocalCacheInvalidationBus bus;
+    private CacheInvalidator nodeA;
+    private CacheInvalidator nodeB;
+    private final Set<UUID> evictedOnA = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> evictedOnB = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() {
+        bus = new LocalCacheInvalidationBus();
+        nodeA = new CacheInvalidator(bus, new SimpleMeterRegistry());
+        nodeB = new CacheInvalidator(bus, new SimpleMeterRegistry());
+        nodeA.onInvalidate(CacheRegion.USERS, evictedOnA::add);
+        nodeB.onInvalidate(CacheRegion.USERS, evictedOnB::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void invalidate_shouldEvictOnOriginAndOtherNodes() {
+        UUID userId = UUID.randomUUID();
+
+        nodeA.invalidate(CacheRegion.USERS, userId);
+
+        assertThat(evictedOnA).containsExactly(userId);
+        assertThat(evictedOnB).containsExactly(userId);
+    }
+
+    @Test
+    void invalidate_shouldOnlyEvictRegisteredRegion() {
+        nodeA.invalidate(CacheRegion.PROFILES, UUID.randomUUID());
+
+        assertThat(evictedOnA).isEmpty();
+        assertThat(evictedOnB).isEmpty();
+    }
+
+    @Test
+    void invalidate_shouldBroadcastAfterCommit_whenTransactionActive() {
+        UUID userId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+
+        nodeA.invalidate(CacheRegion.USERS, userId);
+
+        assertThat(evictedOnA).containsExactly(userId);
+        assertThat(evictedOnB).isEmpty();
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(evictedOnB).containsExactly(userId);
+    }
+
+    @Test
+    void invalidate_shouldSwallowBusFailures() {
+        CacheInvalidationBus failing = mock(CacheInvalidationBus.class);
+        doThrow(new IllegalStateException("down")).when(failing).publish(any());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CacheInvalidator invalidator = new CacheInvalidator(failing, registry);
+
+        invalidator.invalidate(CacheRegion.USERS, UUID.randomUUID());
+
+        assertThat(registry.get("cache.invalidation.publish.failures").counter().count()).isEqualTo(1);
+    }
+}
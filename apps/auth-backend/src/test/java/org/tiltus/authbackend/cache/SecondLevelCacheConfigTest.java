@@ -0,0 +1,87 @@
+package org.tiltus.authbackend.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecondLevelCacheConfigTest {
+
+    private final SecondLevelCacheConfig config = new SecondLevelCacheConfig();
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = config.secondLevelCacheManager(100, 50, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void secondLevelCacheManager_shouldCreateSizedRegionsWithStatistics() {
+        Cache<Object, Object> users = cacheManager.getCache(SecondLevelCacheConfig.USERS_REGION);
+        Cache<Object, Object> profiles = cacheManager.getCache(SecondLevelCacheConfig.PROFILES_REGION);
+
+        @SuppressWarnings("unchecked")
+        CaffeineConfiguration<Object, Object> usersConfig = users.getConfiguration(CaffeineConfiguration.class);
+        @SuppressWarnings("unchecked")
+        CaffeineConfiguration<Object, Object> profilesConfig = profiles.getConfiguration(CaffeineConfiguration.class);
+
+        assertThat(usersConfig.getMaximumSize()).hasValue(100);
+        assertThat(profilesConfig.getMaximumSize()).hasValue(50);
+        assertThat(usersConfig.isStatisticsEnabled()).isTrue();
+        assertThat(profilesConfig.isStatisticsEnabled()).isTrue();
+    }
+
+    @Test
+    void secondLevelCacheManager_shouldNotShareCachesWithOtherManagers() {
+        cacheManager.getCache(SecondLevelCacheConfig.USERS_REGION).put("key", "value");
+
+        CacheManager other = config.secondLevelCacheManager(100, 50, 60_000);
+        other.close();
+
+        assertThat(other).isNotSameAs(cacheManager);
+        assertThat(cacheManager.isClosed()).isFalse();
+        assertThat(cacheManager.getCache(SecondLevelCacheConfig.USERS_REGION).get("key")).isEqualTo("value");
+    }
+
+    @Test
+    void secondLevelCacheCustomizer_shouldHandCacheManagerToHibernate() {
+        HibernatePropertiesCustomizer customizer = config.secondLevelCacheCustomizer(cacheManager);
+        Map<String, Object> properties = new HashMap<>();
+
+        customizer.customize(properties);
+
+        assertThat(properties).containsEntry("hibernate.javax.cache.cache_manager", cacheManager);
+    }
+
+    @Test
+    void secondLevelCacheMetrics_shouldExportHitRatioPerRegion() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        config.secondLevelCacheMetrics(cacheManager).bindTo(registry);
+
+        assertThat(registry.find("cache.hit.ratio").tag("cache", SecondLevelCacheConfig.USERS_REGION).gauge())
+                .isNotNull();
+        assertThat(registry.find("cache.hit.ratio").tag("cache", SecondLevelCacheConfig.PROFILES_REGION).gauge())
+                .isNotNull();
+    }
+
+    @Test
+    void hitRatio_shouldBeZero_whenNoLookupsRecorded() {
+        assertThat(SecondLevelCacheConfig.hitRatio(new SimpleMeterRegistry(), SecondLevelCacheConfig.USERS_REGION))
+                .isZero();
+    }
+}
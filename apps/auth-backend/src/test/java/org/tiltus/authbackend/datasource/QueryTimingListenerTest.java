@@ -0,0 +1,44 @@
+package org.tiltus.authbackend.datasource;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.tiltus.authbackend.timing.RequestTimings;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryTimingListenerTest {
+
+    private final QueryTimingListener listener = new QueryTimingListener(200);
+
+    @AfterEach
+    void tearDown() {
+        RequestTimings.clear();
+    }
+
+    @Test
+    void afterQuery_countsEachExecutionForTheCurrentRequest() {
+        RequestTimings timings = RequestTimings.start();
+        List<QueryInfo> queries = List.of(new QueryInfo("select * from users where id = ?"));
+
+        for (int i = 0; i < 3; i++) {
+            ExecutionInfo execution = new ExecutionInfo();
+            listener.beforeQuery(execution, queries);
+            listener.afterQuery(execution, queries);
+        }
+
+        assertThat(timings.statements()).isEqualTo(3);
+    }
+
+    @Test
+    void afterQuery_withoutBeforeQuery_isIgnored() {
+        RequestTimings timings = RequestTimings.start();
+
+        listener.afterQuery(new ExecutionInfo(), List.of(new QueryInfo("select 1")));
+
+        assertThat(timings.statements()).isZero();
+    }
+}
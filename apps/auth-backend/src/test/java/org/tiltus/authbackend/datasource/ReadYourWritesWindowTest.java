@@ -0,0 +1,63 @@
+package org.tiltus.authbackend.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesWindowTest {
+
+    @Test
+    void isPinned_shouldHoldForWindowAfterWrite() {
+        ReadYourWritesWindow window = new ReadYourWritesWindow(1_000);
+
+        window.recordWrite("user-1", 10_000);
+
+        assertThat(window.isPinned("user-1", 10_999)).isTrue();
+        assertThat(window.isPinned("user-1", 11_000)).isFalse();
+        assertThat(window.isPinned("user-2", 10_500)).isFalse();
+    }
+
+    @Test
+    void recordWrite_shouldBeIgnored_whenWindowDisabled() {
+        ReadYourWritesWindow window = new ReadYourWritesWindow(0);
+
+        window.recordWrite("user-1", 10_000);
+
+        assertThat(window.isPinned("user-1", 10_000)).isFalse();
+        assertThat(window.size()).isZero();
+    }
+
+    @Test
+    void recordWrite_shouldBeIgnored_whenReplicaDisabled() {
+        ReadYourWritesWindow window = new ReadYourWritesWindow(false, 2_000);
+
+        for (int i = 0; i < 1_000; i++) {
+            window.recordWrite("user-" + i, 10_000);
+        }
+
+        assertThat(window.size()).isZero();
+        assertThat(window.isPinned("user-1", 10_000)).isFalse();
+        assertThat(window.covers(10_000, 10_000)).isFalse();
+    }
+
+    @Test
+    void recordWrite_shouldPin_whenReplicaEnabled() {
+        ReadYourWritesWindow window = new ReadYourWritesWindow(true, 2_000);
+
+        window.recordWrite("user-1", 10_000);
+
+        assertThat(window.isPinned("user-1", 11_999)).isTrue();
+    }
+
+    @Test
+    void evictExpired_shouldDropOnlyElapsedEntries() {
+        ReadYourWritesWindow window = new ReadYourWritesWindow(1_000);
+        window.recordWrite("user-1", 10_000);
+        window.recordWrite("user-2", 10_800);
+
+        window.evictExpired(11_500);
+
+        assertThat(window.size()).isEqualTo(1);
+        assertThat(window.isPinned("user-2", 11_500)).isTrue();
+    }
+}
@@ -0,0 +1,124 @@
+package org.tiltus.authbackend.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+// The two mocked pools stand in for a primary and a streaming replica.
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private Connection primaryConnection;
+    private Connection replicaConnection;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, new ReadYourWritesWindow(60_000)));
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource = proxy;
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUseReplica() throws SQLException {
+        readOnly.executeWithoutResult(status -> touchConnection());
+
+        verify(replica).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void readWriteTransaction_shouldUsePrimary() throws SQLException {
+        readWrite.executeWithoutResult(status -> touchConnection());
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void readOnlyTransaction_shouldStayOnPrimary_withinReadYourWritesWindow() throws SQLException {
+        authenticateAs("user-1");
+
+        readWrite.executeWithoutResult(status -> touchConnection());
+        readOnly.executeWithoutResult(status -> touchConnection());
+
+        verify(primary, times(2)).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUseReplica_forOtherUsersAfterWrite() throws SQLException {
+        authenticateAs("user-1");
+        readWrite.executeWithoutResult(status -> touchConnection());
+
+        authenticateAs("user-2");
+        readOnly.executeWithoutResult(status -> touchConnection());
+
+        verify(primary).getConnection();
+        verify(replica).getConnection();
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUsePrimary_whenRequested() throws SQLException {
+        ReplicaRoutingDataSource.requestPrimary();
+        try {
+            readOnly.executeWithoutResult(status -> touchConnection());
+        } finally {
+            ReplicaRoutingDataSource.clearPrimaryRequest();
+        }
+        readOnly.executeWithoutResult(status -> touchConnection());
+
+        verify(primary).getConnection();
+        verify(replica).getConnection();
+    }
+
+    private void touchConnection() {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            // Any real call makes the lazy proxy fetch its target.
+            connection.createStatement();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void authenticateAs(String userId) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userId, null, List.of()));
+    }
+}
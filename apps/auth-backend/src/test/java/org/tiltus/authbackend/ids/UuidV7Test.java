@@ -0,0 +1,52 @@
+package org.tiltus.authbackend.ids;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7Test {
+
+    @Test
+    void next_shouldSetVersionAndVariant() {
+        UUID uuid = UuidV7.next();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void next_shouldEmbedCurrentTime() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7.next();
+        long after = System.currentTimeMillis();
+
+        // A counter overflow may borrow a few milliseconds ahead.
+        assertThat(UuidV7.timestampMillis(uuid)).isBetween(before, after + 10);
+    }
+
+    @Test
+    void next_shouldBeStrictlyIncreasingWithinOneNode() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(UuidV7.next());
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            // UUID.compareTo compares signed longs; the unsigned string form matches Postgres ordering.
+            assertThat(ids.get(i).toString()).isGreaterThan(ids.get(i - 1).toString());
+        }
+    }
+
+    @Test
+    void of_shouldPlaceMillisAndCounterInMostSignificantBits() {
+        long timestamp = (0x0123456789ABL << 12) | 0x00FL;
+
+        UUID uuid = UuidV7.of(timestamp, -1L);
+
+        assertThat(uuid.toString()).startsWith("01234567-89ab-700f-bfff");
+    }
+}
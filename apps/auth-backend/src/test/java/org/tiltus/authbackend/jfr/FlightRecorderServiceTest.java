@@ -0,0 +1,81 @@
+package org.tiltus.authbackend.jfr;
+
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightRecorderServiceTest {
+
+    private FlightRecorderService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new FlightRecorderService();
+        ReflectionTestUtils.setField(service, "maxAgeMinutes", 5L);
+        ReflectionTestUtils.setField(service, "maxSizeMb", 50L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    void dump_isEmptyBeforeStart() {
+        assertThat(service.state()).isEqualTo(RecordingState.NEW);
+        assertThat(service.dump()).isNull();
+    }
+
+    @Test
+    void dump_containsCustomEventsWhileRunning() throws Exception {
+        assertThat(service.start()).isEqualTo(RecordingState.RUNNING);
+
+        RepositoryCallEvent event = new RepositoryCallEvent("CaroUserRepository", "findById");
+        event.begin();
+        event.commit();
+
+        Path file = service.dump();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        assertThat(events)
+                .filteredOn(e -> e.getEventType().getName().equals("org.tiltus.authbackend.RepositoryCall"))
+                .anySatisfy(e -> {
+                    assertThat(e.getString("repository")).isEqualTo("CaroUserRepository");
+                    assertThat(e.getString("method")).isEqualTo("findById");
+                    assertThat(e.getBoolean("failed")).isFalse();
+                });
+        // Environment variables and -D flags can carry credentials and stay out of the file.
+        assertThat(events).noneMatch(e -> e.getEventType().getName().equals("jdk.InitialEnvironmentVariable"));
+    }
+
+    @Test
+    void dump_replacesThePreviousFile() {
+        service.start();
+
+        Path first = service.dump();
+        Path second = service.dump();
+
+        assertThat(first).doesNotExist();
+        assertThat(second).exists();
+    }
+
+    @Test
+    void start_isIdempotentWhileRunning_andStopKeepsTheRecordingForDownload() throws Exception {
+        service.start();
+        assertThat(service.start()).isEqualTo(RecordingState.RUNNING);
+
+        assertThat(service.stop()).isEqualTo(RecordingState.STOPPED);
+        Path file = service.dump();
+        assertThat(Files.size(file)).isPositive();
+    }
+}
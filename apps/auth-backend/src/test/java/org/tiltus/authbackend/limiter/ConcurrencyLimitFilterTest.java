@@ -0,0 +1,132 @@
+package org.tiltus.authbackend.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private ConcurrencyLimitFilter filter;
+    private ConcurrencyLimiter apiLimiter;
+    private ConcurrencyLimiter authLimiter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        // Ten slots per pool, and min = max so the limit cannot move during a test.
+        filter = new ConcurrencyLimitFilter(new ObjectMapper().registerModule(new JavaTimeModule()), registry,
+                true, 30, 10, 10, 10, 10, 10, 10);
+        apiLimiter = filter.limiterFor(RequestPriority.READ);
+        authLimiter = filter.limiterFor(RequestPriority.LOGIN);
+    }
+
+    @Test
+    void doFilter_shedsWith503OnceThePoolIsFull() throws Exception {
+        occupy(apiLimiter, 10);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean reached = new AtomicBoolean();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/friends"), response, (req, res) -> reached.set(true));
+
+        assertThat(reached).isFalse();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(response.getContentAsString()).contains("\"code\":\"overloaded\"");
+        assertThat(rejected("read")).isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_shedsLowerTiersFirst() throws Exception {
+        // 8 of 10 in flight: above the write (0.8) and search (0.6) shares, below read (0.9) and refresh (1.0).
+        occupy(apiLimiter, 8);
+
+        assertThat(status("POST", "/api/auth/refresh")).isEqualTo(200);
+        assertThat(status("GET", "/api/friends")).isEqualTo(200);
+        assertThat(status("POST", "/api/friends/requests")).isEqualTo(503);
+        assertThat(status("GET", "/api/user/search")).isEqualTo(503);
+
+        assertThat(rejected("write")).isEqualTo(1);
+        assertThat(rejected("search")).isEqualTo(1);
+        assertThat(registry.get("http.concurrency.admitted").tag("priority", "refresh").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void doFilter_refreshKeepsTheLastSlot() throws Exception {
+        occupy(apiLimiter, 9);
+
+        assertThat(status("GET", "/api/friends")).isEqualTo(503);
+        assertThat(status("POST", "/api/auth/refresh")).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_shedsLoginWhileTheApiPoolIsUnderPressure() throws Exception {
+        occupy(apiLimiter, 5);
+
+        assertThat(status("POST", "/api/auth/login")).isEqualTo(503);
+        assertThat(status("POST", "/api/auth/register")).isEqualTo(503);
+        assertThat(authLimiter.inFlight()).isZero();
+        assertThat(rejected("login")).isEqualTo(2);
+    }
+
+    @Test
+    void doFilter_keepsAuthAndApiPoolsApart() throws Exception {
+        occupy(authLimiter, 10);
+
+        assertThat(status("POST", "/api/auth/login")).isEqualTo(503);
+        assertThat(status("GET", "/api/friends")).isEqualTo(200);
+        assertThat(status("POST", "/api/auth/refresh")).isEqualTo(200);
+    }
+
+    @Test
+    void doFilter_releasesTheSlotAfterTheRequest() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/friends"), new MockHttpServletResponse(), (req, res) -> { });
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/friends"), new MockHttpServletResponse(), (req, res) -> { });
+
+        assertThat(apiLimiter.inFlight()).isZero();
+        assertThat(rejected("read")).isZero();
+    }
+
+    @Test
+    void doFilter_releasesTheSlotWhenTheChainFails() {
+        try {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/friends"), new MockHttpServletResponse(),
+                    (req, res) -> { throw new IllegalStateException("boom"); });
+        } catch (Exception ignored) { }
+
+        assertThat(apiLimiter.inFlight()).isZero();
+    }
+
+    @Test
+    void doFilter_leavesActuatorAndStreamsUnlimited() throws Exception {
+        occupy(apiLimiter, 10);
+
+        for (String path : new String[]{"/actuator/health", "/ws", "/api/friends/events"}) {
+            assertThat(status("GET", path)).as(path).isEqualTo(200);
+        }
+    }
+
+    private int status(String method, String path) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, path), response, (req, res) -> { });
+        return response.getStatus();
+    }
+
+    private static void occupy(ConcurrencyLimiter limiter, int slots) {
+        for (int i = 0; i < slots; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+    }
+
+    private double rejected(String priority) {
+        return registry.get("http.concurrency.rejected").tag("priority", priority).counter().count();
+    }
+}
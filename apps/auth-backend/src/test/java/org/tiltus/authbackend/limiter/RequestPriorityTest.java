@@ -0,0 +1,28 @@
+package org.tiltus.authbackend.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestPriorityTest {
+
+    @Test
+    void classify_ordersRefreshAboveReadsWritesSearchAndLogin() {
+        assertThat(RequestPriority.classify("POST", "/api/auth/refresh")).isEqualTo(RequestPriority.REFRESH);
+        assertThat(RequestPriority.classify("GET", "/api/friends")).isEqualTo(RequestPriority.READ);
+        assertThat(RequestPriority.classify("GET", "/api/bootstrap")).isEqualTo(RequestPriority.READ);
+        assertThat(RequestPriority.classify("PUT", "/api/user/me")).isEqualTo(RequestPriority.WRITE);
+        assertThat(RequestPriority.classify("DELETE", "/api/friends/requests/1")).isEqualTo(RequestPriority.WRITE);
+        assertThat(RequestPriority.classify("GET", "/api/user/search")).isEqualTo(RequestPriority.SEARCH);
+        assertThat(RequestPriority.classify("POST", "/api/auth/login")).isEqualTo(RequestPriority.LOGIN);
+        assertThat(RequestPriority.classify("POST", "/api/auth/register")).isEqualTo(RequestPriority.LOGIN);
+    }
+
+    @Test
+    void share_shrinksWithPriority() {
+        RequestPriority[] tiers = RequestPriority.values();
+        for (int i = 1; i < tiers.length; i++) {
+            assertThat(tiers[i].share()).as(tiers[i].name()).isLessThan(tiers[i - 1].share());
+        }
+    }
+}
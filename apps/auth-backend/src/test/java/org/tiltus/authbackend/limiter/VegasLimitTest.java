@@ -0,0 +1,103 @@
+package org.tiltus.authbackend.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VegasLimitTest {
+
+    private static final String ENDPOINT = "GET /api/friends";
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    void onSample_growsWhileLatencyStaysAtTheFloor() {
+        VegasLimit limit = new VegasLimit(20, 5, 200, 1000);
+        limit.onSample(ENDPOINT, RTT, 20, false);
+
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(ENDPOINT, RTT, limit.limit(), false);
+        }
+
+        assertThat(limit.limit()).isGreaterThan(20);
+    }
+
+    @Test
+    void onSample_shrinksOnceRequestsQueue() {
+        VegasLimit limit = new VegasLimit(100, 5, 200, 1000);
+        limit.onSample(ENDPOINT, RTT, 100, false);
+
+        // Latency doubled at full concurrency: about half of the in-flight requests are waiting.
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(ENDPOINT, 2 * RTT, limit.limit(), false);
+        }
+
+        assertThat(limit.limit()).isLessThan(100);
+    }
+
+    @Test
+    void onSample_ignoresLightTraffic() {
+        VegasLimit limit = new VegasLimit(100, 5, 200, 1000);
+        limit.onSample(ENDPOINT, RTT, 10, false);
+
+        limit.onSample(ENDPOINT, RTT, 10, false);
+
+        assertThat(limit.limit()).isEqualTo(100);
+    }
+
+    @Test
+    void onSample_shrinksOnDropsAndStaysWithinBounds() {
+        VegasLimit limit = new VegasLimit(10, 5, 200, 1000);
+        limit.onSample(ENDPOINT, RTT, 10, false);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(ENDPOINT, RTT, 10, true);
+        }
+
+        assertThat(limit.limit()).isEqualTo(5);
+    }
+
+    @Test
+    void onSample_forgetsTheLatencyFloorAfterTheProbeInterval() {
+        VegasLimit limit = new VegasLimit(10, 10, 10, 2);
+        limit.onSample(ENDPOINT, RTT, 10, false);
+
+        for (int i = 0; i < 19; i++) {
+            limit.onSample(ENDPOINT, 3 * RTT, 10, false);
+        }
+
+        assertThat(limit.noLoadRttNanos(ENDPOINT)).isEqualTo(3 * RTT);
+    }
+
+    @Test
+    void onSample_keepsTheLimit_forMixedLatencyEndpointsWithoutQueueing() {
+        VegasLimit limit = new VegasLimit(100, 10, 200, 1000);
+        limit.onSample("GET /api/presence/friends", FAST, 100, false);
+        limit.onSample("POST /api/friends/requests", SLOW, 100, false);
+
+        // A 1 ms read and a 20 ms write in the same pool, each at its usual latency.
+        for (int i = 0; i < 20; i++) {
+            limit.onSample("GET /api/presence/friends", FAST, limit.limit(), false);
+            limit.onSample("POST /api/friends/requests", SLOW, limit.limit(), false);
+        }
+
+        assertThat(limit.limit()).isGreaterThanOrEqualTo(100);
+    }
+
+    @Test
+    void onSample_shrinks_whenMixedLatencyEndpointsSlowDownTogether() {
+        VegasLimit limit = new VegasLimit(100, 10, 200, 1000);
+        limit.onSample("GET /api/presence/friends", FAST, 100, false);
+        limit.onSample("POST /api/friends/requests", SLOW, 100, false);
+
+        for (int i = 0; i < 10; i++) {
+            limit.onSample("GET /api/presence/friends", 2 * FAST, limit.limit(), false);
+            limit.onSample("POST /api/friends/requests", 2 * SLOW, limit.limit(), false);
+        }
+
+        assertThat(limit.limit()).isLessThan(100);
+    }
+}
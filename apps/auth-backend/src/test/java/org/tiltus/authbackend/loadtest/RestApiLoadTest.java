@@ -0,0 +1,296 @@
+package org.tiltus.authbackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.tiltus.authbackend.seed.SyntheticDataset;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Replays a fixed mix of REST calls against a locally running node at a constant arrival rate.
+// Start Postgres from infra/docker-compose.dev.yml, load it once with the seed profile
+// (./gradlew bootRun --args='--spring.profiles.active=seed'), start the backend, then for example:
+//   ./gradlew test --tests '*RestApiLoadTest' -Dloadtest.url=http://localhost:8080 \
+//       -Dloadtest.rate=200 -Dloadtest.duration-seconds=120
+// Arrivals follow the schedule, not the previous response, and latency is measured from the
+// scheduled start, so a stalled server shows up in the tail instead of slowing the client down.
+// Percentile distributions are also written to build/loadtest/<operation>.hgrm for comparing runs.
+@EnabledIfSystemProperty(named = "loadtest.url", matches = ".+")
+class RestApiLoadTest {
+
+    private static final String BASE_URL = System.getProperty("loadtest.url");
+    private static final int RATE = Integer.getInteger("loadtest.rate", 200);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration-seconds", 120);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup-seconds", 20);
+    private static final int ACCOUNTS = Integer.getInteger("loadtest.accounts", 1000);
+    private static final long RANDOM_SEED = Long.getLong("loadtest.random-seed", 1);
+    // Must match seed.random-seed and seed.password of the dataset the backend runs on.
+    private static final long DATASET_SEED = Long.getLong("loadtest.dataset-seed", 42);
+    private static final String PASSWORD = System.getProperty("loadtest.password", "seed-password");
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    // Relative weights of the mix; reads dominate like in the clients.
+    private enum Operation {
+        LOGIN(5),
+        REFRESH(10),
+        FRIENDS(40),
+        SEARCH(25),
+        SEND_REQUEST(10),
+        ACCEPT_REQUEST(10);
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private record Session(UUID userId, String accessToken, String refreshToken) { }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> rejected = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> shed = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> failed = new LinkedHashMap<>();
+
+    private HttpClient client;
+    private Session[] sessions;
+    // Calls scheduled before this point are warmup and stay out of the histograms.
+    private volatile long warmupEnds = Long.MAX_VALUE;
+
+    @Test
+    void replaysMixedWorkload() throws Exception {
+        for (String name : List.of("login", "refresh", "friends", "search", "send", "incoming", "accept")) {
+            histograms.put(name, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            rejected.put(name, new AtomicLong());
+            shed.put(name, new AtomicLong());
+            failed.put(name, new AtomicLong());
+        }
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            client = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(workers)
+                    .build();
+
+            sessions = new Session[ACCOUNTS];
+            List<Future<Session>> logins = new ArrayList<>(ACCOUNTS);
+            for (int i = 0; i < ACCOUNTS; i++) {
+                int index = i;
+                // The auth pool of the concurrency limiter sheds most of a 1000-login burst; retry those.
+                logins.add(workers.submit(() -> {
+                    for (int attempt = 0; attempt < 60; attempt++) {
+                        Session session = login(index, System.nanoTime());
+                        if (session != null) {
+                            return session;
+                        }
+                        TimeUnit.SECONDS.sleep(1);
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < ACCOUNTS; i++) {
+                sessions[i] = logins.get(i).get(5, TimeUnit.MINUTES);
+                if (sessions[i] == null) {
+                    throw new IllegalStateException("Login failed for "
+                            + SyntheticDataset.username(DATASET_SEED, i) + "; is the seeded dataset loaded?");
+                }
+            }
+
+            int totalWeight = 0;
+            for (Operation operation : Operation.values()) {
+                totalWeight += operation.weight;
+            }
+            SplittableRandom random = new SplittableRandom(RANDOM_SEED);
+            long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RATE;
+            long started = System.nanoTime();
+            warmupEnds = started + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+            long ends = warmupEnds + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+
+            for (long scheduled = started; scheduled < ends; scheduled += intervalNanos) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+
+                Operation operation = pick(random.nextInt(totalWeight));
+                int account = random.nextInt(ACCOUNTS);
+                int other = random.nextInt(ACCOUNTS);
+                long intendedStart = scheduled;
+                workers.submit(() -> run(operation, account, other, intendedStart));
+            }
+        }
+
+        report();
+        for (Map.Entry<String, AtomicLong> entry : failed.entrySet()) {
+            assertThat(entry.getValue().get()).as(entry.getKey() + " failures").isZero();
+        }
+    }
+
+    private Operation pick(int roll) {
+        for (Operation operation : Operation.values()) {
+            roll -= operation.weight;
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Weight roll out of range.");
+    }
+
+    private void run(Operation operation, int account, int other, long intendedStart) {
+        Session session = sessions[account];
+        switch (operation) {
+            case LOGIN -> {
+                Session fresh = login(account, intendedStart);
+                if (fresh != null) {
+                    sessions[account] = fresh;
+                }
+            }
+            case REFRESH -> {
+                HttpResponse<String> response = call("refresh", intendedStart, post("/api/auth/refresh",
+                        "{\"refreshToken\":\"" + session.refreshToken() + "\"}", null));
+                if (response != null && response.statusCode() == 200) {
+                    sessions[account] = session(response.body());
+                }
+            }
+            case FRIENDS -> call("friends", intendedStart, get("/api/friends", session));
+            case SEARCH -> call("search", intendedStart,
+                    get("/api/user/search?q=" + SyntheticDataset.username(DATASET_SEED, other), session));
+            case SEND_REQUEST -> call("send", intendedStart, post("/api/friends/requests",
+                    "{\"targetUserId\":\"" + sessions[other].userId() + "\"}", session));
+            case ACCEPT_REQUEST -> {
+                HttpResponse<String> incoming = call("incoming", intendedStart,
+                        get("/api/friends/requests/incoming", session));
+                JsonNode requests = incoming == null || incoming.statusCode() != 200 ? null : read(incoming.body());
+                if (requests != null && !requests.isEmpty()) {
+                    String friendshipId = requests.get(0).get("friendshipId").asText();
+                    call("accept", System.nanoTime(),
+                            post("/api/friends/requests/" + friendshipId + "/accept", "", session));
+                }
+            }
+        }
+    }
+
+    private Session login(int index, long intendedStart) {
+        String username = SyntheticDataset.username(DATASET_SEED, index);
+        HttpResponse<String> response = call("login", intendedStart, post("/api/auth/login",
+                "{\"emailOrUsername\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}", null));
+        return response == null || response.statusCode() != 200 ? null : session(response.body());
+    }
+
+    private Session session(String body) {
+        JsonNode tokens = read(body);
+        String accessToken = tokens.get("accessToken").asText();
+        // The subject of the access token is the user id, which the send requests target.
+        String payload = new String(Base64.getUrlDecoder().decode(accessToken.split("\\.")[1]), StandardCharsets.UTF_8);
+        UUID userId = UUID.fromString(read(payload).get("sub").asText());
+        return new Session(userId, accessToken, tokens.get("refreshToken").asText());
+    }
+
+    private HttpRequest get(String path, Session session) {
+        return HttpRequest.newBuilder(URI.create(BASE_URL + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + session.accessToken())
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String body, Session session) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(BASE_URL + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (session != null) {
+            builder.header("Authorization", "Bearer " + session.accessToken());
+        }
+        return builder.build();
+    }
+
+    // 4xx answers (already friends, rotated refresh token) are part of the mix and 503 is load shedding;
+    // other 5xx and I/O errors fail the run.
+    private HttpResponse<String> call(String name, long intendedStart, HttpRequest request) {
+        HttpResponse<String> response = null;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            // Counted below.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (intendedStart >= warmupEnds) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+            histograms.get(name).recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+            if (response != null && response.statusCode() == 503) {
+                shed.get(name).incrementAndGet();
+            } else if (response == null || response.statusCode() >= 500) {
+                failed.get(name).incrementAndGet();
+            } else if (response.statusCode() >= 400) {
+                rejected.get(name).incrementAndGet();
+            }
+        }
+        return response;
+    }
+
+    private JsonNode read(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable response body: " + json, e);
+        }
+    }
+
+    private void report() throws IOException {
+        Path directory = Path.of("build", "loadtest");
+        Files.createDirectories(directory);
+
+        System.out.printf("rest load test: %d req/s for %d s after %d s warmup, %d accounts%n",
+                RATE, DURATION_SECONDS, WARMUP_SECONDS, ACCOUNTS);
+        System.out.printf("%-10s %9s %9s %9s %9s %10s %10s %10s %10s%n",
+                "operation", "count", "rejected", "shed", "failed", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            System.out.printf("%-10s %9d %9d %9d %9d %10.2f %10.2f %10.2f %10.2f%n",
+                    entry.getKey(),
+                    histogram.getTotalCount(),
+                    rejected.get(entry.getKey()).get(),
+                    shed.get(entry.getKey()).get(),
+                    failed.get(entry.getKey()).get(),
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0);
+
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(directory.resolve(entry.getKey() + ".hgrm")), true, StandardCharsets.UTF_8)) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.tiltus.authbackend.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AuthMetrics metrics = new AuthMetrics(registry);
+
+    @Test
+    void recordRequest_tagsOperationAndOutcome() {
+        metrics.recordRequest(Timer.start(), "login", "success");
+        metrics.recordRequest(Timer.start(), "login", "success");
+        metrics.recordRequest(Timer.start(), "login", "unauthorized");
+
+        assertThat(registry.get("auth.requests").tag("operation", "login").tag("outcome", "success").timer().count())
+                .isEqualTo(2);
+        assertThat(registry.get("auth.requests").tag("outcome", "unauthorized").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void recordTokenParse_keepsFailuresApartFromValidTokens() {
+        metrics.recordTokenParse(Timer.start(), "valid");
+        metrics.recordTokenParse(Timer.start(), "expired");
+
+        assertThat(registry.get("auth.jwt.parse").tag("outcome", "valid").timer().count()).isEqualTo(1);
+        assertThat(registry.get("auth.jwt.parse").tag("outcome", "expired").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordPasswordHash_publishesHistogramBuckets() {
+        metrics.recordPasswordHash(Timer.start(), "matches");
+
+        Timer timer = registry.get("auth.password.hash").tag("operation", "matches").timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.takeSnapshot().histogramCounts()).isNotEmpty();
+    }
+}
@@ -0,0 +1,31 @@
+package org.tiltus.authbackend.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.tiltus.authbackend.enums.FriendshipEventType;
+import org.tiltus.authbackend.events.FriendshipEvent;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FriendshipMetricsTest {
+
+    @Test
+    void onFriendshipEvent_countsTransitionsByType() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        FriendshipMetrics metrics = new FriendshipMetrics(registry);
+
+        metrics.onFriendshipEvent(FriendshipEvent.of(FriendshipEventType.REQUEST_RECEIVED, UUID.randomUUID(), UUID.randomUUID()));
+        metrics.onFriendshipEvent(FriendshipEvent.of(FriendshipEventType.REQUEST_ACCEPTED, UUID.randomUUID(), UUID.randomUUID()));
+        metrics.onFriendshipEvent(FriendshipEvent.of(FriendshipEventType.REQUEST_ACCEPTED, UUID.randomUUID(), UUID.randomUUID()));
+
+        assertThat(registry.get("friends.request.transitions").tag("type", "request_received").counter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("friends.request.transitions").tag("type", "request_accepted").counter().count())
+                .isEqualTo(2);
+        // Every type is registered up front, so an alert on a missing series never fires by accident.
+        assertThat(registry.get("friends.request.transitions").tag("type", "unfriended").counter().count())
+                .isZero();
+    }
+}
@@ -0,0 +1,68 @@
+package org.tiltus.authbackend.presence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExpiryWheelTest {
+
+    private final List<Long> fired = new ArrayList<>();
+
+    @Test
+    void advance_firesEntriesOnceTheirTickHasPassed() {
+        ExpiryWheel wheel = new ExpiryWheel(8, 100, 0);
+        wheel.schedule(1, 0, 250);
+        wheel.schedule(2, 0, 520);
+
+        wheel.advance(199, (msb, lsb) -> fired.add(msb));
+        assertThat(fired).isEmpty();
+
+        wheel.advance(299, (msb, lsb) -> fired.add(msb));
+        assertThat(fired).containsExactly(1L);
+
+        wheel.advance(599, (msb, lsb) -> fired.add(msb));
+        assertThat(fired).containsExactly(1L, 2L);
+        assertThat(wheel.scheduledCount()).isZero();
+    }
+
+    @Test
+    void schedule_putsOverdueEntriesIntoNextTick() {
+        ExpiryWheel wheel = new ExpiryWheel(8, 100, 1_000);
+        wheel.advance(1_000, (msb, lsb) -> { });
+
+        wheel.schedule(1, 0, 200);
+        wheel.advance(1_100, (msb, lsb) -> fired.add(msb));
+
+        assertThat(fired).containsExactly(1L);
+    }
+
+    @Test
+    void schedule_wrapsDeadlinesBeyondOneRound() {
+        ExpiryWheel wheel = new ExpiryWheel(4, 100, 0);
+        wheel.schedule(1, 0, 1_000);
+
+        // Tick 10 shares a bucket with tick 2, so the entry shows up early and must be rescheduled.
+        wheel.advance(299, (msb, lsb) -> fired.add(msb));
+
+        assertThat(fired).containsExactly(1L);
+    }
+
+    @Test
+    void advance_firesEachBucketOnceAfterLongPause() {
+        ExpiryWheel wheel = new ExpiryWheel(4, 100, 0);
+        for (int i = 0; i < 4; i++) {
+            wheel.schedule(i, 0, i * 100L);
+        }
+
+        wheel.advance(10_000, (msb, lsb) -> fired.add(msb));
+        assertThat(fired).containsExactlyInAnyOrder(0L, 1L, 2L, 3L);
+
+        fired.clear();
+        wheel.schedule(9, 0, 10_050);
+        wheel.advance(10_100, (msb, lsb) -> fired.add(msb));
+        assertThat(fired).containsExactly(9L);
+    }
+}
@@ -0,0 +1,135 @@
+package org.tiltus.authbackend.presence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.tiltus.authbackend.events.PresenceChangedEvent;
+import org.tiltus.authbackend.repositories.CaroFriendshipRepository;
+import org.tiltus.authbackend.rest.response.FriendPresenceResponse;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PresenceServiceTest {
+
+    private static final long TTL = 60_000;
+
+    @Mock
+    private CaroFriendshipRepository friendshipRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    private PresenceService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PresenceService(friendshipRepository, eventPublisher, TTL, 1_000, 128, 4, 16, clock::get);
+    }
+
+    @Test
+    void heartbeat_publishesOnlineOnlyOnTransition() {
+        UUID userId = UUID.randomUUID();
+
+        service.heartbeat(userId);
+        clock.addAndGet(10_000);
+        service.heartbeat(userId);
+
+        PresenceChangedEvent event = capturePresenceEvent();
+        assertThat(event.userId()).isEqualTo(userId);
+        assertThat(event.online()).isTrue();
+        assertThat(service.isOnline(userId)).isTrue();
+    }
+
+    @Test
+    void expireStale_publishesOffline_whenHeartbeatsStop() {
+        UUID userId = UUID.randomUUID();
+        service.heartbeat(userId);
+        clearInvocations(eventPublisher);
+
+        clock.addAndGet(TTL - 1_000);
+        service.expireStale();
+        verifyNoInteractions(eventPublisher);
+
+        clock.addAndGet(2_000);
+        service.expireStale();
+
+        PresenceChangedEvent event = capturePresenceEvent();
+        assertThat(event.userId()).isEqualTo(userId);
+        assertThat(event.online()).isFalse();
+        assertThat(service.trackedUsers()).isZero();
+    }
+
+    @Test
+    void expireStale_keepsUsersWhoKeepHeartbeating() {
+        UUID userId = UUID.randomUUID();
+        service.heartbeat(userId);
+
+        for (int i = 0; i < 10; i++) {
+            clock.addAndGet(30_000);
+            service.heartbeat(userId);
+            service.expireStale();
+        }
+
+        assertThat(service.isOnline(userId)).isTrue();
+        verify(eventPublisher, times(1)).publishEvent(any(PresenceChangedEvent.class));
+    }
+
+    @Test
+    void disconnect_publishesOfflineOnce() {
+        UUID userId = UUID.randomUUID();
+        service.heartbeat(userId);
+        clearInvocations(eventPublisher);
+
+        service.disconnect(userId);
+        service.disconnect(userId);
+        clock.addAndGet(TTL + 1_000);
+        service.expireStale();
+
+        PresenceChangedEvent event = capturePresenceEvent();
+        assertThat(event.online()).isFalse();
+        assertThat(service.isOnline(userId)).isFalse();
+        assertThat(service.trackedUsers()).isZero();
+    }
+
+    @Test
+    void getFriendsPresence_returnsOnlineFlagAndLastSeen() {
+        UUID userId = UUID.randomUUID();
+        UUID onlineFriend = UUID.randomUUID();
+        UUID disconnectedFriend = UUID.randomUUID();
+        UUID unknownFriend = UUID.randomUUID();
+        when(friendshipRepository.findFriendIds(userId)).thenReturn(List.of(onlineFriend, disconnectedFriend, unknownFriend));
+
+        service.heartbeat(onlineFriend);
+        service.heartbeat(disconnectedFriend);
+        service.disconnect(disconnectedFriend);
+
+        List<FriendPresenceResponse> result = service.getFriendsPresence(userId);
+
+        Instant lastSeen = Instant.ofEpochMilli(clock.get());
+        assertThat(result).containsExactly(
+                new FriendPresenceResponse(onlineFriend, true, lastSeen),
+                new FriendPresenceResponse(disconnectedFriend, false, lastSeen),
+                new FriendPresenceResponse(unknownFriend, false, null)
+        );
+    }
+
+    private PresenceChangedEvent capturePresenceEvent() {
+        ArgumentCaptor<PresenceChangedEvent> captor = ArgumentCaptor.forClass(PresenceChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,98 @@
+package org.tiltus.authbackend.presence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PresenceTableTest {
+
+    private final PresenceTable table = new PresenceTable(4, 4);
+
+    @Test
+    void touch_reportsInsertRefreshAndReturn() {
+        assertThat(table.touch(1, 2, 100, 200)).isEqualTo(PresenceTable.Touch.INSERTED);
+        assertThat(table.touch(1, 2, 150, 250)).isEqualTo(PresenceTable.Touch.REFRESHED);
+        assertThat(table.touch(1, 2, 300, 400)).isEqualTo(PresenceTable.Touch.CAME_ONLINE);
+        assertThat(table.size()).isEqualTo(1);
+    }
+
+    @Test
+    void read_returnsLastSeenAndDeadline() {
+        table.touch(1, 2, 100, 200);
+        long[] out = new long[4];
+
+        table.read(1, 2, out, 0);
+        table.read(3, 4, out, 2);
+
+        assertThat(out).containsExactly(100, 200, 0, 0);
+    }
+
+    @Test
+    void markOffline_onlyReportsOnlineUsers() {
+        table.touch(1, 2, 100, 200);
+
+        assertThat(table.markOffline(1, 2, 150)).isTrue();
+        assertThat(table.markOffline(1, 2, 160)).isFalse();
+        assertThat(table.markOffline(5, 6, 160)).isFalse();
+        assertThat(table.touch(1, 2, 170, 270)).isEqualTo(PresenceTable.Touch.CAME_ONLINE);
+    }
+
+    @Test
+    void expire_distinguishesTimeoutFromDisconnect() {
+        table.touch(1, 1, 100, 200);
+        table.touch(2, 2, 100, 200);
+        table.markOffline(2, 2, 120);
+
+        assertThat(table.expire(1, 1, 150)).isEqualTo(200);
+        assertThat(table.expire(1, 1, 200)).isEqualTo(PresenceTable.EXPIRED);
+        assertThat(table.expire(2, 2, 200)).isEqualTo(PresenceTable.GONE);
+        assertThat(table.expire(1, 1, 300)).isEqualTo(PresenceTable.GONE);
+        assertThat(table.size()).isZero();
+    }
+
+    @Test
+    void removal_keepsCollidingEntriesReachable() {
+        int users = 20_000;
+        long[] msbs = new long[users];
+        long[] lsbs = new long[users];
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < users; i++) {
+            msbs[i] = random.nextLong();
+            lsbs[i] = random.nextLong();
+            table.touch(msbs[i], lsbs[i], 1 + i, 1_000_000);
+        }
+
+        for (int i = 0; i < users; i += 2) {
+            table.markOffline(msbs[i], lsbs[i], 10);
+            assertThat(table.expire(msbs[i], lsbs[i], 2_000_000)).isEqualTo(PresenceTable.GONE);
+        }
+
+        long[] out = new long[2];
+        for (int i = 0; i < users; i++) {
+            table.read(msbs[i], lsbs[i], out, 0);
+            assertThat(out[0]).isEqualTo(i % 2 == 0 ? 0 : 1 + i);
+        }
+        assertThat(table.size()).isEqualTo(users / 2);
+    }
+
+    @Test
+    void tracksOneMillionUsers() {
+        PresenceTable large = new PresenceTable(64, 1024);
+        int users = 1_000_000;
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < users; i++) {
+            large.touch(random.nextLong(), random.nextLong(), 1_000, 61_000);
+        }
+
+        assertThat(large.size()).isEqualTo(users);
+
+        SplittableRandom replay = new SplittableRandom(42);
+        for (int i = 0; i < users; i++) {
+            assertThat(large.touch(replay.nextLong(), replay.nextLong(), 2_000, 62_000))
+                    .isEqualTo(PresenceTable.Touch.REFRESHED);
+        }
+        assertThat(large.size()).isEqualTo(users);
+    }
+}
@@ -97,4 +97,3 @@ class CaroFriendshipRepositoryTest {
         verify(repository).findAcceptedForUser(userId);
     }
 }
-
@@ -0,0 +1,116 @@
+package org.tiltus.authbackend.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tiltus.authbackend.enums.FriendshipStatus;
+import org.tiltus.authbackend.model.CaroFriendship;
+import org.tiltus.authbackend.model.CaroUser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Saves 10k friendships through CaroFriendshipRepository with the configured jdbc.batch_size and again with
+// batching switched off for the session, then rolls back. Runs against the datasource in application.yml:
+//   ./gradlew test --tests '*FriendshipImportBenchmarkTest' -Dbench.friendship-import=true
+@SpringBootTest
+@EnabledIfSystemProperty(named = "bench.friendship-import", matches = "true")
+class FriendshipImportBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("bench.rows", 10_000);
+    private static final int ROUNDS = Integer.getInteger("bench.rounds", 5);
+
+    @Autowired
+    private CaroFriendshipRepository friendshipRepository;
+
+    @Autowired
+    private CaroUserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void batchedSaveAllBeatsRowByRow() {
+        double rowByRow = best(false);
+        double batched = best(true);
+
+        System.out.printf("friendship import benchmark: %d rows, row by row %.0f rows/s, batched %.0f rows/s (%.1fx)%n",
+                ROWS, rowByRow, batched, batched / rowByRow);
+        assertThat(batched).isGreaterThan(rowByRow);
+    }
+
+    private double best(boolean batched) {
+        double best = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            best = Math.max(best, rowsPerSecond(batched));
+        }
+        return best;
+    }
+
+    private double rowsPerSecond(boolean batched) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return transaction.execute(status -> {
+            // A session batch size of 1 turns JDBC batching off; null falls back to jdbc.batch_size.
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batched ? null : 1);
+
+            List<CaroUser> users = userRepository.saveAll(users(usersFor(ROWS)));
+            entityManager.flush();
+            List<CaroFriendship> friendships = friendships(users, ROWS);
+
+            long started = System.nanoTime();
+            friendshipRepository.saveAll(friendships);
+            entityManager.flush();
+            long elapsedNanos = System.nanoTime() - started;
+
+            status.setRollbackOnly();
+            return ROWS / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+        });
+    }
+
+    // Smallest user count whose distinct pairs cover the requested rows.
+    private static int usersFor(int rows) {
+        int users = 2;
+        while ((long) users * (users - 1) / 2 < rows) {
+            users++;
+        }
+        return users;
+    }
+
+    private static List<CaroUser> users(int count) {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<CaroUser> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CaroUser user = new CaroUser("bench" + i, "bench-" + run + "-" + i + "@example.com", "x", "Bench", "User");
+            user.setTagId(run.substring(0, 4));
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static List<CaroFriendship> friendships(List<CaroUser> users, int rows) {
+        List<CaroFriendship> friendships = new ArrayList<>(rows);
+        for (int i = 0; i < users.size() && friendships.size() < rows; i++) {
+            for (int j = i + 1; j < users.size() && friendships.size() < rows; j++) {
+                CaroFriendship friendship = new CaroFriendship();
+                friendship.setRequester(users.get(i));
+                friendship.setAddressee(users.get(j));
+                friendship.setStatus(FriendshipStatus.ACCEPTED);
+                friendships.add(friendship);
+            }
+        }
+        return friendships;
+    }
+}
@@ -0,0 +1,58 @@
+package org.tiltus.authbackend.rest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.tiltus.authbackend.rest.response.BootstrapResponse;
+import org.tiltus.authbackend.rest.response.FriendRequestCountsResponse;
+import org.tiltus.authbackend.services.BootstrapService;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BootstrapRestControllerTest {
+
+    @Mock
+    private BootstrapService bootstrapService;
+
+    @InjectMocks
+    private BootstrapRestController controller;
+
+    // --------- GET /api/bootstrap ---------
+
+    @Test
+    void bootstrap_shouldReturnAggregateFromService_whenUserIdValid() {
+        // arrange
+        UUID currentUserUuid = UUID.randomUUID();
+        BootstrapResponse aggregate = new BootstrapResponse(
+                null, List.of(), List.of(), List.of(), FriendRequestCountsResponse.empty()
+        );
+        when(bootstrapService.bootstrap(currentUserUuid)).thenReturn(aggregate);
+
+        // act
+        ResponseEntity<BootstrapResponse> response = controller.bootstrap(currentUserUuid.toString());
+
+        // assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(aggregate);
+    }
+
+    @Test
+    void bootstrap_shouldThrowIllegalArgumentException_whenUserIdIsNotValidUuid() {
+        // act + assert
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> controller.bootstrap("not-a-uuid")
+        );
+        verifyNoInteractions(bootstrapService);
+    }
+}
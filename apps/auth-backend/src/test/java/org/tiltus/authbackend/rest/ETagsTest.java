@@ -0,0 +1,34 @@
+package org.tiltus.authbackend.rest;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ETagsTest {
+
+    @Test
+    void matches_exactTag() {
+        assertThat(ETags.matches("\"7\"", "\"7\"")).isTrue();
+    }
+
+    @Test
+    void matches_anyTagOfList() {
+        assertThat(ETags.matches("\"1\", \"7\"", "\"7\"")).isTrue();
+    }
+
+    @Test
+    void matches_ignoresWeakPrefix() {
+        assertThat(ETags.matches("W/\"7\"", "\"7\"")).isTrue();
+    }
+
+    @Test
+    void matches_wildcard() {
+        assertThat(ETags.matches("*", "\"7\"")).isTrue();
+    }
+
+    @Test
+    void doesNotMatch_otherTagOrMissingHeader() {
+        assertThat(ETags.matches("\"6\"", "\"7\"")).isFalse();
+        assertThat(ETags.matches(null, "\"7\"")).isFalse();
+    }
+}
@@ -7,16 +7,26 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.tiltus.authbackend.rest.requests.BulkFriendRequest;
 import org.tiltus.authbackend.rest.requests.SendFriendRequest;
+import org.tiltus.authbackend.rest.response.BulkFriendRequestResult;
+import org.tiltus.authbackend.rest.response.FriendRequestCountsResponse;
 import org.tiltus.authbackend.rest.response.FriendRequestResponse;
 import org.tiltus.authbackend.rest.response.FriendResponse;
+import org.tiltus.authbackend.rest.response.FriendSuggestionResponse;
+import org.tiltus.authbackend.rest.response.FriendshipChangesResponse;
 import org.tiltus.authbackend.services.CaroFriendshipService;
+import org.tiltus.authbackend.services.FriendSuggestionService;
+import org.tiltus.authbackend.services.FriendshipEventStream;
+import org.tiltus.authbackend.services.FriendshipSyncService;
 
 import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +35,15 @@ class FriendRestControllerTest {
     @Mock
     private CaroFriendshipService friendshipService;
 
+    @Mock
+    private FriendSuggestionService suggestionService;
+
+    @Mock
+    private FriendshipEventStream eventStream;
+
+    @Mock
+    private FriendshipSyncService syncService;
+
     @InjectMocks
     private FriendRestController controller;
 
@@ -150,6 +169,82 @@ class FriendRestControllerTest {
         );
     }
 
+    // --------- POST /api/friends/requests/bulk/* ---------
+
+    @Test
+    void cancelFriendRequests_shouldReturnResultsFromService_whenUserIdValid() {
+        // arrange
+        UUID currentUserUuid = UUID.randomUUID();
+        String userId = currentUserUuid.toString();
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        List<BulkFriendRequestResult> results = List.of(
+                new BulkFriendRequestResult(ids.get(0), BulkFriendRequestResult.Outcome.APPLIED),
+                new BulkFriendRequestResult(ids.get(1), BulkFriendRequestResult.Outcome.NOT_FOUND)
+        );
+        when(friendshipService.cancelRequests(currentUserUuid, ids)).thenReturn(results);
+
+        // act
+        ResponseEntity<List<BulkFriendRequestResult>> response =
+                controller.cancelFriendRequests(userId, new BulkFriendRequest(ids));
+
+        // assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(results);
+    }
+
+    @Test
+    void acceptFriendRequests_shouldReturnResultsFromService_whenUserIdValid() {
+        // arrange
+        UUID currentUserUuid = UUID.randomUUID();
+        String userId = currentUserUuid.toString();
+        UUID friendshipId = UUID.randomUUID();
+        List<BulkFriendRequestResult> results = List.of(
+                new BulkFriendRequestResult(friendshipId, BulkFriendRequestResult.Outcome.APPLIED)
+        );
+        when(friendshipService.acceptRequests(currentUserUuid, List.of(friendshipId))).thenReturn(results);
+
+        // act
+        ResponseEntity<List<BulkFriendRequestResult>> response =
+                controller.acceptFriendRequests(userId, new BulkFriendRequest(List.of(friendshipId)));
+
+        // assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(results);
+    }
+
+    @Test
+    void declineFriendRequests_shouldReturnResultsFromService_whenUserIdValid() {
+        // arrange
+        UUID currentUserUuid = UUID.randomUUID();
+        String userId = currentUserUuid.toString();
+        UUID friendshipId = UUID.randomUUID();
+        List<BulkFriendRequestResult> results = List.of(
+                new BulkFriendRequestResult(friendshipId, BulkFriendRequestResult.Outcome.NOT_PENDING)
+        );
+        when(friendshipService.declineRequests(currentUserUuid, List.of(friendshipId))).thenReturn(results);
+
+        // act
+        ResponseEntity<List<BulkFriendRequestResult>> response =
+                controller.declineFriendRequests(userId, new BulkFriendRequest(List.of(friendshipId)));
+
+        // assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(results);
+    }
+
+    @Test
+    void acceptFriendRequests_shouldThrowIllegalArgumentException_whenUserIdIsNotValidUuid() {
+        // arrange
+        BulkFriendRequest request = new BulkFriendRequest(List.of(UUID.randomUUID()));
+
+        // act + assert
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> controller.acceptFriendRequests("not-a-uuid", request)
+        );
+        verifyNoInteractions(friendshipService);
+    }
+
     // --------- DELETE /api/friends/{friendId} ---------
 
     @Test
@@ -201,17 +296,36 @@ class FriendRestControllerTest {
 
         List<FriendResponse> friends = List.of(friend1, friend2);
 
+        when(friendshipService.getFriendsETag(currentUserUuid)).thenReturn("\"abc\"");
         when(friendshipService.getFriends(currentUserUuid)).thenReturn(friends);
 
         // act
-        ResponseEntity<List<FriendResponse>> response = controller.getFriends(userId);
+        ResponseEntity<List<FriendResponse>> response = controller.getFriends(userId, null);
 
         // assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"abc\"");
         assertThat(response.getBody()).containsExactlyElementsOf(friends);
         verify(friendshipService).getFriends(currentUserUuid);
     }
 
+    @Test
+    void getFriends_shouldReturnNotModified_whenIfNoneMatchEqualsFingerprint() {
+        // arrange
+        UUID currentUserUuid = UUID.randomUUID();
+        String userId = currentUserUuid.toString();
+
+        when(friendshipService.getFriendsETag(currentUserUuid)).thenReturn("\"abc\"");
+
+        // act
+        ResponseEntity<List<FriendResponse>> response = controller.getFriends(userId, "W/\"abc\"");
+
+        // assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+        verify(friendshipService, never()).getFriends(any());
+    }
+
     @Test
     void getFriends_shouldThrowIllegalArgumentException_whenUserIdIsNotValidUuid() {
         // arrange
@@ -220,10 +334,30 @@ class FriendRestControllerTest {
         // act + assert
         assertThrows(
                 IllegalArgumentException.class,
-                () -> controller.getFriends(invalidUserId)
+                () -> controller.getFriends(invalidUserId, null)
         );
     }
 
+    // --------- GET /api/friends/changes ---------
+
+    @Test
+    void getChanges_shouldReturnDeltaFromSyncService() {
+        // arrange
+        UUID currentUserUuid = UUID.randomUUID();
+        String userId = currentUserUuid.toString();
+        UUID removedId = UUID.randomUUID();
+
+        FriendshipChangesResponse changes = new FriendshipChangesResponse(42L, false, List.of(), List.of(removedId));
+        when(syncService.getChanges(currentUserUuid, 7L)).thenReturn(changes);
+
+        // act
+        ResponseEntity<FriendshipChangesResponse> response = controller.getChanges(userId, 7L);
+
+        // assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(changes);
+    }
+
     // --------- GET /api/friends/requests/outgoing ---------
 
     @Test
@@ -293,4 +427,86 @@ class FriendRestControllerTest {
                 () -> controller.getIncomingRequests(invalidUserId)
         );
     }
+
+    // --------- GET /api/friends/suggestions ---------
+
+    @Test
+    void getSuggestions_shouldReturnSuggestionsFromService_whenUserIdValid() {
+        // arrange
+        UUID currentUserUuid = UUID.randomUUID();
+        String userId = currentUserUuid.toString();
+
+        List<FriendSuggestionResponse> suggestions = List.of(
+                new FriendSuggestionResponse(UUID.randomUUID(), "candidate", "#000001", 3)
+        );
+
+        when(suggestionService.getSuggestions(currentUserUuid)).thenReturn(suggestions);
+
+        // act
+        ResponseEntity<List<FriendSuggestionResponse>> response = controller.getSuggestions(userId);
+
+        // assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsExactlyElementsOf(suggestions);
+        verify(suggestionService).getSuggestions(currentUserUuid);
+    }
+
+    @Test
+    void getSuggestions_shouldThrowIllegalArgumentException_whenUserIdIsNotValidUuid() {
+        // act + assert
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> controller.getSuggestions("not-a-uuid")
+        );
+    }
+
+    // --------- GET /api/friends/counts ---------
+
+    @Test
+    void getRequestCounts_shouldReturnCountsFromService_whenUserIdValid() {
+        // arrange
+        UUID currentUserUuid = UUID.randomUUID();
+        String userId = currentUserUuid.toString();
+        FriendRequestCountsResponse counts = new FriendRequestCountsResponse(3, 1);
+
+        when(friendshipService.getRequestCounts(currentUserUuid)).thenReturn(counts);
+
+        // act
+        ResponseEntity<FriendRequestCountsResponse> response = controller.getRequestCounts(userId);
+
+        // assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(counts);
+        verify(friendshipService).getRequestCounts(currentUserUuid);
+    }
+
+    // --------- GET /api/friends/events ---------
+
+    @Test
+    void streamEvents_shouldReturnEmitterFromStream_whenUserIdValid() {
+        // arrange
+        UUID currentUserUuid = UUID.randomUUID();
+        String userId = currentUserUuid.toString();
+        SseEmitter emitter = new SseEmitter();
+
+        when(eventStream.subscribe(currentUserUuid)).thenReturn(emitter);
+
+        // act
+        ResponseEntity<SseEmitter> response = controller.streamEvents(userId);
+
+        // assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(emitter);
+        assertThat(response.getHeaders().getFirst("X-Accel-Buffering")).isEqualTo("no");
+    }
+
+    @Test
+    void streamEvents_shouldThrowIllegalArgumentException_whenUserIdIsNotValidUuid() {
+        // act + assert
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> controller.streamEvents("not-a-uuid")
+        );
+        verifyNoInteractions(eventStream);
+    }
 }
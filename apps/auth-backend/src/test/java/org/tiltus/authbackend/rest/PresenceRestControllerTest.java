@@ -0,0 +1,83 @@
+package org.tiltus.authbackend.rest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.tiltus.authbackend.presence.PresenceService;
+import org.tiltus.authbackend.rest.response.FriendPresenceResponse;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PresenceRestControllerTest {
+
+    @Mock
+    private PresenceService presenceService;
+
+    @InjectMocks
+    private PresenceRestController controller;
+
+    // --------- POST /api/presence/heartbeat ---------
+
+    @Test
+    void heartbeat_shouldCallServiceAndReturnNoContent_whenUserIdValid() {
+        // arrange
+        UUID currentUserUuid = UUID.randomUUID();
+
+        // act
+        ResponseEntity<Void> response = controller.heartbeat(currentUserUuid.toString());
+
+        // assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        verify(presenceService).heartbeat(currentUserUuid);
+    }
+
+    @Test
+    void heartbeat_shouldThrowIllegalArgumentException_whenUserIdIsNotValidUuid() {
+        // act + assert
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> controller.heartbeat("not-a-uuid")
+        );
+        verifyNoInteractions(presenceService);
+    }
+
+    // --------- GET /api/presence/friends ---------
+
+    @Test
+    void getFriendsPresence_shouldReturnPresenceFromService_whenUserIdValid() {
+        // arrange
+        UUID currentUserUuid = UUID.randomUUID();
+        List<FriendPresenceResponse> presence = List.of(
+                new FriendPresenceResponse(UUID.randomUUID(), true, Instant.now()),
+                new FriendPresenceResponse(UUID.randomUUID(), false, null)
+        );
+        when(presenceService.getFriendsPresence(currentUserUuid)).thenReturn(presence);
+
+        // act
+        ResponseEntity<List<FriendPresenceResponse>> response = controller.getFriendsPresence(currentUserUuid.toString());
+
+        // assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(presence);
+    }
+
+    @Test
+    void getFriendsPresence_shouldThrowIllegalArgumentException_whenUserIdIsNotValidUuid() {
+        // act + assert
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> controller.getFriendsPresence("not-a-uuid")
+        );
+    }
+}
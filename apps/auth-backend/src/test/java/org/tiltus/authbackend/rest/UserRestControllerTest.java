@@ -8,9 +8,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.server.ResponseStatusException;
+import org.tiltus.authbackend.metrics.SearchMetrics;
 import org.tiltus.authbackend.model.CaroUser;
 import org.tiltus.authbackend.model.CaroUserProfile;
 import org.tiltus.authbackend.repositories.CaroUserRepository;
+import org.tiltus.authbackend.repositories.projections.UserVersion;
 import org.tiltus.authbackend.rest.requests.UserSettingsRequest;
 import org.tiltus.authbackend.rest.response.UserSettingsResponse;
 import org.tiltus.authbackend.services.CaroUserService;
@@ -21,6 +23,7 @@ import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +35,9 @@ class UserRestControllerTest {
     @Mock
     private CaroUserService userService;
 
+    @Mock
+    private SearchMetrics searchMetrics;
+
     @InjectMocks
     private UserRestController controller;
 
@@ -51,7 +57,7 @@ class UserRestControllerTest {
 
         when(userRepository.findById(uuid)).thenReturn(Optional.of(user));
 
-        ResponseEntity<UserSettingsResponse> response = controller.me(userId);
+        ResponseEntity<UserSettingsResponse> response = controller.me(userId, null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
@@ -62,7 +68,7 @@ class UserRestControllerTest {
     void me_shouldThrowUnauthorized_whenUserIdNull() {
         ResponseStatusException ex = assertThrows(
                 ResponseStatusException.class,
-                () -> controller.me(null)
+                () -> controller.me(null, null)
         );
 
         assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
@@ -72,7 +78,7 @@ class UserRestControllerTest {
     void me_shouldThrowUnauthorized_whenUserIdEmpty() {
         ResponseStatusException ex = assertThrows(
                 ResponseStatusException.class,
-                () -> controller.me("")
+                () -> controller.me("", null)
         );
 
         assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
@@ -82,7 +88,7 @@ class UserRestControllerTest {
     void me_shouldThrowUnauthorized_whenUserIdIsAnonymousUser() {
         ResponseStatusException ex = assertThrows(
                 ResponseStatusException.class,
-                () -> controller.me("anonymousUser")
+                () -> controller.me("anonymousUser", null)
         );
 
         assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
@@ -92,7 +98,7 @@ class UserRestControllerTest {
     void me_shouldThrowUnauthorized_whenUserIdIsNotAValidUuid() {
         ResponseStatusException ex = assertThrows(
                 ResponseStatusException.class,
-                () -> controller.me("not-a-uuid")
+                () -> controller.me("not-a-uuid", null)
         );
 
         assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
@@ -109,13 +115,56 @@ class UserRestControllerTest {
         // act
         ResponseStatusException ex = assertThrows(
                 ResponseStatusException.class,
-                () -> controller.me(userId)
+                () -> controller.me(userId, null)
         );
 
         // assert
         assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
+    @Test
+    void me_shouldReturnNotModified_whenIfNoneMatchEqualsCurrentVersion() {
+        // arrange
+        String userId = UUID.randomUUID().toString();
+        UUID uuid = UUID.fromString(userId);
+
+        when(userRepository.findVersionById(uuid)).thenReturn(Optional.of(new UserVersion(3, 1L)));
+
+        // act
+        ResponseEntity<UserSettingsResponse> response = controller.me(userId, "\"3.1\"");
+
+        // assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"3.1\"");
+        assertThat(response.getBody()).isNull();
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void me_shouldReturnBodyWithNewETag_whenIfNoneMatchIsStale() {
+        // arrange
+        String userId = UUID.randomUUID().toString();
+        UUID uuid = UUID.fromString(userId);
+
+        CaroUserProfile profile = mock(CaroUserProfile.class);
+        when(profile.getVersion()).thenReturn(2L);
+
+        CaroUser user = mock(CaroUser.class);
+        when(user.getVersion()).thenReturn(4L);
+        when(user.getProfile()).thenReturn(profile);
+
+        when(userRepository.findVersionById(uuid)).thenReturn(Optional.of(new UserVersion(4, 2L)));
+        when(userRepository.findById(uuid)).thenReturn(Optional.of(user));
+
+        // act
+        ResponseEntity<UserSettingsResponse> response = controller.me(userId, "\"3.1\"");
+
+        // assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"4.2\"");
+        assertThat(response.getBody()).isNotNull();
+    }
+
     // --------- PUT /api/user/me ---------
 
     @Test
@@ -234,7 +283,7 @@ class UserRestControllerTest {
         when(userRepository.findById(uuid)).thenReturn(Optional.of(user));
 
         // act
-        ResponseEntity<UserSettingsResponse> response = controller.getById(userId);
+        ResponseEntity<UserSettingsResponse> response = controller.getById(userId, null);
 
         // assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -246,7 +295,7 @@ class UserRestControllerTest {
     void getById_shouldThrowBadRequest_whenUserIdNull() {
         ResponseStatusException ex = assertThrows(
                 ResponseStatusException.class,
-                () -> controller.getById(null)
+                () -> controller.getById(null, null)
         );
 
         assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
@@ -256,7 +305,7 @@ class UserRestControllerTest {
     void getById_shouldThrowBadRequest_whenUserIdEmpty() {
         ResponseStatusException ex = assertThrows(
                 ResponseStatusException.class,
-                () -> controller.getById("")
+                () -> controller.getById("", null)
         );
 
         assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
@@ -266,7 +315,7 @@ class UserRestControllerTest {
     void getById_shouldThrowBadRequest_whenUserIdIsAnonymousUser() {
         ResponseStatusException ex = assertThrows(
                 ResponseStatusException.class,
-                () -> controller.getById("anonymousUser")
+                () -> controller.getById("anonymousUser", null)
         );
 
         assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
@@ -276,7 +325,7 @@ class UserRestControllerTest {
     void getById_shouldThrowUnauthorized_whenUserIdIsNotAValidUuid() {
         ResponseStatusException ex = assertThrows(
                 ResponseStatusException.class,
-                () -> controller.getById("not-a-uuid")
+                () -> controller.getById("not-a-uuid", null)
         );
 
         assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
@@ -293,7 +342,7 @@ class UserRestControllerTest {
         // act
         ResponseStatusException ex = assertThrows(
                 ResponseStatusException.class,
-                () -> controller.getById(userId)
+                () -> controller.getById(userId, null)
         );
 
         // assert
@@ -387,6 +436,7 @@ class UserRestControllerTest {
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody()).hasSize(2);
         verify(userRepository).findTop10ByUsernameIgnoreCaseContaining(query);
+        verify(searchMetrics).record(any(), eq(2));
     }
 
     @Test
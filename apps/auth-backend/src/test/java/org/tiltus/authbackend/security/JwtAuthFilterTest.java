@@ -7,15 +7,21 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.tiltus.authbackend.datasource.ReadYourWritesWindow;
+import org.tiltus.authbackend.datasource.ReplicaRoutingDataSource;
+import org.tiltus.authbackend.metrics.AuthMetrics;
 import org.tiltus.authbackend.model.CaroUser;
 import org.tiltus.authbackend.repositories.CaroUserRepository;
 import org.tiltus.authbackend.services.JwtService;
+import org.tiltus.authbackend.services.LastActiveTracker;
 
+import java.util.Date;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -30,6 +36,15 @@ class JwtAuthFilterTest {
     @Mock
     private CaroUserRepository userRepository;
 
+    @Mock
+    private LastActiveTracker lastActiveTracker;
+
+    @Mock
+    private AuthMetrics authMetrics;
+
+    @Mock
+    private ReadYourWritesWindow readYourWrites;
+
     @Mock
     private FilterChain filterChain;
 
@@ -70,9 +85,48 @@ class JwtAuthFilterTest {
 
         assertNotNull(SecurityContextHolder.getContext().getAuthentication());
         assertEquals(userId.toString(), SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        Mockito.verify(lastActiveTracker).touch(userId);
+        Mockito.verify(authMetrics).recordTokenParse(ArgumentMatchers.any(), ArgumentMatchers.eq("valid"));
         Mockito.verify(filterChain).doFilter(request, response);
     }
 
+    @Test
+    void justIssuedToken_keepsTheRequestOnThePrimary() throws Exception {
+        String token = "freshToken";
+        UUID userId = UUID.randomUUID();
+        CaroUser user = new CaroUser();
+        user.setId(userId);
+        Date issuedAt = new Date();
+
+        Mockito.when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+
+        @SuppressWarnings("unchecked")
+        io.jsonwebtoken.Jws<io.jsonwebtoken.Claims> jws = Mockito.mock(io.jsonwebtoken.Jws.class);
+        io.jsonwebtoken.Claims claims = Mockito.mock(io.jsonwebtoken.Claims.class);
+        Mockito.when(claims.getSubject()).thenReturn(userId.toString());
+        Mockito.when(claims.getIssuedAt()).thenReturn(issuedAt);
+        Mockito.when(jws.getBody()).thenReturn(claims);
+        Mockito.when(jwtService.parse(token)).thenReturn(jws);
+        Mockito.when(readYourWrites.covers(ArgumentMatchers.eq(issuedAt.getTime() + 999), ArgumentMatchers.anyLong()))
+                .thenReturn(true);
+
+        boolean[] onPrimary = new boolean[2];
+        Mockito.when(userRepository.findById(userId)).thenAnswer(invocation -> {
+            onPrimary[0] = ReplicaRoutingDataSource.isPrimaryRequested();
+            return Optional.of(user);
+        });
+        Mockito.doAnswer(invocation -> {
+            onPrimary[1] = ReplicaRoutingDataSource.isPrimaryRequested();
+            return null;
+        }).when(filterChain).doFilter(request, response);
+
+        jwtAuthFilter.doFilterInternal(request, response, filterChain);
+
+        assertTrue(onPrimary[0]);
+        assertTrue(onPrimary[1]);
+        assertFalse(ReplicaRoutingDataSource.isPrimaryRequested());
+    }
+
     @Test
     void authorizationHeaderMissing_doesNotSetAuthentication() throws Exception {
         Mockito.when(request.getHeader("Authorization")).thenReturn(null);
@@ -93,6 +147,7 @@ class JwtAuthFilterTest {
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
 
         assertNull(SecurityContextHolder.getContext().getAuthentication());
+        Mockito.verify(authMetrics).recordTokenParse(ArgumentMatchers.any(), ArgumentMatchers.eq("invalid"));
         Mockito.verify(filterChain).doFilter(request, response);
     }
 
@@ -115,6 +170,7 @@ class JwtAuthFilterTest {
         jwtAuthFilter.doFilterInternal(request, response, filterChain);
 
         assertNull(SecurityContextHolder.getContext().getAuthentication());
+        Mockito.verifyNoInteractions(lastActiveTracker);
         Mockito.verify(filterChain).doFilter(request, response);
     }
 }
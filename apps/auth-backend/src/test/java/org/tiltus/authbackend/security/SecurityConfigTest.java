@@ -3,6 +3,7 @@ package org.tiltus.authbackend.security;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -12,6 +13,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -66,6 +68,26 @@ class SecurityConfigTest {
         verify(httpSecurity).addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
     }
 
+    @Test
+    void managementFilterChain_onlyMatchesTheManagementPort() throws Exception {
+        ReflectionTestUtils.setField(securityConfig, "managementPort", 8081);
+        ArgumentCaptor<RequestMatcher> matcher = ArgumentCaptor.forClass(RequestMatcher.class);
+        doReturn(httpSecurity).when(httpSecurity).securityMatcher(matcher.capture());
+        doReturn(httpSecurity).when(httpSecurity).csrf(any());
+        doReturn(httpSecurity).when(httpSecurity).sessionManagement(any());
+        doReturn(httpSecurity).when(httpSecurity).authorizeHttpRequests(any());
+        doReturn(mock(SecurityFilterChain.class)).when(httpSecurity).build();
+
+        assertNotNull(securityConfig.managementFilterChain(httpSecurity));
+
+        MockHttpServletRequest management = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        management.setLocalPort(8081);
+        MockHttpServletRequest api = new MockHttpServletRequest("GET", "/actuator/prometheus");
+        api.setLocalPort(8080);
+        assertTrue(matcher.getValue().matches(management));
+        assertFalse(matcher.getValue().matches(api));
+    }
+
     @Test
     void passwordEncoder_returnsBCryptPasswordEncoder() {
         PasswordEncoder encoder = securityConfig.passwordEncoder();
@@ -0,0 +1,88 @@
+package org.tiltus.authbackend.seed;
+
+import org.junit.jupiter.api.Test;
+import org.tiltus.authbackend.enums.FriendshipStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SyntheticDatasetTest {
+
+    private static final Instant BASE_TIME = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Test
+    void sameSeed_shouldProduceSameRows() {
+        SyntheticDataset first = dataset(42);
+        SyntheticDataset second = dataset(42);
+
+        assertThat(first.user(17)).isEqualTo(second.user(17));
+        assertThat(friendships(first)).isEqualTo(friendships(second));
+    }
+
+    @Test
+    void differentSeed_shouldProduceDifferentRows() {
+        assertThat(dataset(1).userId(0)).isNotEqualTo(dataset(2).userId(0));
+        assertThat(friendships(dataset(1))).isNotEqualTo(friendships(dataset(2)));
+    }
+
+    @Test
+    void userIds_shouldBeTimeOrderedVersion7() {
+        SyntheticDataset dataset = dataset(42);
+
+        UUID first = dataset.userId(0);
+        UUID second = dataset.userId(1);
+
+        assertThat(first.version()).isEqualTo(7);
+        assertThat(second.toString()).isGreaterThan(first.toString());
+        assertThat(dataset.user(1).createdAt()).isEqualTo(BASE_TIME.plusMillis(1));
+    }
+
+    @Test
+    void degrees_shouldFollowHeavyTailedDistribution() {
+        SyntheticDataset dataset = dataset(42);
+        int[] degrees = new int[dataset.userCount()];
+        for (int i = 0; i < degrees.length; i++) {
+            degrees[i] = dataset.degree(i);
+        }
+        Arrays.sort(degrees);
+
+        int median = degrees[degrees.length / 2];
+        int max = degrees[degrees.length - 1];
+
+        assertThat(degrees[0]).isGreaterThanOrEqualTo(1);
+        assertThat(max).isLessThanOrEqualTo(1_000);
+        assertThat(max).isGreaterThan(median * 20);
+    }
+
+    @Test
+    void friendships_shouldNeverPointAtTheRequester_andMixStatuses() {
+        List<SyntheticDataset.Friendship> friendships = friendships(dataset(42));
+
+        assertThat(friendships).isNotEmpty();
+        assertThat(friendships).noneMatch(f -> f.requesterId().equals(f.addresseeId()));
+        assertThat(friendships).anyMatch(f -> f.status() == FriendshipStatus.PENDING);
+        assertThat(friendships).anyMatch(f -> f.status() == FriendshipStatus.ACCEPTED);
+    }
+
+    @Test
+    void constructor_shouldRejectExponentAtOrBelowOne() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SyntheticDataset(1, 10, 1.0, 1, 10, 0.1, BASE_TIME));
+    }
+
+    private SyntheticDataset dataset(long seed) {
+        return new SyntheticDataset(seed, 10_000, 2.1, 1, 1_000, 0.05, BASE_TIME);
+    }
+
+    private List<SyntheticDataset.Friendship> friendships(SyntheticDataset dataset) {
+        List<SyntheticDataset.Friendship> friendships = new ArrayList<>();
+        dataset.forEachFriendship(friendships::add);
+        return friendships;
+    }
+}
@@ -11,6 +11,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.server.ResponseStatusException;
+import org.tiltus.authbackend.datasource.ReadYourWritesWindow;
+import org.tiltus.authbackend.metrics.AuthMetrics;
 import org.tiltus.authbackend.model.CaroUser;
 import org.tiltus.authbackend.model.RefreshToken;
 import org.tiltus.authbackend.repositories.CaroUserRepository;
@@ -44,6 +46,12 @@ class AuthServiceTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private AuthMetrics authMetrics;
+
+    @Mock
+    private ReadYourWritesWindow readYourWrites;
+
     @InjectMocks
     private AuthService authService;
 
@@ -83,6 +91,7 @@ class AuthServiceTest {
 
         verify(refreshTokenRepository).deleteByUser(savedUser);
         verify(refreshTokenRepository).save(any(RefreshToken.class));
+        verify(readYourWrites).recordWrite(eq(userId.toString()), anyLong());
 
         verify(userRepository, atLeastOnce())
                 .existsByUsernameIgnoreCaseAndTagId(anyString(), anyString());
@@ -133,6 +142,8 @@ class AuthServiceTest {
 
         verify(refreshTokenRepository).deleteByUser(user);
         verify(refreshTokenRepository).save(any(RefreshToken.class));
+        verify(authMetrics).recordPasswordHash(any(), eq("matches"));
+        verify(authMetrics).recordRequest(any(), eq("login"), eq("success"));
     }
 
     @Test
@@ -170,6 +181,7 @@ class AuthServiceTest {
         verify(jwtService, never()).issueRefresh(any());
         verify(refreshTokenRepository, never()).deleteByUser(any());
         verify(refreshTokenRepository, never()).save(any());
+        verify(authMetrics).recordRequest(any(), eq("login"), eq("unauthorized"));
     }
 
     // ---------- refresh ----------
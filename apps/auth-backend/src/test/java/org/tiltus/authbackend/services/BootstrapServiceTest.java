@@ -0,0 +1,129 @@
+package org.tiltus.authbackend.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.tiltus.authbackend.enums.FriendshipStatus;
+import org.tiltus.authbackend.model.CaroFriendRequestCounter;
+import org.tiltus.authbackend.model.CaroFriendship;
+import org.tiltus.authbackend.model.CaroUser;
+import org.tiltus.authbackend.model.CaroUserProfile;
+import org.tiltus.authbackend.repositories.CaroFriendRequestCounterRepository;
+import org.tiltus.authbackend.repositories.CaroFriendshipRepository;
+import org.tiltus.authbackend.repositories.CaroUserRepository;
+import org.tiltus.authbackend.rest.response.BootstrapResponse;
+import org.tiltus.authbackend.rest.response.FriendRequestResponse.Direction;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BootstrapServiceTest {
+
+    @Mock
+    private CaroUserRepository userRepository;
+
+    @Mock
+    private CaroFriendshipRepository friendshipRepository;
+
+    @Mock
+    private CaroFriendRequestCounterRepository counterRepository;
+
+    @InjectMocks
+    private BootstrapService service;
+
+    @Test
+    void bootstrap_shouldSplitFriendshipsIntoFriendsAndRequestLists() {
+        CaroUser me = user(UUID.randomUUID(), "me");
+        CaroUser friend = user(UUID.randomUUID(), "friend");
+        CaroUser sender = user(UUID.randomUUID(), "sender");
+        CaroUser target = user(UUID.randomUUID(), "target");
+
+        CaroFriendship accepted = friendship(friend, me, FriendshipStatus.ACCEPTED);
+        CaroFriendship incoming = friendship(sender, me, FriendshipStatus.PENDING);
+        CaroFriendship outgoing = friendship(me, target, FriendshipStatus.PENDING);
+
+        CaroFriendRequestCounter counter = mock(CaroFriendRequestCounter.class);
+        when(counter.getIncomingPending()).thenReturn(1);
+        when(counter.getOutgoingPending()).thenReturn(1);
+
+        when(userRepository.findById(me.getId())).thenReturn(Optional.of(me));
+        when(friendshipRepository.findActiveWithProfilesForUser(me.getId()))
+                .thenReturn(List.of(accepted, incoming, outgoing));
+        when(counterRepository.findById(me.getId())).thenReturn(Optional.of(counter));
+
+        BootstrapResponse response = service.bootstrap(me.getId());
+
+        assertThat(response.user().id()).isEqualTo(me.getId());
+        assertThat(response.friends()).singleElement().satisfies(card -> {
+            assertThat(card.userId()).isEqualTo(friend.getId());
+            assertThat(card.profile().displayName()).isEqualTo("friend");
+        });
+        assertThat(response.incomingRequests()).singleElement().satisfies(card -> {
+            assertThat(card.userId()).isEqualTo(sender.getId());
+            assertThat(card.direction()).isEqualTo(Direction.INCOMING);
+        });
+        assertThat(response.outgoingRequests()).singleElement().satisfies(card -> {
+            assertThat(card.userId()).isEqualTo(target.getId());
+            assertThat(card.direction()).isEqualTo(Direction.OUTGOING);
+        });
+        assertThat(response.counts().incoming()).isEqualTo(1);
+        assertThat(response.counts().outgoing()).isEqualTo(1);
+    }
+
+    @Test
+    void bootstrap_shouldReturnZeroCounts_whenNoCounterRowExists() {
+        CaroUser me = user(UUID.randomUUID(), "me");
+        when(userRepository.findById(me.getId())).thenReturn(Optional.of(me));
+        when(friendshipRepository.findActiveWithProfilesForUser(me.getId())).thenReturn(List.of());
+        when(counterRepository.findById(me.getId())).thenReturn(Optional.empty());
+
+        BootstrapResponse response = service.bootstrap(me.getId());
+
+        assertThat(response.friends()).isEmpty();
+        assertThat(response.counts().incoming()).isZero();
+        assertThat(response.counts().outgoing()).isZero();
+    }
+
+    @Test
+    void bootstrap_shouldThrowNotFound_whenUserDoesNotExist() {
+        UUID userId = UUID.randomUUID();
+        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+
+        ResponseStatusException ex = assertThrows(
+                ResponseStatusException.class,
+                () -> service.bootstrap(userId)
+        );
+
+        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        verifyNoInteractions(friendshipRepository, counterRepository);
+    }
+
+    private CaroUser user(UUID id, String username) {
+        CaroUser user = new CaroUser();
+        user.setId(id);
+        user.setUsername(username);
+        CaroUserProfile profile = new CaroUserProfile();
+        profile.setDisplayName(username);
+        user.setProfile(profile);
+        return user;
+    }
+
+    private CaroFriendship friendship(CaroUser requester, CaroUser addressee, FriendshipStatus status) {
+        CaroFriendship friendship = new CaroFriendship();
+        friendship.setId(UUID.randomUUID());
+        friendship.setRequester(requester);
+        friendship.setAddressee(addressee);
+        friendship.setStatus(status);
+        return friendship;
+    }
+}
@@ -4,16 +4,28 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.tiltus.authbackend.enums.FriendshipEventType;
 import org.tiltus.authbackend.enums.FriendshipStatus;
 import org.tiltus.authbackend.model.CaroFriendship;
 import org.tiltus.authbackend.model.CaroUser;
+import org.tiltus.authbackend.model.FriendshipOutboxEntry;
+import org.tiltus.authbackend.model.CaroFriendRequestCounter;
+import org.tiltus.authbackend.repositories.CaroFriendRequestCounterRepository;
 import org.tiltus.authbackend.repositories.CaroFriendshipRepository;
-import org.tiltus.authbackend.repositories.CaroUserRepository;
+import org.tiltus.authbackend.repositories.FriendshipOutboxRepository;
+import org.tiltus.authbackend.repositories.FriendshipTombstoneRepository;
+import org.tiltus.authbackend.repositories.projections.FriendshipEdge;
+import org.tiltus.authbackend.rest.response.BulkFriendRequestResult;
+import org.tiltus.authbackend.rest.response.BulkFriendRequestResult.Outcome;
+import org.tiltus.authbackend.rest.response.FriendRequestCountsResponse;
 import org.tiltus.authbackend.rest.response.FriendRequestResponse;
 import org.tiltus.authbackend.rest.response.FriendResponse;
 
+import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -27,7 +39,16 @@ class CaroFriendshipServiceTest {
     private CaroFriendshipRepository friendshipRepository;
 
     @Mock
-    private CaroUserRepository userRepository;
+    private CaroFriendRequestCounterRepository counterRepository;
+
+    @Mock
+    private FriendSuggestionService suggestionService;
+
+    @Mock
+    private FriendshipOutboxRepository outboxRepository;
+
+    @Mock
+    private FriendshipTombstoneRepository tombstoneRepository;
 
     @InjectMocks
     private CaroFriendshipService service;
@@ -44,7 +65,7 @@ class CaroFriendshipServiceTest {
         );
 
         assertThat(ex.getMessage()).contains("cannot send a friend request to yourself");
-        verifyNoInteractions(userRepository, friendshipRepository);
+        verifyNoInteractions(friendshipRepository, suggestionService);
     }
 
     @Test
@@ -52,7 +73,8 @@ class CaroFriendshipServiceTest {
         UUID requesterId = UUID.randomUUID();
         UUID targetId = UUID.randomUUID();
 
-        when(userRepository.findById(requesterId)).thenReturn(Optional.empty());
+        when(friendshipRepository.upsertPendingRequest(requesterId, targetId, 100))
+                .thenReturn("REQUESTER_NOT_FOUND");
 
         IllegalArgumentException ex = assertThrows(
                 IllegalArgumentException.class,
@@ -60,9 +82,7 @@ class CaroFriendshipServiceTest {
         );
 
         assertThat(ex.getMessage()).contains("User does not exist");
-        verify(userRepository).findById(requesterId);
-        verify(userRepository, never()).findById(targetId);
-        verifyNoInteractions(friendshipRepository);
+        verifyNoInteractions(suggestionService);
     }
 
     @Test
@@ -70,9 +90,8 @@ class CaroFriendshipServiceTest {
         UUID requesterId = UUID.randomUUID();
         UUID targetId = UUID.randomUUID();
 
-        CaroUser requester = mock(CaroUser.class);
-        when(userRepository.findById(requesterId)).thenReturn(Optional.of(requester));
-        when(userRepository.findById(targetId)).thenReturn(Optional.empty());
+        when(friendshipRepository.upsertPendingRequest(requesterId, targetId, 100))
+                .thenReturn("TARGET_NOT_FOUND");
 
         IllegalArgumentException ex = assertThrows(
                 IllegalArgumentException.class,
@@ -80,9 +99,7 @@ class CaroFriendshipServiceTest {
         );
 
         assertThat(ex.getMessage()).contains("Target user does not exist");
-        verify(userRepository).findById(requesterId);
-        verify(userRepository).findById(targetId);
-        verifyNoInteractions(friendshipRepository);
+        verifyNoInteractions(suggestionService);
     }
 
     @Test
@@ -90,14 +107,8 @@ class CaroFriendshipServiceTest {
         UUID requesterId = UUID.randomUUID();
         UUID targetId = UUID.randomUUID();
 
-        CaroUser requester = mock(CaroUser.class);
-        CaroUser addressee = mock(CaroUser.class);
-
-        when(userRepository.findById(requesterId)).thenReturn(Optional.of(requester));
-        when(userRepository.findById(targetId)).thenReturn(Optional.of(addressee));
-
-        when(friendshipRepository.countByAddressee_IdAndStatus(targetId, FriendshipStatus.PENDING))
-                .thenReturn(100L);
+        when(friendshipRepository.upsertPendingRequest(requesterId, targetId, 100))
+                .thenReturn("TOO_MANY_PENDING");
 
         IllegalStateException ex = assertThrows(
                 IllegalStateException.class,
@@ -105,8 +116,7 @@ class CaroFriendshipServiceTest {
         );
 
         assertThat(ex.getMessage()).contains("too many pending friend requests");
-        verify(friendshipRepository, never()).findBetween(any(), any());
-        verify(friendshipRepository, never()).save(any());
+        verifyNoInteractions(suggestionService);
     }
 
     @Test
@@ -114,18 +124,8 @@ class CaroFriendshipServiceTest {
         UUID requesterId = UUID.randomUUID();
         UUID targetId = UUID.randomUUID();
 
-        CaroUser requester = mock(CaroUser.class);
-        CaroUser addressee = mock(CaroUser.class);
-
-        when(userRepository.findById(requesterId)).thenReturn(Optional.of(requester));
-        when(userRepository.findById(targetId)).thenReturn(Optional.of(addressee));
-        when(friendshipRepository.countByAddressee_IdAndStatus(targetId, FriendshipStatus.PENDING))
-                .thenReturn(0L);
-
-        CaroFriendship existing = mock(CaroFriendship.class);
-        when(existing.getStatus()).thenReturn(FriendshipStatus.ACCEPTED);
-        when(friendshipRepository.findBetween(requesterId, targetId))
-                .thenReturn(Optional.of(existing));
+        when(friendshipRepository.upsertPendingRequest(requesterId, targetId, 100))
+                .thenReturn("ALREADY_FRIENDS");
 
         IllegalStateException ex = assertThrows(
                 IllegalStateException.class,
@@ -133,7 +133,6 @@ class CaroFriendshipServiceTest {
         );
 
         assertThat(ex.getMessage()).contains("already friends");
-        verify(friendshipRepository, never()).save(any());
     }
 
     @Test
@@ -141,18 +140,8 @@ class CaroFriendshipServiceTest {
         UUID requesterId = UUID.randomUUID();
         UUID targetId = UUID.randomUUID();
 
-        CaroUser requester = mock(CaroUser.class);
-        CaroUser addressee = mock(CaroUser.class);
-
-        when(userRepository.findById(requesterId)).thenReturn(Optional.of(requester));
-        when(userRepository.findById(targetId)).thenReturn(Optional.of(addressee));
-        when(friendshipRepository.countByAddressee_IdAndStatus(targetId, FriendshipStatus.PENDING))
-                .thenReturn(0L);
-
-        CaroFriendship existing = mock(CaroFriendship.class);
-        when(existing.getStatus()).thenReturn(FriendshipStatus.PENDING);
-        when(friendshipRepository.findBetween(requesterId, targetId))
-                .thenReturn(Optional.of(existing));
+        when(friendshipRepository.upsertPendingRequest(requesterId, targetId, 100))
+                .thenReturn("ALREADY_PENDING");
 
         IllegalStateException ex = assertThrows(
                 IllegalStateException.class,
@@ -160,7 +149,6 @@ class CaroFriendshipServiceTest {
         );
 
         assertThat(ex.getMessage()).contains("already pending");
-        verify(friendshipRepository, never()).save(any());
     }
 
     @Test
@@ -168,18 +156,8 @@ class CaroFriendshipServiceTest {
         UUID requesterId = UUID.randomUUID();
         UUID targetId = UUID.randomUUID();
 
-        CaroUser requester = mock(CaroUser.class);
-        CaroUser addressee = mock(CaroUser.class);
-
-        when(userRepository.findById(requesterId)).thenReturn(Optional.of(requester));
-        when(userRepository.findById(targetId)).thenReturn(Optional.of(addressee));
-        when(friendshipRepository.countByAddressee_IdAndStatus(targetId, FriendshipStatus.PENDING))
-                .thenReturn(0L);
-
-        CaroFriendship existing = mock(CaroFriendship.class);
-        when(existing.getStatus()).thenReturn(FriendshipStatus.BLOCKED);
-        when(friendshipRepository.findBetween(requesterId, targetId))
-                .thenReturn(Optional.of(existing));
+        when(friendshipRepository.upsertPendingRequest(requesterId, targetId, 100))
+                .thenReturn("BLOCKED");
 
         IllegalStateException ex = assertThrows(
                 IllegalStateException.class,
@@ -187,60 +165,24 @@ class CaroFriendshipServiceTest {
         );
 
         assertThat(ex.getMessage()).contains("blocked");
-        verify(friendshipRepository, never()).save(any());
-    }
-
-    @Test
-    void sendRequest_shouldReuseExistingDeclinedFriendship_whenStatusDeclined() {
-        UUID requesterId = UUID.randomUUID();
-        UUID targetId = UUID.randomUUID();
-
-        CaroUser requester = mock(CaroUser.class);
-        CaroUser addressee = mock(CaroUser.class);
-
-        when(userRepository.findById(requesterId)).thenReturn(Optional.of(requester));
-        when(userRepository.findById(targetId)).thenReturn(Optional.of(addressee));
-        when(friendshipRepository.countByAddressee_IdAndStatus(targetId, FriendshipStatus.PENDING))
-                .thenReturn(0L);
-
-        CaroFriendship existing = mock(CaroFriendship.class);
-        when(existing.getStatus()).thenReturn(FriendshipStatus.DECLINED);
-        when(friendshipRepository.findBetween(requesterId, targetId))
-                .thenReturn(Optional.of(existing));
-
-        service.sendRequest(requesterId, targetId);
-
-        verify(existing).setStatus(FriendshipStatus.PENDING);
-        verify(existing).setRequester(requester);
-        verify(existing).setAddressee(addressee);
-        verify(friendshipRepository, never()).save(any());
     }
 
     @Test
-    void sendRequest_shouldCreateNewFriendship_whenAllOkAndNoExistingFriendship() {
+    void sendRequest_shouldUseSingleUpsertAndMarkSuggestionsDirty_whenSent() {
         UUID requesterId = UUID.randomUUID();
         UUID targetId = UUID.randomUUID();
 
-        CaroUser requester = mock(CaroUser.class);
-        CaroUser addressee = mock(CaroUser.class);
-
-        when(userRepository.findById(requesterId)).thenReturn(Optional.of(requester));
-        when(userRepository.findById(targetId)).thenReturn(Optional.of(addressee));
-        when(friendshipRepository.countByAddressee_IdAndStatus(targetId, FriendshipStatus.PENDING))
-                .thenReturn(0L);
-        when(friendshipRepository.findBetween(requesterId, targetId))
-                .thenReturn(Optional.empty());
-
-        ArgumentCaptor<CaroFriendship> captor = ArgumentCaptor.forClass(CaroFriendship.class);
+        when(friendshipRepository.upsertPendingRequest(requesterId, targetId, 100))
+                .thenReturn("SENT");
 
         service.sendRequest(requesterId, targetId);
 
-        verify(friendshipRepository).save(captor.capture());
-        CaroFriendship saved = captor.getValue();
-
-        assertThat(saved.getRequester()).isEqualTo(requester);
-        assertThat(saved.getAddressee()).isEqualTo(addressee);
-        assertThat(saved.getStatus()).isEqualTo(FriendshipStatus.PENDING);
+        InOrder inOrder = inOrder(counterRepository, friendshipRepository);
+        inOrder.verify(counterRepository).lockCounters(List.of(requesterId, targetId));
+        inOrder.verify(friendshipRepository).upsertPendingRequest(requesterId, targetId, 100);
+        verifyNoMoreInteractions(friendshipRepository);
+        verify(suggestionService).markDirty(requesterId, targetId);
+        verifyPublished(FriendshipEventType.REQUEST_RECEIVED, requesterId, targetId);
     }
 
     // -------- cancelRequest --------
@@ -250,7 +192,7 @@ class CaroFriendshipServiceTest {
         UUID currentUserId = UUID.randomUUID();
         UUID friendshipId = UUID.randomUUID();
 
-        when(friendshipRepository.findById(friendshipId)).thenReturn(Optional.empty());
+        when(friendshipRepository.findByIdForUpdate(friendshipId)).thenReturn(Optional.empty());
 
         IllegalArgumentException ex = assertThrows(
                 IllegalArgumentException.class,
@@ -271,7 +213,7 @@ class CaroFriendshipServiceTest {
 
         CaroFriendship friendship = mock(CaroFriendship.class);
         when(friendship.getRequester()).thenReturn(requester);
-        when(friendshipRepository.findById(friendshipId)).thenReturn(Optional.of(friendship));
+        when(friendshipRepository.findByIdForUpdate(friendshipId)).thenReturn(Optional.of(friendship));
 
         IllegalStateException ex = assertThrows(
                 IllegalStateException.class,
@@ -293,7 +235,7 @@ class CaroFriendshipServiceTest {
         CaroFriendship friendship = mock(CaroFriendship.class);
         when(friendship.getRequester()).thenReturn(requester);
         when(friendship.getStatus()).thenReturn(FriendshipStatus.ACCEPTED);
-        when(friendshipRepository.findById(friendshipId)).thenReturn(Optional.of(friendship));
+        when(friendshipRepository.findByIdForUpdate(friendshipId)).thenReturn(Optional.of(friendship));
 
         IllegalStateException ex = assertThrows(
                 IllegalStateException.class,
@@ -302,6 +244,7 @@ class CaroFriendshipServiceTest {
 
         assertThat(ex.getMessage()).contains("Only pending friend requests can be cancelled");
         verify(friendshipRepository, never()).delete(any());
+        verifyNoInteractions(counterRepository);
     }
 
     @Test
@@ -309,17 +252,27 @@ class CaroFriendshipServiceTest {
         UUID currentUserId = UUID.randomUUID();
         UUID friendshipId = UUID.randomUUID();
 
+        UUID addresseeId = UUID.randomUUID();
+
         CaroUser requester = mock(CaroUser.class);
         when(requester.getId()).thenReturn(currentUserId);
+        CaroUser addressee = mock(CaroUser.class);
+        when(addressee.getId()).thenReturn(addresseeId);
 
         CaroFriendship friendship = mock(CaroFriendship.class);
         when(friendship.getRequester()).thenReturn(requester);
+        when(friendship.getAddressee()).thenReturn(addressee);
         when(friendship.getStatus()).thenReturn(FriendshipStatus.PENDING);
-        when(friendshipRepository.findById(friendshipId)).thenReturn(Optional.of(friendship));
+        when(friendshipRepository.findByIdForUpdate(friendshipId)).thenReturn(Optional.of(friendship));
 
         service.cancelRequest(currentUserId, friendshipId);
 
-        verify(friendshipRepository).delete(friendship);
+        InOrder inOrder = inOrder(counterRepository, tombstoneRepository, friendshipRepository);
+        inOrder.verify(counterRepository).releasePendingSlots(List.of(friendshipId));
+        inOrder.verify(tombstoneRepository).recordDeletion(List.of(friendshipId));
+        inOrder.verify(friendshipRepository).delete(friendship);
+        verify(suggestionService).markDirty(currentUserId, addresseeId);
+        verifyPublished(FriendshipEventType.REQUEST_CANCELLED, currentUserId, addresseeId);
     }
 
     // -------- acceptRequest --------
@@ -329,7 +282,7 @@ class CaroFriendshipServiceTest {
         UUID currentUserId = UUID.randomUUID();
         UUID friendshipId = UUID.randomUUID();
 
-        when(friendshipRepository.findById(friendshipId)).thenReturn(Optional.empty());
+        when(friendshipRepository.findByIdForUpdate(friendshipId)).thenReturn(Optional.empty());
 
         IllegalArgumentException ex = assertThrows(
                 IllegalArgumentException.class,
@@ -349,7 +302,7 @@ class CaroFriendshipServiceTest {
 
         CaroFriendship friendship = mock(CaroFriendship.class);
         when(friendship.getAddressee()).thenReturn(addressee);
-        when(friendshipRepository.findById(friendshipId)).thenReturn(Optional.of(friendship));
+        when(friendshipRepository.findByIdForUpdate(friendshipId)).thenReturn(Optional.of(friendship));
 
         IllegalStateException ex = assertThrows(
                 IllegalStateException.class,
@@ -371,7 +324,7 @@ class CaroFriendshipServiceTest {
         CaroFriendship friendship = mock(CaroFriendship.class);
         when(friendship.getAddressee()).thenReturn(addressee);
         when(friendship.getStatus()).thenReturn(FriendshipStatus.ACCEPTED);
-        when(friendshipRepository.findById(friendshipId)).thenReturn(Optional.of(friendship));
+        when(friendshipRepository.findByIdForUpdate(friendshipId)).thenReturn(Optional.of(friendship));
 
         IllegalStateException ex = assertThrows(
                 IllegalStateException.class,
@@ -387,17 +340,31 @@ class CaroFriendshipServiceTest {
         UUID currentUserId = UUID.randomUUID();
         UUID friendshipId = UUID.randomUUID();
 
+        UUID requesterId = UUID.randomUUID();
+
+        CaroUser requester = mock(CaroUser.class);
+        when(requester.getId()).thenReturn(requesterId);
         CaroUser addressee = mock(CaroUser.class);
         when(addressee.getId()).thenReturn(currentUserId);
 
         CaroFriendship friendship = mock(CaroFriendship.class);
+        when(friendship.getRequester()).thenReturn(requester);
         when(friendship.getAddressee()).thenReturn(addressee);
         when(friendship.getStatus()).thenReturn(FriendshipStatus.PENDING);
-        when(friendshipRepository.findById(friendshipId)).thenReturn(Optional.of(friendship));
+        when(friendshipRepository.findByIdForUpdate(friendshipId)).thenReturn(Optional.of(friendship));
+        when(friendshipRepository.findEdgesByIds(List.of(friendshipId))).thenReturn(List.of(
+                new FriendshipEdge(requesterId, currentUserId, FriendshipStatus.PENDING)));
 
         service.acceptRequest(currentUserId, friendshipId);
 
+        // Counters first, then the friendship row, the same order sendRequest locks them in.
+        InOrder inOrder = inOrder(counterRepository, friendshipRepository);
+        inOrder.verify(counterRepository).lockCounters(Set.of(requesterId, currentUserId));
+        inOrder.verify(friendshipRepository).findByIdForUpdate(friendshipId);
+        inOrder.verify(counterRepository).releasePendingSlots(List.of(friendshipId));
         verify(friendship).setStatus(FriendshipStatus.ACCEPTED);
+        verify(suggestionService).markDirty(requesterId, currentUserId);
+        verifyPublished(FriendshipEventType.REQUEST_ACCEPTED, currentUserId, requesterId);
     }
 
     // -------- declineRequest --------
@@ -407,7 +374,7 @@ class CaroFriendshipServiceTest {
         UUID currentUserId = UUID.randomUUID();
         UUID friendshipId = UUID.randomUUID();
 
-        when(friendshipRepository.findById(friendshipId)).thenReturn(Optional.empty());
+        when(friendshipRepository.findByIdForUpdate(friendshipId)).thenReturn(Optional.empty());
 
         IllegalArgumentException ex = assertThrows(
                 IllegalArgumentException.class,
@@ -427,7 +394,7 @@ class CaroFriendshipServiceTest {
 
         CaroFriendship friendship = mock(CaroFriendship.class);
         when(friendship.getAddressee()).thenReturn(addressee);
-        when(friendshipRepository.findById(friendshipId)).thenReturn(Optional.of(friendship));
+        when(friendshipRepository.findByIdForUpdate(friendshipId)).thenReturn(Optional.of(friendship));
 
         IllegalStateException ex = assertThrows(
                 IllegalStateException.class,
@@ -449,7 +416,7 @@ class CaroFriendshipServiceTest {
         CaroFriendship friendship = mock(CaroFriendship.class);
         when(friendship.getAddressee()).thenReturn(addressee);
         when(friendship.getStatus()).thenReturn(FriendshipStatus.ACCEPTED);
-        when(friendshipRepository.findById(friendshipId)).thenReturn(Optional.of(friendship));
+        when(friendshipRepository.findByIdForUpdate(friendshipId)).thenReturn(Optional.of(friendship));
 
         IllegalStateException ex = assertThrows(
                 IllegalStateException.class,
@@ -465,17 +432,25 @@ class CaroFriendshipServiceTest {
         UUID currentUserId = UUID.randomUUID();
         UUID friendshipId = UUID.randomUUID();
 
+        UUID requesterId = UUID.randomUUID();
+
+        CaroUser requester = mock(CaroUser.class);
+        when(requester.getId()).thenReturn(requesterId);
         CaroUser addressee = mock(CaroUser.class);
         when(addressee.getId()).thenReturn(currentUserId);
 
         CaroFriendship friendship = mock(CaroFriendship.class);
+        when(friendship.getRequester()).thenReturn(requester);
         when(friendship.getAddressee()).thenReturn(addressee);
         when(friendship.getStatus()).thenReturn(FriendshipStatus.PENDING);
-        when(friendshipRepository.findById(friendshipId)).thenReturn(Optional.of(friendship));
+        when(friendshipRepository.findByIdForUpdate(friendshipId)).thenReturn(Optional.of(friendship));
 
         service.declineRequest(currentUserId, friendshipId);
 
         verify(friendship).setStatus(FriendshipStatus.DECLINED);
+        verify(counterRepository).releasePendingSlots(List.of(friendshipId));
+        verify(suggestionService).markDirty(requesterId, currentUserId);
+        verifyPublished(FriendshipEventType.REQUEST_DECLINED, currentUserId, requesterId);
     }
 
     // -------- unfriend --------
@@ -521,8 +496,10 @@ class CaroFriendshipServiceTest {
     void unfriend_shouldDeleteFriendship_whenStatusAccepted() {
         UUID currentUserId = UUID.randomUUID();
         UUID friendId = UUID.randomUUID();
+        UUID friendshipId = UUID.randomUUID();
 
         CaroFriendship friendship = mock(CaroFriendship.class);
+        when(friendship.getId()).thenReturn(friendshipId);
         when(friendship.getStatus()).thenReturn(FriendshipStatus.ACCEPTED);
 
         when(friendshipRepository.findBetween(currentUserId, friendId))
@@ -530,11 +507,198 @@ class CaroFriendshipServiceTest {
 
         service.unfriend(currentUserId, friendId);
 
-        verify(friendshipRepository).delete(friendship);
+        InOrder inOrder = inOrder(tombstoneRepository, friendshipRepository);
+        inOrder.verify(tombstoneRepository).recordDeletion(List.of(friendshipId));
+        inOrder.verify(friendshipRepository).delete(friendship);
+        verify(suggestionService).markDirty(currentUserId, friendId);
+        verifyPublished(FriendshipEventType.UNFRIENDED, currentUserId, friendId);
+    }
+
+    // -------- bulk requests --------
+
+    @Test
+    void acceptRequests_shouldReturnEmpty_whenNoIdsGiven() {
+        List<BulkFriendRequestResult> result = service.acceptRequests(UUID.randomUUID(), List.of());
+
+        assertThat(result).isEmpty();
+        verifyNoInteractions(friendshipRepository, counterRepository, suggestionService);
+    }
+
+    @Test
+    void acceptRequests_shouldThrow_whenTooManyIds() {
+        List<UUID> ids = Collections.nCopies(501, null).stream().map(ignored -> UUID.randomUUID()).toList();
+
+        IllegalArgumentException ex = assertThrows(
+                IllegalArgumentException.class,
+                () -> service.acceptRequests(UUID.randomUUID(), ids)
+        );
+
+        assertThat(ex.getMessage()).contains("at most 500");
+        verifyNoInteractions(friendshipRepository, counterRepository, suggestionService);
+    }
+
+    @Test
+    void acceptRequests_shouldClassifyEachIdAndApplyOnlyValidOnes() {
+        UUID currentUserId = UUID.randomUUID();
+        UUID requesterId = UUID.randomUUID();
+
+        UUID appliedId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        UUID forbiddenId = UUID.randomUUID();
+        UUID acceptedId = UUID.randomUUID();
+
+        CaroUser requester = mock(CaroUser.class);
+        when(requester.getId()).thenReturn(requesterId);
+        CaroUser current = mock(CaroUser.class);
+        when(current.getId()).thenReturn(currentUserId);
+
+        CaroFriendship applied = mock(CaroFriendship.class);
+        when(applied.getId()).thenReturn(appliedId);
+        when(applied.getRequester()).thenReturn(requester);
+        when(applied.getAddressee()).thenReturn(current);
+        when(applied.getStatus()).thenReturn(FriendshipStatus.PENDING);
+
+        // current user sent this one, so they cannot accept it
+        CaroFriendship forbidden = mock(CaroFriendship.class);
+        when(forbidden.getId()).thenReturn(forbiddenId);
+        when(forbidden.getAddressee()).thenReturn(requester);
+
+        CaroFriendship alreadyAccepted = mock(CaroFriendship.class);
+        when(alreadyAccepted.getId()).thenReturn(acceptedId);
+        when(alreadyAccepted.getAddressee()).thenReturn(current);
+        when(alreadyAccepted.getStatus()).thenReturn(FriendshipStatus.ACCEPTED);
+
+        List<UUID> ids = List.of(appliedId, missingId, forbiddenId, acceptedId, appliedId);
+        when(friendshipRepository.findAllByIdForUpdate(List.of(appliedId, missingId, forbiddenId, acceptedId)))
+                .thenReturn(List.of(alreadyAccepted, applied, forbidden));
+
+        List<BulkFriendRequestResult> result = service.acceptRequests(currentUserId, ids);
+
+        assertThat(result).containsExactly(
+                new BulkFriendRequestResult(appliedId, Outcome.APPLIED),
+                new BulkFriendRequestResult(missingId, Outcome.NOT_FOUND),
+                new BulkFriendRequestResult(forbiddenId, Outcome.FORBIDDEN),
+                new BulkFriendRequestResult(acceptedId, Outcome.NOT_PENDING)
+        );
+        verify(counterRepository).releasePendingSlots(List.of(appliedId));
+        verify(friendshipRepository).updateStatus(eq(List.of(appliedId)), eq(FriendshipStatus.ACCEPTED), any(Instant.class));
+        verify(suggestionService).markDirty(Set.of(requesterId, currentUserId));
+        verifyBulkPublished(FriendshipEventType.REQUEST_ACCEPTED, currentUserId, requesterId);
+    }
+
+    @Test
+    void declineRequests_shouldSetStatusDeclined() {
+        UUID currentUserId = UUID.randomUUID();
+        UUID requesterId = UUID.randomUUID();
+        UUID friendshipId = UUID.randomUUID();
+
+        CaroUser requester = mock(CaroUser.class);
+        when(requester.getId()).thenReturn(requesterId);
+        CaroUser current = mock(CaroUser.class);
+        when(current.getId()).thenReturn(currentUserId);
+
+        CaroFriendship friendship = mock(CaroFriendship.class);
+        when(friendship.getId()).thenReturn(friendshipId);
+        when(friendship.getRequester()).thenReturn(requester);
+        when(friendship.getAddressee()).thenReturn(current);
+        when(friendship.getStatus()).thenReturn(FriendshipStatus.PENDING);
+        when(friendshipRepository.findAllByIdForUpdate(List.of(friendshipId))).thenReturn(List.of(friendship));
+        when(friendshipRepository.findEdgesByIds(List.of(friendshipId))).thenReturn(List.of(
+                new FriendshipEdge(requesterId, currentUserId, FriendshipStatus.PENDING)));
+
+        List<BulkFriendRequestResult> result = service.declineRequests(currentUserId, List.of(friendshipId));
+
+        assertThat(result).containsExactly(new BulkFriendRequestResult(friendshipId, Outcome.APPLIED));
+        InOrder inOrder = inOrder(counterRepository, friendshipRepository);
+        inOrder.verify(counterRepository).lockCounters(Set.of(requesterId, currentUserId));
+        inOrder.verify(friendshipRepository).findAllByIdForUpdate(List.of(friendshipId));
+        inOrder.verify(counterRepository).releasePendingSlots(List.of(friendshipId));
+        verify(friendshipRepository).updateStatus(eq(List.of(friendshipId)), eq(FriendshipStatus.DECLINED), any(Instant.class));
+        verifyBulkPublished(FriendshipEventType.REQUEST_DECLINED, currentUserId, requesterId);
+    }
+
+    @Test
+    void cancelRequests_shouldDeleteOwnPendingRequests() {
+        UUID currentUserId = UUID.randomUUID();
+        UUID addresseeId = UUID.randomUUID();
+        UUID friendshipId = UUID.randomUUID();
+
+        CaroUser current = mock(CaroUser.class);
+        when(current.getId()).thenReturn(currentUserId);
+        CaroUser addressee = mock(CaroUser.class);
+        when(addressee.getId()).thenReturn(addresseeId);
+
+        CaroFriendship friendship = mock(CaroFriendship.class);
+        when(friendship.getId()).thenReturn(friendshipId);
+        when(friendship.getRequester()).thenReturn(current);
+        when(friendship.getAddressee()).thenReturn(addressee);
+        when(friendship.getStatus()).thenReturn(FriendshipStatus.PENDING);
+        when(friendshipRepository.findAllByIdForUpdate(List.of(friendshipId))).thenReturn(List.of(friendship));
+
+        List<BulkFriendRequestResult> result = service.cancelRequests(currentUserId, List.of(friendshipId));
+
+        assertThat(result).containsExactly(new BulkFriendRequestResult(friendshipId, Outcome.APPLIED));
+        verify(counterRepository).releasePendingSlots(List.of(friendshipId));
+        InOrder inOrder = inOrder(tombstoneRepository, friendshipRepository);
+        inOrder.verify(tombstoneRepository).recordDeletion(List.of(friendshipId));
+        inOrder.verify(friendshipRepository).deleteByIds(List.of(friendshipId));
+        verify(suggestionService).markDirty(Set.of(currentUserId, addresseeId));
+        verifyBulkPublished(FriendshipEventType.REQUEST_CANCELLED, currentUserId, addresseeId);
+    }
+
+    @Test
+    void cancelRequests_shouldNotWrite_whenNothingApplies() {
+        UUID currentUserId = UUID.randomUUID();
+        UUID friendshipId = UUID.randomUUID();
+
+        when(friendshipRepository.findAllByIdForUpdate(List.of(friendshipId))).thenReturn(List.of());
+
+        List<BulkFriendRequestResult> result = service.cancelRequests(currentUserId, List.of(friendshipId));
+
+        assertThat(result).containsExactly(new BulkFriendRequestResult(friendshipId, Outcome.NOT_FOUND));
+        verifyNoInteractions(counterRepository, suggestionService, outboxRepository, tombstoneRepository);
+        verify(friendshipRepository, never()).deleteByIds(any());
+    }
+
+    // -------- getRequestCounts --------
+
+    @Test
+    void getRequestCounts_shouldReturnStoredCounters() {
+        UUID userId = UUID.randomUUID();
+
+        CaroFriendRequestCounter counter = mock(CaroFriendRequestCounter.class);
+        when(counter.getIncomingPending()).thenReturn(4);
+        when(counter.getOutgoingPending()).thenReturn(2);
+        when(counterRepository.findById(userId)).thenReturn(Optional.of(counter));
+
+        FriendRequestCountsResponse result = service.getRequestCounts(userId);
+
+        assertThat(result).isEqualTo(new FriendRequestCountsResponse(4, 2));
+    }
+
+    @Test
+    void getRequestCounts_shouldReturnZero_whenUserHasNoCounterRow() {
+        UUID userId = UUID.randomUUID();
+
+        when(counterRepository.findById(userId)).thenReturn(Optional.empty());
+
+        FriendRequestCountsResponse result = service.getRequestCounts(userId);
+
+        assertThat(result).isEqualTo(new FriendRequestCountsResponse(0, 0));
     }
 
     // -------- getFriends --------
 
+    @Test
+    void getFriendsETag_shouldQuoteRepositoryFingerprint() {
+        UUID userId = UUID.randomUUID();
+        when(friendshipRepository.friendsFingerprint(userId)).thenReturn("d41d8cd98f00b204e9800998ecf8427e");
+
+        String eTag = service.getFriendsETag(userId);
+
+        assertThat(eTag).isEqualTo("\"d41d8cd98f00b204e9800998ecf8427e\"");
+    }
+
     @Test
     void getFriends_shouldMapFriendsCorrectly_whenUserIsRequesterOrAddressee() {
         UUID userId = UUID.randomUUID();
@@ -628,4 +792,24 @@ class CaroFriendshipServiceTest {
         assertThat(result).hasSize(2);
         verify(friendshipRepository).findByAddressee_IdAndStatus(userId, FriendshipStatus.PENDING);
     }
+
+    private void verifyPublished(FriendshipEventType type, UUID actorId, UUID targetId) {
+        ArgumentCaptor<FriendshipOutboxEntry> captor = ArgumentCaptor.forClass(FriendshipOutboxEntry.class);
+        verify(outboxRepository).save(captor.capture());
+        assertEntry(captor.getValue(), type, actorId, targetId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void verifyBulkPublished(FriendshipEventType type, UUID actorId, UUID targetId) {
+        ArgumentCaptor<List<FriendshipOutboxEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).hasSize(1);
+        assertEntry(captor.getValue().get(0), type, actorId, targetId);
+    }
+
+    private static void assertEntry(FriendshipOutboxEntry entry, FriendshipEventType type, UUID actorId, UUID targetId) {
+        assertThat(entry.getEventType()).isEqualTo(type);
+        assertThat(entry.getActorId()).isEqualTo(actorId);
+        assertThat(entry.getTargetId()).isEqualTo(targetId);
+    }
 }
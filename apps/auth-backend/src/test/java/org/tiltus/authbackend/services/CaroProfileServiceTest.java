@@ -6,6 +6,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.tiltus.authbackend.cache.CacheInvalidator;
+import org.tiltus.authbackend.enums.CacheRegion;
 import org.tiltus.authbackend.model.CaroUser;
 import org.tiltus.authbackend.model.CaroUserProfile;
 import org.tiltus.authbackend.repositories.CaroProfileRepository;
@@ -28,6 +30,9 @@ class CaroProfileServiceTest {
     @Mock
     private CaroUserService userService;
 
+    @Mock
+    private CacheInvalidator cacheInvalidator;
+
     @InjectMocks
     private CaroProfileService caroProfileService;
 
@@ -118,6 +123,7 @@ class CaroProfileServiceTest {
 
         verify(userService).getById(userId);
         verify(profileRepository).findById(userId);
+        verify(cacheInvalidator).invalidate(CacheRegion.PROFILES, userId);
 
         assertThat(saved).isSameAs(existingProfile);
         assertThat(saved.getUser()).isSameAs(user);
@@ -159,6 +165,7 @@ class CaroProfileServiceTest {
 
         verify(userService).getById(userId);
         verify(profileRepository).findById(userId);
+        verify(cacheInvalidator).invalidate(CacheRegion.PROFILES, userId);
 
         assertThat(saved.getUser()).isSameAs(user);
         assertThat(saved.getDisplayName()).isEqualTo("New Display");
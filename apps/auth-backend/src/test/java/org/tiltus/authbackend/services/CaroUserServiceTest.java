@@ -8,6 +8,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
+import org.tiltus.authbackend.cache.CacheInvalidator;
+import org.tiltus.authbackend.enums.CacheRegion;
 import org.tiltus.authbackend.model.CaroUser;
 import org.tiltus.authbackend.model.CaroUserProfile;
 import org.tiltus.authbackend.repositories.CaroUserRepository;
@@ -29,6 +31,9 @@ class CaroUserServiceTest {
     @Mock
     private CaroUserRepository userRepository;
 
+    @Mock
+    private CacheInvalidator cacheInvalidator;
+
     @InjectMocks
     private CaroUserService caroUserService;
 
@@ -93,6 +98,8 @@ class CaroUserServiceTest {
         assertThat(savedUser.getProfile().getAccentColor()).isEqualTo("#ffffff");
 
         assertThat(result).isSameAs(savedUser);
+        verify(cacheInvalidator).invalidate(CacheRegion.USERS, uuid);
+        verify(cacheInvalidator).invalidate(CacheRegion.PROFILES, uuid);
     }
 
     @Test
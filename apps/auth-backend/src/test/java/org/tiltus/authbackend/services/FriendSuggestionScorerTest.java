@@ -0,0 +1,91 @@
+package org.tiltus.authbackend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FriendSuggestionScorerTest {
+
+    private final Map<UUID, Set<UUID>> friends = new HashMap<>();
+    private final Map<UUID, Set<UUID>> excluded = new HashMap<>();
+
+    @Test
+    void score_ranksFriendsOfFriendsByMutualCount() {
+        UUID user = UUID.randomUUID();
+        UUID friendA = UUID.randomUUID();
+        UUID friendB = UUID.randomUUID();
+        UUID twoMutuals = UUID.randomUUID();
+        UUID oneMutual = UUID.randomUUID();
+
+        connect(friends, user, friendA);
+        connect(friends, user, friendB);
+        connect(friends, friendA, twoMutuals);
+        connect(friends, friendB, twoMutuals);
+        connect(friends, friendB, oneMutual);
+
+        var result = new FriendSuggestionScorer(friends, excluded, 10).score(user);
+
+        assertThat(result).containsExactly(
+                new FriendSuggestionScorer.ScoredCandidate(twoMutuals, 2),
+                new FriendSuggestionScorer.ScoredCandidate(oneMutual, 1)
+        );
+    }
+
+    @Test
+    void score_skipsExistingFriendsAndExcludedPairs() {
+        UUID user = UUID.randomUUID();
+        UUID friendA = UUID.randomUUID();
+        UUID friendB = UUID.randomUUID();
+        UUID pending = UUID.randomUUID();
+
+        connect(friends, user, friendA);
+        connect(friends, user, friendB);
+        connect(friends, friendA, friendB);
+        connect(friends, friendA, pending);
+        connect(excluded, user, pending);
+
+        var result = new FriendSuggestionScorer(friends, excluded, 10).score(user);
+
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void score_keepsOnlyTopCandidates() {
+        UUID user = UUID.randomUUID();
+        UUID friend = UUID.randomUUID();
+        connect(friends, user, friend);
+        for (int i = 0; i < 5; i++) {
+            connect(friends, friend, UUID.randomUUID());
+        }
+
+        var result = new FriendSuggestionScorer(friends, excluded, 3).score(user);
+
+        assertThat(result).hasSize(3);
+    }
+
+    @Test
+    void scoreAll_returnsEntryForEveryUser() {
+        List<UUID> users = new ArrayList<>();
+        UUID hub = UUID.randomUUID();
+        for (int i = 0; i < 200; i++) {
+            UUID user = UUID.randomUUID();
+            connect(friends, user, hub);
+            users.add(user);
+        }
+
+        var result = new FriendSuggestionScorer(friends, excluded, 5)
+                .scoreAll(ForkJoinPool.commonPool(), users);
+
+        assertThat(result).hasSize(200);
+        assertThat(result.get(users.get(0))).hasSize(5)
+                .allMatch(candidate -> candidate.mutualCount() == 1);
+    }
+
+    private static void connect(Map<UUID, Set<UUID>> edges, UUID a, UUID b) {
+        edges.computeIfAbsent(a, id -> new HashSet<>()).add(b);
+        edges.computeIfAbsent(b, id -> new HashSet<>()).add(a);
+    }
+}
@@ -0,0 +1,137 @@
+package org.tiltus.authbackend.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.tiltus.authbackend.enums.FriendshipStatus;
+import org.tiltus.authbackend.model.CaroFriendSuggestion;
+import org.tiltus.authbackend.model.CaroUser;
+import org.tiltus.authbackend.repositories.CaroFriendSuggestionRepository;
+import org.tiltus.authbackend.repositories.CaroFriendshipRepository;
+import org.tiltus.authbackend.repositories.CaroUserRepository;
+import org.tiltus.authbackend.repositories.projections.FriendshipEdge;
+import org.tiltus.authbackend.rest.response.FriendSuggestionResponse;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FriendSuggestionServiceTest {
+
+    @Mock
+    private CaroFriendSuggestionRepository suggestionRepository;
+
+    @Mock
+    private CaroFriendshipRepository friendshipRepository;
+
+    @Mock
+    private CaroUserRepository userRepository;
+
+    @InjectMocks
+    private FriendSuggestionService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "limit", 20);
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+    }
+
+    @Test
+    void markDirty_delegatesToRepository() {
+        UUID userId1 = UUID.randomUUID();
+        UUID userId2 = UUID.randomUUID();
+
+        service.markDirty(userId1, userId2);
+
+        verify(suggestionRepository).markDirty(userId1, userId2);
+    }
+
+    @Test
+    void markDirty_skipsRepository_whenNoUsersGiven() {
+        service.markDirty(List.of());
+
+        verifyNoInteractions(suggestionRepository);
+    }
+
+    @Test
+    void getSuggestions_mapsStoredSuggestions() {
+        UUID userId = UUID.randomUUID();
+        CaroUser candidate = new CaroUser();
+        candidate.setId(UUID.randomUUID());
+        candidate.setUsername("candidate");
+        candidate.setTagId("#000042");
+
+        when(suggestionRepository.findForUser(userId)).thenReturn(List.of(
+                new CaroFriendSuggestion(userId, candidate, 4, Instant.now())
+        ));
+
+        List<FriendSuggestionResponse> result = service.getSuggestions(userId);
+
+        assertThat(result).containsExactly(
+                new FriendSuggestionResponse(candidate.getId(), "candidate", "#000042", 4)
+        );
+    }
+
+    @Test
+    void refreshSuggestions_doesNothing_whenNoUserIsDirty() {
+        when(suggestionRepository.claimDirtyUserIds(500)).thenReturn(List.of());
+
+        service.refreshSuggestions();
+
+        verifyNoInteractions(friendshipRepository);
+        verify(suggestionRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void refreshSuggestions_recomputesDirtyUsersAndTheirFriends() {
+        UUID dirty = UUID.randomUUID();
+        UUID friend = UUID.randomUUID();
+        UUID friendOfFriend = UUID.randomUUID();
+        UUID pending = UUID.randomUUID();
+
+        when(suggestionRepository.claimDirtyUserIds(anyInt())).thenReturn(List.of(dirty));
+        when(friendshipRepository.findEdgesTouching(any())).thenAnswer(invocation -> {
+            Collection<UUID> userIds = invocation.getArgument(0);
+            List<FriendshipEdge> all = List.of(
+                    new FriendshipEdge(dirty, friend, FriendshipStatus.ACCEPTED),
+                    new FriendshipEdge(friend, friendOfFriend, FriendshipStatus.ACCEPTED),
+                    new FriendshipEdge(friend, pending, FriendshipStatus.ACCEPTED),
+                    new FriendshipEdge(dirty, pending, FriendshipStatus.PENDING)
+            );
+            return all.stream()
+                    .filter(e -> userIds.contains(e.requesterId()) || userIds.contains(e.addresseeId()))
+                    .toList();
+        });
+        when(userRepository.getReferenceById(any())).thenAnswer(invocation -> {
+            CaroUser user = new CaroUser();
+            user.setId(invocation.getArgument(0));
+            return user;
+        });
+
+        service.refreshSuggestions();
+
+        ArgumentCaptor<Collection<UUID>> deleted = ArgumentCaptor.forClass(Collection.class);
+        verify(suggestionRepository).deleteForUsers(deleted.capture());
+        assertThat(deleted.getValue()).containsExactlyInAnyOrder(dirty, friend);
+
+        ArgumentCaptor<List<CaroFriendSuggestion>> saved = ArgumentCaptor.forClass(List.class);
+        verify(suggestionRepository).saveAll(saved.capture());
+        assertThat(saved.getValue())
+                .filteredOn(s -> s.getUserId().equals(dirty))
+                .extracting(s -> s.getCandidate().getId())
+                .containsExactly(friendOfFriend);
+    }
+}
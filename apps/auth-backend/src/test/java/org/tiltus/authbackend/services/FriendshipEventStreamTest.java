@@ -0,0 +1,78 @@
+package org.tiltus.authbackend.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.tiltus.authbackend.enums.FriendshipEventType;
+import org.tiltus.authbackend.events.FriendshipEvent;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FriendshipEventStreamTest {
+
+    private FriendshipEventStream stream;
+
+    @BeforeEach
+    void setUp() {
+        stream = new FriendshipEventStream();
+        ReflectionTestUtils.setField(stream, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(stream, "bufferSize", 8);
+        ReflectionTestUtils.setField(stream, "maxConnectionsPerUser", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void subscribe_registersConnectionForUser() {
+        UUID userId = UUID.randomUUID();
+
+        SseEmitter emitter = stream.subscribe(userId);
+
+        assertThat(emitter.getTimeout()).isEqualTo(60_000L);
+        assertThat(stream.connectionCount(userId)).isEqualTo(1);
+        assertThat(stream.connectionCount(UUID.randomUUID())).isZero();
+    }
+
+    @Test
+    void subscribe_rejectsConnectionsAboveLimit() {
+        UUID userId = UUID.randomUUID();
+        stream.subscribe(userId);
+        stream.subscribe(userId);
+
+        ResponseStatusException ex = assertThrows(
+                ResponseStatusException.class,
+                () -> stream.subscribe(userId)
+        );
+
+        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(stream.connectionCount(userId)).isEqualTo(2);
+    }
+
+    @Test
+    void onFriendshipEvent_ignoresUsersWithoutConnections() {
+        FriendshipEvent event = FriendshipEvent.of(FriendshipEventType.REQUEST_RECEIVED, UUID.randomUUID(), UUID.randomUUID());
+
+        assertDoesNotThrow(() -> stream.onFriendshipEvent(event));
+    }
+
+    @Test
+    void shutdown_completesAllConnections() {
+        UUID userId = UUID.randomUUID();
+        stream.subscribe(userId);
+
+        stream.shutdown();
+
+        assertThat(stream.connectionCount(userId)).isZero();
+    }
+}
@@ -0,0 +1,114 @@
+package org.tiltus.authbackend.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.tiltus.authbackend.enums.FriendshipEventType;
+import org.tiltus.authbackend.events.FriendshipEvent;
+import org.tiltus.authbackend.model.FriendshipOutboxEntry;
+import org.tiltus.authbackend.repositories.FriendshipOutboxRepository;
+import org.tiltus.authbackend.repositories.projections.OutboxBacklog;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FriendshipOutboxDispatcherTest {
+
+    @Mock
+    private FriendshipOutboxRepository outboxRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private FriendshipOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new FriendshipOutboxDispatcher(
+                outboxRepository,
+                eventPublisher,
+                new TransactionTemplate(transactionManager),
+                meterRegistry
+        );
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 2);
+        ReflectionTestUtils.setField(dispatcher, "maxBatchesPerRun", 3);
+    }
+
+    @Test
+    void dispatch_publishesEntriesInIdOrder() {
+        FriendshipOutboxEntry first = entry(1L, FriendshipEventType.REQUEST_RECEIVED);
+        FriendshipOutboxEntry second = entry(2L, FriendshipEventType.REQUEST_ACCEPTED);
+        when(outboxRepository.claimBatch(2)).thenReturn(List.of(second, first), List.of());
+        when(outboxRepository.findBacklog()).thenReturn(new OutboxBacklog(0, null));
+
+        dispatcher.dispatch();
+
+        ArgumentCaptor<FriendshipEvent> captor = ArgumentCaptor.forClass(FriendshipEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(captor.capture());
+        assertThat(captor.getAllValues())
+                .extracting(FriendshipEvent::type)
+                .containsExactly(FriendshipEventType.REQUEST_RECEIVED, FriendshipEventType.REQUEST_ACCEPTED);
+        assertThat(meterRegistry.get("friends.outbox.dispatched").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void dispatch_stopsAfterPartialBatch() {
+        when(outboxRepository.claimBatch(2)).thenReturn(List.of(entry(1L, FriendshipEventType.UNFRIENDED)));
+        when(outboxRepository.findBacklog()).thenReturn(new OutboxBacklog(0, null));
+
+        dispatcher.dispatch();
+
+        verify(outboxRepository, times(1)).claimBatch(2);
+    }
+
+    @Test
+    void dispatch_limitsBatchesPerRun() {
+        when(outboxRepository.claimBatch(2)).thenAnswer(invocation -> List.of(
+                entry(1L, FriendshipEventType.REQUEST_RECEIVED),
+                entry(2L, FriendshipEventType.REQUEST_RECEIVED)
+        ));
+        when(outboxRepository.findBacklog()).thenReturn(new OutboxBacklog(40, Instant.now().minusSeconds(5)));
+
+        dispatcher.dispatch();
+
+        verify(outboxRepository, times(3)).claimBatch(2);
+        assertThat(meterRegistry.get("friends.outbox.pending").gauge().value()).isEqualTo(40.0);
+        assertThat(meterRegistry.get("friends.outbox.oldest.age.ms").gauge().value()).isGreaterThanOrEqualTo(5_000.0);
+    }
+
+    @Test
+    void dispatch_publishesNothing_whenOutboxIsEmpty() {
+        when(outboxRepository.claimBatch(2)).thenReturn(List.of());
+        when(outboxRepository.findBacklog()).thenReturn(new OutboxBacklog(0, null));
+
+        dispatcher.dispatch();
+
+        verify(eventPublisher, never()).publishEvent(any(FriendshipEvent.class));
+        assertThat(meterRegistry.get("friends.outbox.oldest.age.ms").gauge().value()).isZero();
+    }
+
+    private static FriendshipOutboxEntry entry(long id, FriendshipEventType type) {
+        FriendshipOutboxEntry entry = new FriendshipOutboxEntry(FriendshipEvent.of(type, UUID.randomUUID(), UUID.randomUUID()));
+        ReflectionTestUtils.setField(entry, "id", id);
+        return entry;
+    }
+}
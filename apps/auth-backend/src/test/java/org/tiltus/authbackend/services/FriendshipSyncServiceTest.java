@@ -0,0 +1,160 @@
+package org.tiltus.authbackend.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.tiltus.authbackend.enums.FriendshipStatus;
+import org.tiltus.authbackend.model.CaroFriendship;
+import org.tiltus.authbackend.model.CaroUser;
+import org.tiltus.authbackend.repositories.CaroFriendshipRepository;
+import org.tiltus.authbackend.repositories.FriendshipTombstoneRepository;
+import org.tiltus.authbackend.rest.response.FriendRequestResponse.Direction;
+import org.tiltus.authbackend.rest.response.FriendshipChangesResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FriendshipSyncServiceTest {
+
+    @Mock
+    private CaroFriendshipRepository friendshipRepository;
+
+    @Mock
+    private FriendshipTombstoneRepository tombstoneRepository;
+
+    @InjectMocks
+    private FriendshipSyncService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "retentionDays", 30);
+        ReflectionTestUtils.setField(service, "cursorGraceMs", 5000L);
+    }
+
+    @Test
+    void getChanges_shouldReturnChangedRowsAndTombstonesSinceCursor() {
+        UUID userId = UUID.randomUUID();
+        UUID friendId = UUID.randomUUID();
+        UUID removedId = UUID.randomUUID();
+        Instant since = Instant.now().minus(Duration.ofMinutes(10)).truncatedTo(ChronoUnit.MICROS);
+        long cursor = FriendshipSyncService.toCursor(since);
+
+        CaroFriendship friendship = friendship(userId, friendId);
+        when(friendshipRepository.findChangedForUser(userId, since)).thenReturn(List.of(friendship));
+        when(tombstoneRepository.findDeletedSince(userId, since)).thenReturn(List.of(removedId));
+
+        FriendshipChangesResponse response = service.getChanges(userId, cursor);
+
+        assertThat(response.fullResync()).isFalse();
+        assertThat(response.removed()).containsExactly(removedId);
+        assertThat(response.changed()).singleElement().satisfies(change -> {
+            assertThat(change.userId()).isEqualTo(friendId);
+            assertThat(change.direction()).isEqualTo(Direction.OUTGOING);
+            assertThat(change.status()).isEqualTo(FriendshipStatus.ACCEPTED);
+        });
+        assertThat(response.cursor()).isGreaterThan(cursor);
+    }
+
+    @Test
+    void getChanges_shouldTrailClockByGraceWindow() {
+        UUID userId = UUID.randomUUID();
+        Instant before = Instant.now();
+
+        FriendshipChangesResponse response = service.getChanges(userId, FriendshipSyncService.toCursor(before.minusSeconds(60)));
+
+        assertThat(response.cursor()).isLessThanOrEqualTo(FriendshipSyncService.toCursor(Instant.now().minusMillis(5000)));
+        assertThat(response.cursor()).isGreaterThanOrEqualTo(FriendshipSyncService.toCursor(before.minusMillis(5000)));
+    }
+
+    @Test
+    void getChanges_shouldNotMoveCursorBackwards_whenCursorInsideGraceWindow() {
+        UUID userId = UUID.randomUUID();
+        long cursor = FriendshipSyncService.toCursor(Instant.now().minusMillis(1000));
+
+        FriendshipChangesResponse response = service.getChanges(userId, cursor);
+
+        assertThat(response.cursor()).isEqualTo(cursor);
+    }
+
+    @Test
+    void getChanges_shouldFullyResync_whenCursorMissing() {
+        UUID userId = UUID.randomUUID();
+        when(friendshipRepository.findChangedForUser(userId, Instant.EPOCH)).thenReturn(List.of());
+
+        FriendshipChangesResponse response = service.getChanges(userId, null);
+
+        assertThat(response.fullResync()).isTrue();
+        assertThat(response.removed()).isEmpty();
+        verifyNoInteractions(tombstoneRepository);
+    }
+
+    @Test
+    void getChanges_shouldFullyResync_whenCursorOlderThanTombstoneRetention() {
+        UUID userId = UUID.randomUUID();
+        long cursor = FriendshipSyncService.toCursor(Instant.now().minus(Duration.ofDays(31)));
+        when(friendshipRepository.findChangedForUser(userId, Instant.EPOCH)).thenReturn(List.of());
+
+        FriendshipChangesResponse response = service.getChanges(userId, cursor);
+
+        assertThat(response.fullResync()).isTrue();
+        verifyNoInteractions(tombstoneRepository);
+    }
+
+    @Test
+    void getChanges_shouldFullyResync_whenCursorInFuture() {
+        UUID userId = UUID.randomUUID();
+        when(friendshipRepository.findChangedForUser(userId, Instant.EPOCH)).thenReturn(List.of());
+
+        FriendshipChangesResponse response = service.getChanges(userId, Long.MAX_VALUE);
+
+        assertThat(response.fullResync()).isTrue();
+    }
+
+    @Test
+    void compactTombstones_shouldDeleteRowsOlderThanRetention() {
+        when(tombstoneRepository.deleteOlderThan(any())).thenReturn(3);
+
+        int deleted = service.compactTombstones();
+
+        ArgumentCaptor<Instant> cutoff = ArgumentCaptor.forClass(Instant.class);
+        verify(tombstoneRepository).deleteOlderThan(cutoff.capture());
+        assertThat(deleted).isEqualTo(3);
+        assertThat(cutoff.getValue()).isBefore(Instant.now().minus(Duration.ofDays(29)));
+        assertThat(cutoff.getValue()).isAfter(Instant.now().minus(Duration.ofDays(31)));
+    }
+
+    @Test
+    void cursor_roundTripsAtMicrosecondPrecision() {
+        Instant instant = Instant.parse("2026-01-02T03:04:05.123456Z");
+
+        assertThat(FriendshipSyncService.fromCursor(FriendshipSyncService.toCursor(instant))).isEqualTo(instant);
+    }
+
+    private CaroFriendship friendship(UUID requesterId, UUID addresseeId) {
+        CaroUser requester = new CaroUser();
+        requester.setId(requesterId);
+        CaroUser addressee = new CaroUser();
+        addressee.setId(addresseeId);
+
+        CaroFriendship friendship = new CaroFriendship();
+        friendship.setId(UUID.randomUUID());
+        friendship.setRequester(requester);
+        friendship.setAddressee(addressee);
+        friendship.setStatus(FriendshipStatus.ACCEPTED);
+        friendship.setUpdatedAt(Instant.now());
+        return friendship;
+    }
+}
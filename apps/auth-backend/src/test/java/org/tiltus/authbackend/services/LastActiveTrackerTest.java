@@ -0,0 +1,91 @@
+package org.tiltus.authbackend.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.tiltus.authbackend.repositories.CaroUserRepository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LastActiveTrackerTest {
+
+    @Mock
+    private CaroUserRepository userRepository;
+
+    @InjectMocks
+    private LastActiveTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tracker, "batchSize", 2);
+    }
+
+    @Test
+    void touch_coalescesRepeatedActivityOfOneUser() {
+        UUID userId = UUID.randomUUID();
+
+        tracker.touch(userId);
+        tracker.touch(userId);
+        tracker.touch(userId);
+
+        assertThat(tracker.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void flush_writesOneUpdatePerBatchAndDrains() {
+        tracker.touch(UUID.randomUUID());
+        tracker.touch(UUID.randomUUID());
+        tracker.touch(UUID.randomUUID());
+
+        tracker.flush();
+
+        ArgumentCaptor<UUID[]> ids = ArgumentCaptor.forClass(UUID[].class);
+        ArgumentCaptor<Instant[]> seenAt = ArgumentCaptor.forClass(Instant[].class);
+        verify(userRepository, times(2)).updateLastActive(ids.capture(), seenAt.capture());
+        assertThat(ids.getAllValues()).extracting(a -> a.length).containsExactly(2, 1);
+        assertThat(seenAt.getAllValues()).extracting(a -> a.length).containsExactly(2, 1);
+        assertThat(tracker.pendingCount()).isZero();
+    }
+
+    @Test
+    void flush_withNothingPending_doesNotTouchDatabase() {
+        tracker.flush();
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void flush_whenUpdateFails_keepsEntriesForNextFlush() {
+        UUID userId = UUID.randomUUID();
+        tracker.touch(userId);
+        when(userRepository.updateLastActive(any(), any())).thenThrow(new RuntimeException("db down"));
+
+        assertThatThrownBy(() -> tracker.flush()).isInstanceOf(RuntimeException.class);
+
+        assertThat(tracker.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shutdown_flushesRemainingEntries() {
+        UUID userId = UUID.randomUUID();
+        tracker.touch(userId);
+
+        tracker.shutdown();
+
+        ArgumentCaptor<UUID[]> ids = ArgumentCaptor.forClass(UUID[].class);
+        verify(userRepository).updateLastActive(ids.capture(), any());
+        assertThat(ids.getValue()).containsExactly(userId);
+    }
+}
@@ -0,0 +1,50 @@
+package org.tiltus.authbackend.timing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestTimingFilterTest {
+
+    private final RequestTimingFilter filter = new RequestTimingFilter();
+
+    @Test
+    void doFilter_addsServerTimingForBodilessResponses() throws Exception {
+        ReflectionTestUtils.setField(filter, "serverTimingHeader", true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/friends/requests"), response, (req, res) -> {
+            RequestTimings.recordStatement(3_000_000);
+            RequestTimings.recordStatement(1_000_000);
+        });
+
+        assertThat(response.getHeader(RequestTimingFilter.SERVER_TIMING))
+                .startsWith("db;dur=4.00;desc=\"2 statements\"");
+        assertThat(RequestTimings.current()).isNull();
+    }
+
+    @Test
+    void doFilter_leavesHeaderOutWhenDisabled() throws Exception {
+        ReflectionTestUtils.setField(filter, "serverTimingHeader", false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/friends"), response, (req, res) -> { });
+
+        assertThat(response.getHeader(RequestTimingFilter.SERVER_TIMING)).isNull();
+    }
+
+    @Test
+    void doFilter_clearsTheRequestWhenTheChainFails() {
+        ReflectionTestUtils.setField(filter, "serverTimingHeader", true);
+
+        try {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/friends"), new MockHttpServletResponse(),
+                    (req, res) -> { throw new IllegalStateException("boom"); });
+        } catch (Exception ignored) { }
+
+        assertThat(RequestTimings.current()).isNull();
+    }
+}
@@ -0,0 +1,50 @@
+package org.tiltus.authbackend.timing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestTimingsTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTimings.clear();
+    }
+
+    @Test
+    void recordStatement_withoutRequest_isIgnored() {
+        RequestTimings.recordStatement(1_000_000);
+        RequestTimings.recordAuth(1_000_000);
+
+        assertThat(RequestTimings.current()).isNull();
+    }
+
+    @Test
+    void recordStatement_sumsCountAndTimeForTheCurrentRequest() {
+        RequestTimings timings = RequestTimings.start();
+
+        RequestTimings.recordStatement(2_000_000);
+        RequestTimings.recordStatement(500_000);
+        RequestTimings.recordAuth(250_000);
+
+        assertThat(timings.statements()).isEqualTo(2);
+        assertThat(timings.dbMillis()).isEqualTo(2.5);
+        assertThat(timings.authMillis()).isEqualTo(0.25);
+        assertThat(timings.serverTiming())
+                .startsWith("db;dur=2.50;desc=\"2 statements\", auth;dur=0.25, app;dur=");
+    }
+
+    @Test
+    void markHandlerDone_keepsTheFirstMark() throws Exception {
+        RequestTimings timings = RequestTimings.start();
+
+        timings.markHandlerDone();
+        double handler = timings.handlerMillis();
+        Thread.sleep(5);
+        timings.markHandlerDone();
+
+        assertThat(timings.handlerMillis()).isEqualTo(handler);
+        assertThat(timings.totalMillis()).isGreaterThan(handler);
+    }
+}
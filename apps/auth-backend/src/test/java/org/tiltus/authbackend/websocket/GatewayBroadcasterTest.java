@@ -0,0 +1,148 @@
+package org.tiltus.authbackend.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.tiltus.authbackend.enums.FriendshipEventType;
+import org.tiltus.authbackend.enums.FriendshipStatus;
+import org.tiltus.authbackend.events.FriendshipEvent;
+import org.tiltus.authbackend.events.PresenceChangedEvent;
+import org.tiltus.authbackend.repositories.CaroFriendshipRepository;
+import org.tiltus.authbackend.repositories.projections.FriendshipEdge;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GatewayBroadcasterTest {
+
+    @Mock
+    private CaroFriendshipRepository friendshipRepository;
+
+    private final SessionRegistry registry = new SessionRegistry(4, 4);
+
+    private GatewayBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        broadcaster = new GatewayBroadcaster(registry, friendshipRepository, objectMapper, 16, 8, Runnable::run);
+    }
+
+    @Test
+    void onFriendshipEvent_sendsToBothUsers() throws Exception {
+        UUID actorId = UUID.randomUUID();
+        UUID targetId = UUID.randomUUID();
+        WebSocketSession actorSession = connect(actorId);
+        WebSocketSession targetSession = connect(targetId);
+
+        broadcaster.onFriendshipEvent(FriendshipEvent.of(FriendshipEventType.REQUEST_RECEIVED, actorId, targetId));
+
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(targetSession).sendMessage(captor.capture());
+        assertThat(captor.getValue().getPayload())
+                .contains("\"type\":\"friendship\"")
+                .contains("REQUEST_RECEIVED")
+                .contains(actorId.toString());
+        verify(actorSession).sendMessage(any(TextMessage.class));
+    }
+
+    @Test
+    void onPresenceChanged_sendsOnlyToConnectedFriends() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID onlineFriend = UUID.randomUUID();
+        UUID offlineFriend = UUID.randomUUID();
+        WebSocketSession friendSession = connect(onlineFriend);
+
+        when(friendshipRepository.findAcceptedTouching(Set.of(userId))).thenReturn(List.of(
+                new FriendshipEdge(userId, onlineFriend, FriendshipStatus.ACCEPTED),
+                new FriendshipEdge(offlineFriend, userId, FriendshipStatus.ACCEPTED)
+        ));
+
+        broadcaster.onPresenceChanged(PresenceChangedEvent.online(userId));
+
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(friendSession).sendMessage(captor.capture());
+        assertThat(captor.getValue().getPayload())
+                .contains("\"type\":\"presence\"")
+                .contains(userId.toString());
+    }
+
+    @Test
+    void onPresenceChanged_doesNothing_whenNoFriendIsConnected() {
+        UUID userId = UUID.randomUUID();
+        when(friendshipRepository.findAcceptedTouching(Set.of(userId))).thenReturn(List.of(
+                new FriendshipEdge(userId, UUID.randomUUID(), FriendshipStatus.ACCEPTED)
+        ));
+
+        broadcaster.onPresenceChanged(PresenceChangedEvent.offline(userId));
+
+        assertThat(registry.sessionCount()).isZero();
+    }
+
+    @Test
+    void onPresenceChanged_resolvesQueuedChangesWithOneQuery() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID friend = UUID.randomUUID();
+        WebSocketSession friendSession = connect(friend);
+        List<Runnable> drains = new ArrayList<>();
+        broadcaster = new GatewayBroadcaster(registry, friendshipRepository,
+                new ObjectMapper().registerModule(new JavaTimeModule()), 16, 8, drains::add);
+
+        broadcaster.onPresenceChanged(PresenceChangedEvent.offline(first));
+        broadcaster.onPresenceChanged(PresenceChangedEvent.offline(second));
+        broadcaster.onPresenceChanged(PresenceChangedEvent.online(second));
+        assertThat(drains).hasSize(1);
+
+        when(friendshipRepository.findAcceptedTouching(Set.of(first, second))).thenReturn(List.of(
+                new FriendshipEdge(first, friend, FriendshipStatus.ACCEPTED),
+                new FriendshipEdge(friend, second, FriendshipStatus.ACCEPTED)
+        ));
+        drains.get(0).run();
+
+        verify(friendshipRepository, times(1)).findAcceptedTouching(any());
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(friendSession, times(2)).sendMessage(captor.capture());
+        assertThat(captor.getAllValues().get(1).getPayload())
+                .contains(second.toString())
+                .contains("\"online\":true");
+    }
+
+    @Test
+    void onPresenceChanged_dropsChangesOnceTheQueueIsFull() {
+        List<Runnable> drains = new ArrayList<>();
+        broadcaster = new GatewayBroadcaster(registry, friendshipRepository,
+                new ObjectMapper().registerModule(new JavaTimeModule()), 2, 8, drains::add);
+
+        for (int i = 0; i < 3; i++) {
+            broadcaster.onPresenceChanged(PresenceChangedEvent.offline(UUID.randomUUID()));
+        }
+        when(friendshipRepository.findAcceptedTouching(any())).thenReturn(List.of());
+        drains.get(0).run();
+
+        ArgumentCaptor<Collection<UUID>> captor = ArgumentCaptor.captor();
+        verify(friendshipRepository).findAcceptedTouching(captor.capture());
+        assertThat(captor.getValue()).hasSize(2);
+    }
+
+    private WebSocketSession connect(UUID userId) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        registry.register(userId, new OutboundSession(session, 8, Runnable::run));
+        return session;
+    }
+}
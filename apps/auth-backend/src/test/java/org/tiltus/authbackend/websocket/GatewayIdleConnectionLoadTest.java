@@ -0,0 +1,78 @@
+package org.tiltus.authbackend.websocket;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Holds many idle gateway connections against a locally running node and checks none of them drop.
+// Run the backend first, then for example:
+//   ./gradlew test --tests '*GatewayIdleConnectionLoadTest' \
+//       -Dgateway.loadtest.url=ws://localhost:8080/ws -Dgateway.loadtest.token=<access token>
+// 50k connections need `ulimit -n` above 100k on both sides and, from one client address, a wide
+// ephemeral port range (net.ipv4.ip_local_port_range). gateway.max-sessions-per-user must allow the
+// count as well, because every connection uses the same token.
+@EnabledIfSystemProperty(named = "gateway.loadtest.url", matches = ".+")
+class GatewayIdleConnectionLoadTest {
+
+    private static final int CONNECTIONS = Integer.getInteger("gateway.loadtest.connections", 50_000);
+    private static final int HOLD_SECONDS = Integer.getInteger("gateway.loadtest.hold-seconds", 60);
+    private static final int MAX_PENDING_HANDSHAKES = 500;
+
+    @Test
+    void holdsIdleConnections() throws Exception {
+        URI uri = URI.create(System.getProperty("gateway.loadtest.url")
+                + "?access_token=" + System.getProperty("gateway.loadtest.token", ""));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        AtomicInteger closed = new AtomicInteger();
+        WebSocket.Listener listener = new WebSocket.Listener() {
+            @Override
+            public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+                closed.incrementAndGet();
+                return null;
+            }
+
+            @Override
+            public void onError(WebSocket webSocket, Throwable error) {
+                closed.incrementAndGet();
+            }
+        };
+
+        Semaphore pendingHandshakes = new Semaphore(MAX_PENDING_HANDSHAKES);
+        List<CompletableFuture<WebSocket>> handshakes = new ArrayList<>(CONNECTIONS);
+        long connectStarted = System.nanoTime();
+        for (int i = 0; i < CONNECTIONS; i++) {
+            pendingHandshakes.acquire();
+            handshakes.add(client.newWebSocketBuilder()
+                    .buildAsync(uri, listener)
+                    .whenComplete((webSocket, error) -> pendingHandshakes.release()));
+        }
+        CompletableFuture.allOf(handshakes.toArray(CompletableFuture[]::new)).get(5, TimeUnit.MINUTES);
+        long connectMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStarted);
+
+        TimeUnit.SECONDS.sleep(HOLD_SECONDS);
+
+        System.out.printf("gateway load test: %d connections opened in %d ms, %d closed while idle%n",
+                CONNECTIONS, connectMillis, closed.get());
+        assertThat(closed.get()).isZero();
+
+        for (CompletableFuture<WebSocket> handshake : handshakes) {
+            handshake.join().sendClose(WebSocket.NORMAL_CLOSURE, "done");
+        }
+    }
+}
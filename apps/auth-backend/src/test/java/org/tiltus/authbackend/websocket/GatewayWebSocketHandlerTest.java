@@ -0,0 +1,118 @@
+package org.tiltus.authbackend.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.tiltus.authbackend.presence.PresenceService;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GatewayWebSocketHandlerTest {
+
+    @Mock
+    private PresenceService presenceService;
+
+    private final SessionRegistry registry = new SessionRegistry(4, 1);
+
+    private GatewayWebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new GatewayWebSocketHandler(registry, presenceService);
+        ReflectionTestUtils.setField(handler, "outboundQueueSize", 8);
+    }
+
+    @Test
+    void afterConnectionEstablished_registersSessionAndMarksUserOnline() {
+        UUID userId = UUID.randomUUID();
+
+        handler.afterConnectionEstablished(session(userId));
+
+        assertThat(registry.isConnected(userId)).isTrue();
+        verify(presenceService).heartbeat(userId);
+    }
+
+    @Test
+    void afterConnectionEstablished_closesSessionAboveLimit() throws Exception {
+        UUID userId = UUID.randomUUID();
+        handler.afterConnectionEstablished(session(userId));
+        WebSocketSession second = session(userId);
+
+        handler.afterConnectionEstablished(second);
+
+        verify(second).close(CloseStatus.POLICY_VIOLATION.withReason("Too many sessions"));
+        verify(presenceService, times(1)).heartbeat(userId);
+        assertThat(registry.sessionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void handleMessage_countsAsHeartbeat() throws Exception {
+        UUID userId = UUID.randomUUID();
+        WebSocketSession session = session(userId);
+
+        handler.handleMessage(session, new TextMessage("ping"));
+
+        verify(presenceService).heartbeat(userId);
+    }
+
+    @Test
+    void afterConnectionClosed_unregistersSessionAndDisconnectsUser() {
+        UUID userId = UUID.randomUUID();
+        WebSocketSession session = session(userId);
+        handler.afterConnectionEstablished(session);
+
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        assertThat(registry.isConnected(userId)).isFalse();
+        verify(presenceService).disconnect(userId);
+    }
+
+    @Test
+    void afterConnectionClosed_ignoresRejectedSession() {
+        UUID userId = UUID.randomUUID();
+        WebSocketSession first = session(userId);
+        WebSocketSession rejected = session(userId);
+        handler.afterConnectionEstablished(first);
+        handler.afterConnectionEstablished(rejected);
+
+        handler.afterConnectionClosed(rejected, CloseStatus.POLICY_VIOLATION);
+
+        assertThat(registry.isConnected(userId)).isTrue();
+        verify(presenceService, never()).disconnect(any());
+    }
+
+    @Test
+    void refreshPresence_heartbeatsEveryConnectedUser() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        handler.afterConnectionEstablished(session(first));
+        handler.afterConnectionEstablished(session(second));
+        clearInvocations(presenceService);
+
+        handler.refreshPresence();
+
+        verify(presenceService).heartbeat(first);
+        verify(presenceService).heartbeat(second);
+    }
+
+    private static WebSocketSession session(UUID userId) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(JwtHandshakeInterceptor.USER_ID_ATTRIBUTE, userId);
+        WebSocketSession session = mock(WebSocketSession.class);
+        lenient().when(session.getAttributes()).thenReturn(attributes);
+        return session;
+    }
+}
@@ -0,0 +1,120 @@
+package org.tiltus.authbackend.websocket;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.socket.WebSocketHandler;
+import org.tiltus.authbackend.repositories.CaroUserRepository;
+import org.tiltus.authbackend.services.JwtService;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtHandshakeInterceptorTest {
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private CaroUserRepository userRepository;
+
+    @InjectMocks
+    private JwtHandshakeInterceptor interceptor;
+
+    private final MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/ws");
+    private final MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    @Test
+    void beforeHandshake_acceptsBearerHeader() {
+        UUID userId = UUID.randomUUID();
+        servletRequest.addHeader("Authorization", "Bearer header-token");
+        stubToken("header-token", userId);
+        when(userRepository.existsById(userId)).thenReturn(true);
+
+        boolean accepted = handshake();
+
+        assertThat(accepted).isTrue();
+        assertThat(attributes).containsEntry(JwtHandshakeInterceptor.USER_ID_ATTRIBUTE, userId);
+    }
+
+    @Test
+    void beforeHandshake_acceptsAccessTokenQueryParameter() {
+        UUID userId = UUID.randomUUID();
+        servletRequest.setQueryString("access_token=query-token");
+        stubToken("query-token", userId);
+        when(userRepository.existsById(userId)).thenReturn(true);
+
+        boolean accepted = handshake();
+
+        assertThat(accepted).isTrue();
+        assertThat(attributes).containsEntry(JwtHandshakeInterceptor.USER_ID_ATTRIBUTE, userId);
+    }
+
+    @Test
+    void beforeHandshake_rejectsMissingToken() {
+        boolean accepted = handshake();
+
+        assertThat(accepted).isFalse();
+        assertThat(servletResponse.getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED.value());
+        verifyNoInteractions(jwtService, userRepository);
+    }
+
+    @Test
+    void beforeHandshake_rejectsInvalidToken() {
+        servletRequest.addHeader("Authorization", "Bearer broken");
+        when(jwtService.parse("broken")).thenThrow(new JwtException("invalid"));
+
+        boolean accepted = handshake();
+
+        assertThat(accepted).isFalse();
+        assertThat(servletResponse.getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED.value());
+        assertThat(attributes).isEmpty();
+    }
+
+    @Test
+    void beforeHandshake_rejectsUnknownUser() {
+        UUID userId = UUID.randomUUID();
+        servletRequest.addHeader("Authorization", "Bearer orphan");
+        stubToken("orphan", userId);
+        when(userRepository.existsById(userId)).thenReturn(false);
+
+        boolean accepted = handshake();
+
+        assertThat(accepted).isFalse();
+        assertThat(servletResponse.getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED.value());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubToken(String token, UUID userId) {
+        Jws<Claims> jws = mock(Jws.class);
+        Claims claims = mock(Claims.class);
+        when(jws.getBody()).thenReturn(claims);
+        when(claims.getSubject()).thenReturn(userId.toString());
+        when(jwtService.parse(token)).thenReturn(jws);
+    }
+
+    private boolean handshake() {
+        return interceptor.beforeHandshake(
+                new ServletServerHttpRequest(servletRequest),
+                new ServletServerHttpResponse(servletResponse),
+                mock(WebSocketHandler.class),
+                attributes
+        );
+    }
+}
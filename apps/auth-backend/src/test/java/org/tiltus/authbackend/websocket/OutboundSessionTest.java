@@ -0,0 +1,78 @@
+package org.tiltus.authbackend.websocket;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OutboundSessionTest {
+
+    private final WebSocketSession session = mock(WebSocketSession.class);
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    @Test
+    void offer_sendsMessagesInOrder() throws Exception {
+        OutboundSession outbound = new OutboundSession(session, 4, tasks::add);
+        TextMessage first = new TextMessage("1");
+        TextMessage second = new TextMessage("2");
+
+        outbound.offer(first);
+        outbound.offer(second);
+        runTasks();
+
+        var inOrder = inOrder(session);
+        inOrder.verify(session).sendMessage(first);
+        inOrder.verify(session).sendMessage(second);
+    }
+
+    @Test
+    void offer_schedulesSingleDrainForBurst() {
+        OutboundSession outbound = new OutboundSession(session, 4, tasks::add);
+
+        outbound.offer(new TextMessage("1"));
+        outbound.offer(new TextMessage("2"));
+        outbound.offer(new TextMessage("3"));
+
+        assertThat(tasks).hasSize(1);
+    }
+
+    @Test
+    void offer_closesSession_whenQueueIsFull() throws Exception {
+        OutboundSession outbound = new OutboundSession(session, 2, tasks::add);
+
+        assertThat(outbound.offer(new TextMessage("1"))).isTrue();
+        assertThat(outbound.offer(new TextMessage("2"))).isTrue();
+        assertThat(outbound.offer(new TextMessage("3"))).isFalse();
+        runTasks();
+
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Test
+    void drain_closesSession_whenSendFails() throws Exception {
+        OutboundSession outbound = new OutboundSession(session, 4, tasks::add);
+        doThrow(new IOException("broken pipe")).when(session).sendMessage(any());
+
+        outbound.offer(new TextMessage("1"));
+        outbound.offer(new TextMessage("2"));
+        runTasks();
+
+        verify(session, times(1)).sendMessage(any());
+        verify(session).close(CloseStatus.SERVER_ERROR);
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.tiltus.authbackend.websocket;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SessionRegistryTest {
+
+    private final SessionRegistry registry = new SessionRegistry(16, 2);
+
+    @Test
+    void register_reportsFirstAndAdditionalSessions() {
+        UUID userId = UUID.randomUUID();
+        OutboundSession first = mock(OutboundSession.class);
+        OutboundSession second = mock(OutboundSession.class);
+
+        assertThat(registry.register(userId, first)).isEqualTo(SessionRegistry.Registration.FIRST);
+        assertThat(registry.register(userId, second)).isEqualTo(SessionRegistry.Registration.ADDITIONAL);
+        assertThat(registry.sessionsOf(userId)).containsExactly(first, second);
+        assertThat(registry.isConnected(userId)).isTrue();
+        assertThat(registry.sessionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void register_rejectsSessionsAboveLimit() {
+        UUID userId = UUID.randomUUID();
+        registry.register(userId, mock(OutboundSession.class));
+        registry.register(userId, mock(OutboundSession.class));
+
+        OutboundSession third = mock(OutboundSession.class);
+
+        assertThat(registry.register(userId, third)).isEqualTo(SessionRegistry.Registration.REJECTED);
+        assertThat(registry.sessionsOf(userId)).doesNotContain(third);
+        assertThat(registry.sessionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void unregister_returnsTrueOnlyForLastSession() {
+        UUID userId = UUID.randomUUID();
+        OutboundSession first = mock(OutboundSession.class);
+        OutboundSession second = mock(OutboundSession.class);
+        registry.register(userId, first);
+        registry.register(userId, second);
+
+        assertThat(registry.unregister(userId, first)).isFalse();
+        assertThat(registry.unregister(userId, first)).isFalse();
+        assertThat(registry.unregister(userId, second)).isTrue();
+        assertThat(registry.isConnected(userId)).isFalse();
+        assertThat(registry.sessionsOf(userId)).isEmpty();
+        assertThat(registry.sessionCount()).isZero();
+    }
+
+    @Test
+    void register_isConsistentUnderConcurrentConnects() throws Exception {
+        int users = 2_000;
+        SessionRegistry concurrentRegistry = new SessionRegistry(8, 1);
+        List<UUID> userIds = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            userIds.add(UUID.randomUUID());
+        }
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (UUID userId : userIds) {
+                futures.add(executor.submit(() -> concurrentRegistry.register(userId, mock(OutboundSession.class))));
+                futures.add(executor.submit(() -> concurrentRegistry.register(userId, mock(OutboundSession.class))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertThat(concurrentRegistry.sessionCount()).isEqualTo(users);
+        assertThat(userIds).allMatch(userId -> concurrentRegistry.sessionsOf(userId).size() == 1);
+    }
+}
@@ -0,0 +1,2 @@
+INSERT INTO bench_uuid_v7 (requester_id, addressee_id)
+SELECT gen_random_uuid(), gen_random_uuid() FROM generate_series(1, :batch);
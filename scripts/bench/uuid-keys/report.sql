@@ -0,0 +1,8 @@
+SELECT i.relname AS index_name,
+       pg_size_pretty(pg_relation_size(i.oid)) AS index_size,
+       s.avg_leaf_density,
+       s.leaf_fragmentation
+FROM pg_class i
+CROSS JOIN LATERAL pgstatindex(i.oid::regclass) s
+WHERE i.relname IN ('bench_uuid_v4_pkey', 'bench_uuid_v7_pkey')
+ORDER BY i.relname;
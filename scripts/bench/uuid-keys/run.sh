@@ -0,0 +1,27 @@
+#!/usr/bin/env bash
+# Inserts ROWS rows keyed by random v4 ids and by time-ordered v7 ids, then compares throughput and primary key size.
+# Needs Postgres 18 (uuidv7()) and pgbench, e.g. the dev-db container from infra/docker-compose.dev.yml.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+export PGHOST="${PGHOST:-localhost}"
+export PGPORT="${PGPORT:-5432}"
+export PGUSER="${PGUSER:-dev}"
+export PGPASSWORD="${PGPASSWORD:-carodevsql}"
+export PGDATABASE="${PGDATABASE:-development}"
+
+ROWS="${ROWS:-10000000}"
+BATCH="${BATCH:-1000}"
+CLIENTS="${CLIENTS:-8}"
+TRANSACTIONS=$(( ROWS / BATCH / CLIENTS ))
+
+psql -q -v ON_ERROR_STOP=1 -f setup.sql
+
+for version in v4 v7; do
+    echo "== ${version}: ${ROWS} rows, ${CLIENTS} clients, ${BATCH} rows per transaction (rows/s = tps * ${BATCH})"
+    pgbench -n -c "$CLIENTS" -j "$CLIENTS" -t "$TRANSACTIONS" -D batch="$BATCH" -f "insert-${version}.sql" \
+        | grep -E "tps|latency average"
+done
+
+psql -v ON_ERROR_STOP=1 -f report.sql
@@ -0,0 +1,17 @@
+-- Same width as the friendship table, so page fill and index size are comparable.
+DROP TABLE IF EXISTS bench_uuid_v4;
+DROP TABLE IF EXISTS bench_uuid_v7;
+
+CREATE TABLE bench_uuid_v4 (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    requester_id UUID NOT NULL,
+    addressee_id UUID NOT NULL,
+    status VARCHAR(32) NOT NULL DEFAULT 'PENDING',
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE bench_uuid_v7 (LIKE bench_uuid_v4 INCLUDING ALL);
+ALTER TABLE bench_uuid_v7 ALTER COLUMN id SET DEFAULT uuidv7();
+
+CREATE EXTENSION IF NOT EXISTS pgstattuple;
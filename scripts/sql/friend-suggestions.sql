@@ -0,0 +1,36 @@
+CREATE TABLE IF NOT EXISTS friend_suggestions (
+    id UUID PRIMARY KEY DEFAULT uuidv7(),
+    user_id UUID NOT NULL,
+    candidate_id UUID NOT NULL,
+    mutual_count INT NOT NULL,
+    computed_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT fk_friend_suggestions_user
+        FOREIGN KEY (user_id) REFERENCES users (id)
+            ON DELETE CASCADE,
+
+    CONSTRAINT fk_friend_suggestions_candidate
+        FOREIGN KEY (candidate_id) REFERENCES users (id)
+            ON DELETE CASCADE,
+
+    CONSTRAINT uq_friend_suggestions_pair UNIQUE (user_id, candidate_id)
+);
+
+ALTER TABLE friend_suggestions ALTER COLUMN id SET DEFAULT uuidv7();
+
+CREATE TABLE IF NOT EXISTS friend_suggestion_dirty (
+    user_id UUID PRIMARY KEY,
+    marked_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT fk_friend_suggestion_dirty_user
+        FOREIGN KEY (user_id) REFERENCES users (id)
+            ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_friend_suggestion_dirty_marked_at
+    ON friend_suggestion_dirty (marked_at);
+
+-- Every existing user gets computed once on the first run.
+INSERT INTO friend_suggestion_dirty (user_id)
+SELECT id FROM users
+ON CONFLICT (user_id) DO NOTHING;
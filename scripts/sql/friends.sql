@@ -1,5 +1,5 @@
 CREATE TABLE IF NOT EXISTS friendship (
-    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    id UUID PRIMARY KEY DEFAULT uuidv7(),
     requester_id UUID NOT NULL,
     addressee_id UUID NOT NULL,
     status VARCHAR(32) NOT NULL DEFAULT 'PENDING',
@@ -22,4 +22,13 @@ CREATE UNIQUE INDEX IF NOT EXISTS uq_friendship_pair_unordered
     ON friendship (
                    LEAST(requester_id, addressee_id),
                    GREATEST(requester_id, addressee_id)
-        );
\ No newline at end of file
+        );
+
+-- Delta sync reads each side of a user's friendships by updated_at.
+CREATE INDEX IF NOT EXISTS idx_friendship_requester_updated_at
+    ON friendship (requester_id, updated_at);
+
+CREATE INDEX IF NOT EXISTS idx_friendship_addressee_updated_at
+    ON friendship (addressee_id, updated_at);
+
+ALTER TABLE friendship ALTER COLUMN id SET DEFAULT uuidv7();
@@ -0,0 +1,9 @@
+-- Friendship events written in the same transaction as the state change and drained by
+-- FriendshipOutboxDispatcher. Rows are deleted once delivered, so the table stays small.
+CREATE TABLE IF NOT EXISTS friendship_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(32) NOT NULL,
+    actor_id UUID NOT NULL,
+    target_id UUID NOT NULL,
+    occurred_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
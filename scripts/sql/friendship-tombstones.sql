@@ -0,0 +1,17 @@
+-- Deleted friendships, kept so GET /api/friends/changes can report removals.
+-- FriendshipSyncService compacts rows older than friends.sync.tombstone-retention-days.
+CREATE TABLE IF NOT EXISTS friendship_tombstone (
+    friendship_id UUID PRIMARY KEY,
+    requester_id UUID NOT NULL,
+    addressee_id UUID NOT NULL,
+    deleted_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_friendship_tombstone_requester
+    ON friendship_tombstone (requester_id, deleted_at);
+
+CREATE INDEX IF NOT EXISTS idx_friendship_tombstone_addressee
+    ON friendship_tombstone (addressee_id, deleted_at);
+
+CREATE INDEX IF NOT EXISTS idx_friendship_tombstone_deleted_at
+    ON friendship_tombstone (deleted_at);
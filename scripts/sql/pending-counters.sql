@@ -0,0 +1,21 @@
+CREATE TABLE IF NOT EXISTS friend_request_counters (
+    user_id UUID PRIMARY KEY,
+    incoming_pending INT NOT NULL DEFAULT 0,
+    outgoing_pending INT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT fk_friend_request_counters_user
+        FOREIGN KEY (user_id) REFERENCES users (id)
+            ON DELETE CASCADE,
+
+    CONSTRAINT chk_friend_request_counters_positive
+        CHECK (incoming_pending >= 0 AND outgoing_pending >= 0)
+);
+
+-- Backfill from the current friendship state; new rows are created lazily on the first request.
+INSERT INTO friend_request_counters (user_id, incoming_pending, outgoing_pending)
+SELECT u.id,
+       (SELECT COUNT(*) FROM friendship f WHERE f.addressee_id = u.id AND f.status = 'PENDING'),
+       (SELECT COUNT(*) FROM friendship f WHERE f.requester_id = u.id AND f.status = 'PENDING')
+FROM users u
+ON CONFLICT (user_id) DO NOTHING;
@@ -4,6 +4,9 @@ CREATE TABLE IF NOT EXISTS user_profile (
     avatar_url   TEXT,
     banner_url   TEXT,
     accent_color VARCHAR(16),
+    version      BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT fk_user_profile_user
         FOREIGN KEY (user_id) REFERENCES users(id)
-);
\ No newline at end of file
+);
+
+ALTER TABLE user_profile ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
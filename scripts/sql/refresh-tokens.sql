@@ -1,9 +1,11 @@
 CREATE TABLE IF NOT EXISTS refresh_tokens (
-    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    id UUID PRIMARY KEY DEFAULT uuidv7(),
     user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
     token TEXT NOT NULL UNIQUE,
     expires TIMESTAMPTZ NOT NULL,
     created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
 );
 
-CREATE INDEX ON refresh_tokens(user_id);
\ No newline at end of file
+CREATE INDEX ON refresh_tokens(user_id);
+
+ALTER TABLE refresh_tokens ALTER COLUMN id SET DEFAULT uuidv7();
@@ -1,7 +1,7 @@
 CREATE EXTENSION IF NOT EXISTS pgcrypto;
 
 CREATE TABLE IF NOT EXISTS users (
-    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    id UUID PRIMARY KEY DEFAULT uuidv7(),
     tag_id VARCHAR(7) NOT NULL,
 
     username VARCHAR(32) NOT NULL,
@@ -11,5 +11,16 @@ CREATE TABLE IF NOT EXISTS users (
     password_hash VARCHAR(255) NOT NULL,
 
     created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
-    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
-);
\ No newline at end of file
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    last_active_at TIMESTAMPTZ,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+-- Written in batches by LastActiveTracker, not mapped on the entity.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS last_active_at TIMESTAMPTZ;
+
+-- Optimistic lock version, doubles as the ETag of the user resources.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Time-ordered ids keep primary key inserts on the right edge of the index (uuidv7() needs Postgres 18).
+ALTER TABLE users ALTER COLUMN id SET DEFAULT uuidv7();